@@ -0,0 +1,93 @@
+/**
+ * This file defines the ContentionBenchmark class for the grocery inventory benchmarks.
+ * It measures how stock updates scale with threads when every thread updates its own
+ * products, so any slowdown with more threads comes from state the updates share -
+ * locks, counters, the modification version - and not from the products themselves.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * adjustStock from one thread and from one thread per processor.
+ * With disjoint products, throughput per thread should stay close to the single-thread
+ * figure; the shared-product case shows the cost when threads really do collide.
+ * Compare the ops/us of ownProductsOneThread with ownProductsAllThreads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ContentionBenchmark {
+
+    /**
+     * Products only this thread updates: IDs whose remainder by the thread count is the
+     * thread's index, drawn at random.
+     */
+    @State(Scope.Thread)
+    public static class OwnProducts {
+        private static final int COUNT = 1 << 12;      // A power of two, for cheap wrap-around
+
+        private int[] ids;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void pick(InventoryFixture fixture, ThreadParams threads) {
+            int threadCount = threads.getThreadCount();
+            int productsPerThread = Math.max(1, fixture.size / threadCount);
+            SplittableRandom random = new SplittableRandom(InventoryFixture.SEED + threads.getThreadIndex());
+
+            ids = new int[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                ids[i] = 1 + threads.getThreadIndex() + random.nextInt(productsPerThread) * threadCount;
+            }
+        }
+
+        int nextId() {
+            return ids[next++ & (COUNT - 1)];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int ownProductsOneThread(InventoryFixture fixture, OwnProducts own) {
+        return adjustUpAndDown(fixture, own.nextId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int ownProductsAllThreads(InventoryFixture fixture, OwnProducts own) {
+        return adjustUpAndDown(fixture, own.nextId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int sharedProductAllThreads(InventoryFixture fixture) {
+        return adjustUpAndDown(fixture, 1);
+    }
+
+    /**
+     * A delivery and a sale of one unit, so quantities stay where the fixture put them.
+     */
+    private static int adjustUpAndDown(InventoryFixture fixture, int productId) {
+        fixture.manager.adjustStock(productId, 1);
+        return fixture.manager.adjustStock(productId, -1);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * This file defines the InventoryFixture class for the grocery inventory benchmarks.
+ * It builds the inventory every benchmark runs against with InventoryGenerator: a given
+ * number of products with a given share of perishables, with the generator's skewed
+ * suppliers, stock levels and prices, and expiry dates around a pinned business date.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import com.csp3341.grocery.Category;
+import com.csp3341.grocery.InventoryGenerator;
+import com.csp3341.grocery.InventoryManager;
+import com.csp3341.grocery.NonPerishable;
+import com.csp3341.grocery.Perishable;
+import com.csp3341.grocery.Product;
+import com.csp3341.grocery.Supplier;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared inventory for one benchmark run (one combination of parameters).
+ * Product IDs run from 1 to size, so benchmarks can pick random existing products
+ * without a lookup table. The contents are generated from a fixed seed, so every run
+ * with the same parameters measures the same inventory (about a fifth of the
+ * perishables are expired).
+ *
+ * InventoryManager reports most operations on the console; System.out is switched
+ * to a null stream for the run, so the benchmarks still pay for the formatting but
+ * not for a terminal.
+ */
+@State(Scope.Benchmark)
+public class InventoryFixture {
+    // Business date the inventory is pinned to
+    static final LocalDate BUSINESS_DATE = LocalDate.of(2025, 6, 1);
+
+    // Products added by benchmarks expire up to this many days either side of it
+    private static final int EXPIRY_SPREAD_DAYS = 60;
+
+    static final long SEED = 3341;
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    public int size;
+
+    // Percentage of products that are perishable
+    @Param({"0", "50", "100"})
+    public int perishablePercent;
+
+    InventoryManager manager;
+    InventoryGenerator generator;
+
+    private List<Supplier> suppliers;
+    private Random random;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void build() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        manager = new InventoryManager();
+        manager.setClock(Clock.fixed(BUSINESS_DATE.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+
+        generator = new InventoryGenerator(SEED);
+        generator.setPerishablePercent(perishablePercent);
+        generator.populate(manager, size);
+
+        suppliers = manager.getAllSuppliers();
+        random = new Random(SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreConsole() {
+        System.setOut(console);
+    }
+
+    /**
+     * Creates a product that is not in the inventory yet, drawn from the same mix as
+     * the inventory's own products.
+     *
+     * @param id product ID (must not be in use when the product is added)
+     */
+    Product newProduct(int id) {
+        Category category = Category.values()[random.nextInt(Category.values().length)];
+        Supplier supplier = suppliers.get(random.nextInt(suppliers.size()));
+        double price = 50 + random.nextInt(100_000) / 100.0;
+        int quantity = random.nextInt(200);
+
+        if (random.nextInt(100) < perishablePercent) {
+            LocalDate expiry = BUSINESS_DATE.plusDays(random.nextInt(2 * EXPIRY_SPREAD_DAYS + 1) - EXPIRY_SPREAD_DAYS);
+            return new Perishable(id, "Product " + id, price, quantity, category, supplier, expiry.toString());
+        }
+        return new NonPerishable(id, "Product " + id, price, quantity, category, supplier, "12 months");
+    }
+
+    /**
+     * @return the ID of a random product in the inventory
+     */
+    int randomProductId() {
+        return 1 + ThreadLocalRandom.current().nextInt(size);
+    }
+}
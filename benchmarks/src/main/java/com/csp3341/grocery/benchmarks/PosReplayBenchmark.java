@@ -0,0 +1,46 @@
+/**
+ * This file defines the PosReplayBenchmark class for the grocery inventory benchmarks.
+ * It measures replaying a synthetic point-of-sale stream - Zipf popular products, with
+ * stockouts and deliveries - against the fixture inventory, one sale at a time and in
+ * gateway-sized batches.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import com.csp3341.grocery.PosReplayResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryGenerator.replayPos over SALES sales per iteration.
+ * Each iteration replays the same stream; stock carries over between iterations,
+ * as it would in a store, so later iterations see the deliveries of earlier ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class PosReplayBenchmark {
+    private static final int SALES = 1_000_000;
+
+    // Sales per stock update call - 1 is tryDecrementStock per sale, more is applyStockAdjustments
+    @Param({"1", "64"})
+    public int batchSize;
+
+    @Benchmark
+    public PosReplayResult replay(InventoryFixture fixture) {
+        return fixture.generator.replayPos(fixture.manager, SALES, batchSize);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * This file defines the ProductMutationBenchmark class for the grocery inventory benchmarks.
+ * It measures adding products to and removing products from the fixture inventory,
+ * putting the inventory back after every iteration so its size stays as configured.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import com.csp3341.grocery.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * addProduct and removeProduct.
+ * Each measured iteration is one batch of BATCH calls (single-shot mode), and the
+ * inventory is restored between iterations, outside the measurement. The score is
+ * the time for the whole batch: in microseconds per 1000 calls, it reads as
+ * nanoseconds per call. Run single-threaded (every thread would pick the same products).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50, batchSize = ProductMutationBenchmark.BATCH)
+@Measurement(iterations = 50, batchSize = ProductMutationBenchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ProductMutationBenchmark {
+    static final int BATCH = 1000;
+
+    /**
+     * Products added by one iteration - new IDs above the fixture's, removed again afterwards.
+     */
+    @State(Scope.Thread)
+    public static class NewProducts {
+        private InventoryFixture fixture;
+        private Product[] products;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void create(InventoryFixture fixture) {
+            this.fixture = fixture;
+            products = new Product[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                products[i] = fixture.newProduct(fixture.size + 1 + i);
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void removeAdded() {
+            for (int i = 0; i < next; i++) {
+                fixture.manager.removeProduct(products[i].getId());
+            }
+            next = 0;
+        }
+    }
+
+    /**
+     * Existing products removed by one iteration - random IDs, added back afterwards.
+     */
+    @State(Scope.Thread)
+    public static class ExistingProducts {
+        private InventoryFixture fixture;
+        private Product[] products;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void pick(InventoryFixture fixture) {
+            this.fixture = fixture;
+            int count = Math.min(BATCH, fixture.size);
+            products = new Product[count];
+
+            // Every product ID from 1 to size exists, so a stride spreads the picks evenly
+            int stride = fixture.size / count;
+            for (int i = 0; i < count; i++) {
+                products[i] = fixture.manager.findProduct(1 + i * stride).orElseThrow();
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void addRemovedBack() {
+            for (int i = 0; i < next; i++) {
+                fixture.manager.addProduct(products[i]);
+            }
+            next = 0;
+        }
+    }
+
+    @Benchmark
+    public void addProduct(InventoryFixture fixture, NewProducts added) {
+        fixture.manager.addProduct(added.products[added.next++]);
+    }
+
+    @Benchmark
+    public void removeProduct(InventoryFixture fixture, ExistingProducts removed) {
+        fixture.manager.removeProduct(removed.products[removed.next++].getId());
+    }
+}
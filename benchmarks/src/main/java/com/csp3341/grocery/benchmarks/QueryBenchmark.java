@@ -0,0 +1,113 @@
+/**
+ * This file defines the QueryBenchmark class for the grocery inventory benchmarks.
+ * It measures finding expired products - through the expiry index and the console
+ * listing - searching products by name, and formatting product rows.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import com.csp3341.grocery.Perishable;
+import com.csp3341.grocery.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expired product queries and product row formatting.
+ * The listing benchmarks write to the null console set up by InventoryFixture: the
+ * warm one re-lists an unchanged inventory (served from the report cache), the cold
+ * one changes a product's stock first so the list is collected and formatted again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class QueryBenchmark {
+    private static final LocalDate FIRST_EXPIRY = LocalDate.of(1, 1, 1);
+
+    /**
+     * Products to format, taken from the fixture (perishable and non-perishable in its mix),
+     * and name searches: the first four letters of a word in each product's name.
+     */
+    @State(Scope.Thread)
+    public static class Rows {
+        private static final int COUNT = 1024;      // Power of two, so the cursor wraps with a mask
+        private static final int SEARCH_LIMIT = 20;
+
+        private Product[] products;
+        private String[] searches;
+        private int next;
+        private final StringBuilder row = new StringBuilder(256);
+
+        @Setup(Level.Trial)
+        public void pick(InventoryFixture fixture) {
+            products = new Product[COUNT];
+            searches = new String[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                products[i] = fixture.manager.findProduct(fixture.randomProductId()).orElseThrow();
+
+                String[] words = products[i].getName().split(" ");
+                String word = words[i % words.length];
+                searches[i] = word.substring(0, Math.min(4, word.length()));
+            }
+        }
+
+        Product next() {
+            return products[next++ & (COUNT - 1)];
+        }
+
+        String nextSearch() {
+            return searches[next++ & (COUNT - 1)];
+        }
+    }
+
+    @Benchmark
+    public List<Perishable> expiredFromIndex(InventoryFixture fixture) {
+        return fixture.manager.findExpiringBetween(FIRST_EXPIRY, InventoryFixture.BUSINESS_DATE.minusDays(1));
+    }
+
+    @Benchmark
+    public long countExpired(InventoryFixture fixture) {
+        return fixture.manager.countExpiredProducts();
+    }
+
+    @Benchmark
+    public void listExpiredProductsWarm(InventoryFixture fixture) {
+        fixture.manager.listExpiredProducts();
+    }
+
+    @Benchmark
+    public void listExpiredProductsCold(InventoryFixture fixture) {
+        fixture.manager.adjustStock(1, 0);      // Counts as a change, so the cached rows are dropped
+        fixture.manager.listExpiredProducts();
+    }
+
+    @Benchmark
+    public List<Product> searchByName(InventoryFixture fixture, Rows rows) {
+        return fixture.manager.searchProducts(rows.nextSearch(), Rows.SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    public String productToString(Rows rows) {
+        return rows.next().toString();
+    }
+
+    @Benchmark
+    public StringBuilder productAppendTo(Rows rows) {
+        rows.row.setLength(0);
+        return rows.next().appendTo(rows.row);
+    }
+}
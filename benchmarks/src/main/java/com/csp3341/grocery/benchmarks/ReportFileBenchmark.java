@@ -0,0 +1,61 @@
+/**
+ * This file defines the ReportFileBenchmark class for the grocery inventory benchmarks.
+ * It measures writing the complete inventory report to a temporary file. The complete
+ * report copies and formats every product each time (it is never served from the report
+ * cache), so one benchmark covers it.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * saveCompleteReportToFile with supplier details.
+ * A 5M product report is several hundred MB, so iterations are single calls.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ReportFileBenchmark {
+
+    /**
+     * Temporary report file, deleted after the run.
+     */
+    @State(Scope.Thread)
+    public static class ReportFile {
+        private String filename;
+
+        @Setup(Level.Trial)
+        public void create() throws IOException {
+            filename = Files.createTempFile("inventory-report", ".txt").toString();
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(Path.of(filename));
+        }
+    }
+
+    @Benchmark
+    public boolean completeReport(InventoryFixture fixture, ReportFile report) {
+        return fixture.manager.saveCompleteReportToFile(report.filename, true);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * This file defines the StartupBenchmark class for the grocery inventory benchmarks.
+ * It measures the ways of getting a whole inventory into memory: loading a binary
+ * snapshot (as Main does at startup), importing the same inventory from a CSV catalogue,
+ * and replaying the full mutation log without a snapshot.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import com.csp3341.grocery.CatalogueImporter;
+import com.csp3341.grocery.ImportResult;
+import com.csp3341.grocery.InventoryGenerator;
+import com.csp3341.grocery.InventoryManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loading an inventory of a given size, one whole load per iteration.
+ * The files are generated once per trial: a catalogue CSV, the mutation log written
+ * while importing it, and a snapshot taken at the end of that log. The snapshot target
+ * is a 5M product inventory in under two seconds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class StartupBenchmark {
+    @Param({"100000", "1000000", "5000000"})
+    public int size;
+
+    private Path directory;
+    private Path catalogueFile;
+    private Path logFile;
+    private Path snapshotFile;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void writeFiles() throws IOException {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        directory = Files.createTempDirectory("inventory-startup");
+        catalogueFile = directory.resolve("catalogue.csv");
+        logFile = directory.resolve("inventory.wal");
+        snapshotFile = directory.resolve("inventory.snapshot");
+
+        new InventoryGenerator(InventoryFixture.SEED).writeCatalogue(catalogueFile, size, InventoryFixture.BUSINESS_DATE);
+
+        InventoryManager manager = InventoryManager.open(logFile);
+        new CatalogueImporter(manager).importFile(catalogueFile);
+        manager.saveSnapshotAsync(snapshotFile).join();
+        manager.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        System.setOut(console);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public InventoryManager loadSnapshot() throws IOException {
+        // The snapshot ends where the log does, so no log records are replayed
+        InventoryManager manager = InventoryManager.open(logFile, snapshotFile);
+        manager.close();
+        return manager;
+    }
+
+    @Benchmark
+    public ImportResult importCatalogue() throws IOException {
+        return new CatalogueImporter(new InventoryManager()).importFile(catalogueFile);
+    }
+
+    @Benchmark
+    public InventoryManager replayLog() throws IOException {
+        InventoryManager manager = InventoryManager.open(logFile);
+        manager.close();
+        return manager;
+    }
+}
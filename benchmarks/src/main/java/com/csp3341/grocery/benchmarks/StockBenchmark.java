@@ -0,0 +1,42 @@
+/**
+ * This file defines the StockBenchmark class for the grocery inventory benchmarks.
+ * It measures the per-product hot paths: looking a product up by ID and setting its
+ * stock level, on random products of the fixture inventory.
+ */
+
+package com.csp3341.grocery.benchmarks;
+
+import com.csp3341.grocery.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findProduct and updateStock on random existing products.
+ * Run with -t to measure several threads sharing one inventory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class StockBenchmark {
+
+    @Benchmark
+    public Optional<Product> findProduct(InventoryFixture fixture) {
+        return fixture.manager.findProduct(fixture.randomProductId());
+    }
+
+    @Benchmark
+    public void updateStock(InventoryFixture fixture) {
+        fixture.manager.updateStock(fixture.randomProductId(), ThreadLocalRandom.current().nextInt(200));
+    }
+}
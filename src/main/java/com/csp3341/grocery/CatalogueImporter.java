@@ -0,0 +1,309 @@
+/**
+ * This file defines the CatalogueImporter class for the grocery inventory management system.
+ * It loads suppliers and products in bulk from a CSV file, streaming the file through a
+ * large read buffer and splitting fields with a hand-written parser. Rows that cannot be
+ * imported are collected with their line numbers instead of stopping the import, and
+ * products that are already past their expiry date are collected as warnings.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Streams a catalogue CSV file into an InventoryManager.
+ *
+ * File format (one record per line, blank lines and lines starting with '#' are skipped):
+ * <pre>
+ *   SUPPLIER,id,name,contact
+ *   PERISHABLE,id,name,price,quantity,category,supplierId,expiryDate[,lowStockThreshold]
+ *   NON_PERISHABLE,id,name,price,quantity,category,supplierId,shelfLife[,lowStockThreshold]
+ * </pre>
+ * Categories use the enum constant names (e.g. DRIED_FOOD) and expiry dates use YYYY-MM-DD.
+ * Fields may be wrapped in double quotes to contain commas; "" inside quotes is a literal quote.
+ * Suppliers must appear before (or already exist for) the products that reference them.
+ *
+ * Not thread-safe: use one importer per thread.
+ */
+public final class CatalogueImporter {
+    // Read buffer size - large enough to keep disk reads in big chunks
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    // Rough average row length, used to pre-size the product index from the file size
+    private static final int ESTIMATED_BYTES_PER_ROW = 64;
+
+    // Widest record (product with optional threshold) has 9 fields
+    private static final int MAX_FIELDS = 9;
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final InventoryManager manager;
+
+    // Reused for every row to avoid per-row allocation
+    private final String[] fields;
+    private final StringBuilder quotedField;
+
+    /**
+     * Constructor - creates an importer that loads into the given inventory.
+     *
+     * @param manager the inventory to load into (must not be null)
+     * @throws IllegalArgumentException if manager is null
+     */
+    public CatalogueImporter(InventoryManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Inventory manager cannot be null");
+        }
+        this.manager = manager;
+        this.fields = new String[MAX_FIELDS];
+        this.quotedField = new StringBuilder();
+    }
+
+    /**
+     * Imports every record in a CSV file.
+     * Valid rows are added without console output; invalid rows are recorded in the result.
+     * If the inventory has a mutation log, the import is synced to it once at the end.
+     *
+     * @param path the CSV file to read
+     * @return counts of imported records and the rejected rows with line numbers
+     * @throws IOException if the file cannot be read
+     */
+    public ImportResult importFile(Path path) throws IOException {
+        // Pre-size the product index from the file size so it does not keep rehashing
+        long estimatedRows = Files.size(path) / ESTIMATED_BYTES_PER_ROW;
+        manager.ensureProductCapacity((int) Math.min(estimatedRows, 1 << 28));
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            return importFrom(reader);
+        }
+    }
+
+    /**
+     * Imports every record from an already opened reader.
+     * Products dated before the inventory's business date are imported with a warning.
+     *
+     * @param reader source of CSV lines
+     * @return counts of imported records and the rejected rows with line numbers
+     * @throws IOException if reading fails
+     */
+    ImportResult importFrom(BufferedReader reader) throws IOException {
+        ImportResult result = new ImportResult();
+        long today = manager.getBusinessDate().toEpochDay();
+        long lineNumber = 0;
+        String line;
+
+        try (InventoryManager.BulkLoad load = manager.beginBulkLoad()) {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank() || line.charAt(0) == '#') {
+                    continue;       // Skip blank lines and comments
+                }
+
+                try {
+                    int fieldCount = splitFields(line);
+
+                    switch (fields[0]) {
+                        case "SUPPLIER" -> {
+                            importSupplier(fieldCount);
+                            result.supplierImported();
+                        }
+                        case "PERISHABLE", "NON_PERISHABLE" -> {
+                            Product product = importProduct(fieldCount);
+                            result.productImported();
+
+                            if (product instanceof Perishable perishable && perishable.getExpiryEpochDay() < today) {
+                                result.warnRow(lineNumber, "Expiry date " + perishable.getExpiryDate()
+                                        + " is in the past. Product may be expired.");
+                            }
+                        }
+                        default -> throw new IllegalArgumentException("Unknown record type '" + fields[0] + "'");
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Validation failure - record it and carry on with the next row
+                    result.rejectRow(lineNumber, e.getMessage());
+                }
+                load.loaded();
+            }
+        }
+
+        // Rows are logged without waiting - one sync makes the whole import durable
+        manager.syncLog();
+        return result;
+    }
+
+    // Record Handlers
+
+    /**
+     * Creates a supplier from the current row: SUPPLIER,id,name,contact
+     */
+    private void importSupplier(int fieldCount) {
+        requireFieldCount(fieldCount, 4, 4);
+        Supplier supplier = new Supplier(parseInt(fields[1], "supplier ID"), fields[2], fields[3]);
+        manager.registerSupplier(supplier);
+    }
+
+    /**
+     * Creates a perishable or non-perishable product from the current row.
+     *
+     * @return the product added to the inventory
+     */
+    private Product importProduct(int fieldCount) {
+        requireFieldCount(fieldCount, 8, 9);
+
+        int id = parseInt(fields[1], "product ID");
+        String name = fields[2];
+        double price = parsePrice(fields[3]);
+        int quantity = parseInt(fields[4], "quantity");
+        Category category = parseCategory(fields[5]);
+
+        int supplierId = parseInt(fields[6], "supplier ID");
+        Supplier supplier = manager.findSupplier(supplierId)
+                .orElseThrow(() -> new IllegalArgumentException("Supplier with ID " + supplierId + " not found"));
+
+        Product product;
+        if (fields[0].equals("PERISHABLE")) {
+            product = new Perishable(id, name, price, quantity, category, supplier, parseExpiryDay(fields[7]));
+        } else {
+            product = new NonPerishable(id, name, price, quantity, category, supplier, fields[7]);
+        }
+
+        // Optional ninth field overrides the default low stock threshold
+        if (fieldCount == 9) {
+            product.setLowStockThreshold(parseInt(fields[8], "low stock threshold"));
+        }
+
+        manager.registerProduct(product);
+        return product;
+    }
+
+    // Field Parsing
+
+    /**
+     * Splits a line into the reusable fields array.
+     * Unquoted fields are trimmed; quoted fields keep their content exactly.
+     *
+     * @param line the line to split
+     * @return number of fields found
+     * @throws IllegalArgumentException for malformed quoting or too many fields
+     */
+    private int splitFields(String line) {
+        int length = line.length();
+        int count = 0;
+        int i = 0;
+
+        while (true) {
+            if (count == MAX_FIELDS) {
+                throw new IllegalArgumentException("Too many fields (maximum " + MAX_FIELDS + ")");
+            }
+
+            // Skip leading whitespace
+            while (i < length && line.charAt(i) <= ' ') {
+                i++;
+            }
+
+            if (i < length && line.charAt(i) == QUOTE) {
+                // Quoted field - copy characters until the closing quote
+                quotedField.setLength(0);
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != QUOTE) {
+                        quotedField.append(c);
+                    } else if (i < length && line.charAt(i) == QUOTE) {
+                        quotedField.append(QUOTE);      // Escaped quote ("")
+                        i++;
+                    } else {
+                        break;                          // Closing quote
+                    }
+                }
+                fields[count++] = quotedField.toString();
+
+                while (i < length && line.charAt(i) <= ' ') {
+                    i++;
+                }
+                if (i < length && line.charAt(i) != SEPARATOR) {
+                    throw new IllegalArgumentException("Unexpected text after quoted field");
+                }
+            } else {
+                // Plain field - runs to the next separator, trailing whitespace trimmed
+                int start = i;
+                while (i < length && line.charAt(i) != SEPARATOR) {
+                    i++;
+                }
+                int end = i;
+                while (end > start && line.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+                fields[count++] = line.substring(start, end);
+            }
+
+            if (i >= length) {
+                return count;
+            }
+            i++;        // Step over the separator
+        }
+    }
+
+    /**
+     * Checks the current row has an acceptable number of fields.
+     */
+    private void requireFieldCount(int fieldCount, int min, int max) {
+        if (fieldCount < min || fieldCount > max) {
+            String expected = min == max ? String.valueOf(min) : min + "-" + max;
+            throw new IllegalArgumentException(
+                    "Expected " + expected + " fields for " + fields[0] + " but found " + fieldCount);
+        }
+    }
+
+    private static int parseInt(String field, String fieldName) {
+        try {
+            return Integer.parseInt(field);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + fieldName + ": '" + field + "'");
+        }
+    }
+
+    private static double parsePrice(String field) {
+        try {
+            double price = Double.parseDouble(field);
+            if (Double.isNaN(price) || Double.isInfinite(price)) {
+                throw new NumberFormatException();
+            }
+            return price;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: '" + field + "'");
+        }
+    }
+
+    private static Category parseCategory(String field) {
+        try {
+            return Category.valueOf(field);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown category: '" + field + "'");
+        }
+    }
+
+    /**
+     * Parses an expiry date to an epoch day. Plain YYYY-MM-DD dates take a hand-written
+     * fast path (see Perishable.parseExpiryDay) instead of the general date formatter.
+     */
+    private static long parseExpiryDay(String field) {
+        try {
+            return Perishable.parseExpiryDay(field);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                    "Invalid date format: '" + field + "'. Expected format: YYYY-MM-DD");
+        }
+    }
+}
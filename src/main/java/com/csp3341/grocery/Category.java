@@ -19,6 +19,13 @@ public enum Category {
     CANNED_FOOD,
     DRIED_FOOD;
 
+    // Display name, worked out once per constant instead of on every toString() call
+    private final String displayName;
+
+    Category() {
+        this.displayName = formatName(name());
+    }
+
     /**
      * Overrides the default toString() method to provide a human-readable,
      * formatted representation of the category.
@@ -36,8 +43,15 @@ public enum Category {
      */
     @Override
     public String toString() {
+        return displayName;
+    }
+
+    /**
+     * Converts a constant name to its display form (see toString()).
+     */
+    private static String formatName(String constantName) {
         // Replace underscores with spaces and convert to lowercase
-        String formattedName = name().replace("_", " ").toLowerCase();
+        String formattedName = constantName.replace("_", " ").toLowerCase();
 
         // Capitalise only the first character
         return formattedName.substring(0, 1).toUpperCase() + formattedName.substring(1);
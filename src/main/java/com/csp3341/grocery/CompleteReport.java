@@ -0,0 +1,213 @@
+/**
+ * This file defines the CompleteReport class for the grocery inventory management system.
+ * It renders the complete inventory report (console and file layouts) from one captured
+ * view of the inventory, making a single pass over the product list. Every row, section,
+ * count and total is taken from the same copies of the products, made when the report was
+ * captured, so the report always agrees with itself even while stock keeps changing.
+ * Headers and timestamps are always written fresh.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A complete inventory report captured at one moment.
+ * Created by InventoryManager from copies of its products and suppliers, then written
+ * without holding any lock.
+ */
+final class CompleteReport {
+    private static final String MAJOR_SEPARATOR = "=".repeat(InventoryManager.REPORT_SEPARATOR_LENGTH);
+    private static final String MINOR_SEPARATOR = "-".repeat(InventoryManager.REPORT_SEPARATOR_LENGTH);
+
+    private final List<Supplier> suppliers;
+    private final InventoryValuation valuation;
+    private final ReportCache.ProductRows products;           // Insertion order
+    private final ReportCache.ProductRows expiredProducts;    // Product ID order
+    private final ReportCache.ProductRows lowStockProducts;   // Product ID order
+    private final ForkJoinPool rowPool;                       // Formats rows in parallel, or null
+
+    /**
+     * Constructor - the lists and the valuation must come from the same product copies,
+     * and all rows must be shown as of the same business date.
+     * Rows not yet formatted are formatted on rowPool if given (see ReportOutput.printRows).
+     */
+    CompleteReport(List<Supplier> suppliers, InventoryValuation valuation, ReportCache.ProductRows products,
+                   ReportCache.ProductRows expiredProducts, ReportCache.ProductRows lowStockProducts,
+                   ForkJoinPool rowPool) {
+        this.rowPool = rowPool;
+        this.suppliers = suppliers;
+        this.valuation = valuation;
+        this.products = products;
+        this.expiredProducts = expiredProducts;
+        this.lowStockProducts = lowStockProducts;
+    }
+
+    /**
+     * @param includeSupplierDetails whether the supplier section is written
+     * @return number of product and supplier rows the report writes
+     */
+    long getRowCount(boolean includeSupplierDetails) {
+        long rows = (long) products.size() + expiredProducts.size() + lowStockProducts.size();
+        return includeSupplierDetails ? rows + suppliers.size() : rows;
+    }
+
+    /**
+     * Writes the console layout (section headings followed by the console list titles).
+     *
+     * @param out destination - closed by the caller
+     * @param includeSupplierDetails whether to include the supplier section
+     * @throws IOException if writing fails
+     */
+    void writeConsole(ReportOutput out, boolean includeSupplierDetails) throws IOException {
+        out.println("\n" + MAJOR_SEPARATOR);
+        out.println("COMPLETE INVENTORY REPORT");
+        out.println(MAJOR_SEPARATOR);
+
+        // Optional supplier section
+        if (includeSupplierDetails) {
+            out.println("\nSUPPLIER DETAILS:");
+            out.println(MINOR_SEPARATOR);
+            out.println("SUPPLIER LIST:");
+            writeSupplierRows(out, suppliers, "No suppliers found!");
+        }
+
+        // Product summary section
+        out.println("\nPRODUCT SUMMARY:");
+        out.println(MINOR_SEPARATOR);
+        out.println("Total Products: " + products.size());
+        out.println("Total Suppliers: " + suppliers.size());
+        writeValuation(out);
+
+        // Product sections
+        out.println("\nALL PRODUCTS:");
+        out.println(MINOR_SEPARATOR);
+        out.println("PRODUCT LIST:");
+        writeRows(out, products, "No products found!");
+
+        out.println("\nEXPIRED PRODUCTS:");
+        out.println(MINOR_SEPARATOR);
+        out.println("EXPIRED PRODUCT LIST:");
+        writeRows(out, expiredProducts, "No expired products found!");
+
+        out.println("\nLOW STOCK PRODUCTS:");
+        out.println(MINOR_SEPARATOR);
+        out.println("LOW STOCK PRODUCT LIST:");
+        writeRows(out, lowStockProducts, "No low stock products found!");
+
+        // Report footer
+        out.println("\n" + MAJOR_SEPARATOR);
+        out.println("REPORT COMPLETE");
+        out.println(MAJOR_SEPARATOR);
+    }
+
+    /**
+     * Writes the file layout (timestamped header, summary with section counts, footer).
+     *
+     * @param writer destination - closed by the caller
+     * @param timestamp generation time shown in the header
+     * @param includeSupplierDetails whether to include the supplier section
+     * @throws IOException if writing fails
+     */
+    void writeFile(ReportOutput writer, String timestamp, boolean includeSupplierDetails) throws IOException {
+        // Report Header
+        writer.println(MAJOR_SEPARATOR);
+        writer.println("COMPLETE INVENTORY REPORT");
+        writer.println("Generated: " + timestamp);
+        writer.println(MAJOR_SEPARATOR);
+        writer.println();       // Blank line
+
+        // Supplier Section (if requested)
+        if (includeSupplierDetails) {
+            writer.println("SUPPLIER DETAILS:");
+            writer.println(MINOR_SEPARATOR);
+            writeSupplierRows(writer, suppliers, "No suppliers found!");
+            writer.println();       // Blank line
+        }
+
+        // Product Summary - counts are the sizes of the captured sections
+        writer.println("PRODUCT SUMMARY:");
+        writer.println(MINOR_SEPARATOR);
+        writer.println("Total Products: " + products.size());
+        writer.println("Total Suppliers: " + suppliers.size());
+        writer.println("Expired Products: " + expiredProducts.size());
+        writer.println("Low Stock Products: " + lowStockProducts.size());
+        writeValuation(writer);
+        writer.println();           // Blank line
+
+        // Product Sections
+        writer.println("ALL PRODUCTS:");
+        writer.println(MINOR_SEPARATOR);
+        writeRows(writer, products, "No products found!");
+        writer.println();           // Blank line
+
+        writer.println("EXPIRED PRODUCTS:");
+        writer.println(MINOR_SEPARATOR);
+        writeRows(writer, expiredProducts, "No expired products found!");
+        writer.println();           // Blank line
+
+        writer.println("LOW STOCK PRODUCTS:");
+        writer.println(MINOR_SEPARATOR);
+        writeRows(writer, lowStockProducts, "No low stock products found!");
+
+        // Report Footer
+        writer.println("\n" + MAJOR_SEPARATOR);
+        writer.println("REPORT END");
+        writer.println("Generated by Grocery Inventory Manager");
+        writer.println(MAJOR_SEPARATOR);
+    }
+
+    /**
+     * Writes the stock totals: overall, then one line per category and per supplier.
+     * Both layouts share this part of the summary.
+     */
+    private void writeValuation(ReportOutput out) throws IOException {
+        InventoryValuation.Totals overall = valuation.getOverall();
+        out.println("Total Units: " + overall.getTotalUnits());
+        out.println(String.format("Total Stock Value: LKR %.2f", overall.getTotalValue()));
+
+        out.println("\nVALUE BY CATEGORY:");
+        out.println(MINOR_SEPARATOR);
+        for (Category category : Category.values()) {
+            out.println(category + ": " + valuation.getCategoryTotals(category));
+        }
+
+        out.println("\nVALUE BY SUPPLIER:");
+        out.println(MINOR_SEPARATOR);
+        if (suppliers.isEmpty()) {
+            out.println("No suppliers found!");
+        }
+        for (Supplier supplier : suppliers) {
+            out.println(supplier.getSupplierId() + " | " + supplier.getSupplierName() + ": "
+                    + valuation.getSupplierTotals(supplier.getSupplierId()));
+        }
+    }
+
+    /**
+     * Writes one row per supplier, or the message if there are none.
+     */
+    private static void writeSupplierRows(ReportOutput out, List<Supplier> rows, String emptyMessage)
+            throws IOException {
+        if (rows.isEmpty()) {
+            out.println(emptyMessage);
+            return;
+        }
+        for (Supplier supplier : rows) {
+            out.println(supplier);
+        }
+    }
+
+    /**
+     * Writes one row per product, or the message if there are none.
+     */
+    private void writeRows(ReportOutput out, ReportCache.ProductRows rows, String emptyMessage)
+            throws IOException {
+        if (rows.isEmpty()) {
+            out.println(emptyMessage);
+            return;
+        }
+        rows.writeTo(out, rowPool);
+    }
+}
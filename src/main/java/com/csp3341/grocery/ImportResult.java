@@ -0,0 +1,162 @@
+/**
+ * This file defines the ImportResult class for the grocery inventory management system.
+ * It collects the outcome of a bulk catalogue import: how many suppliers and products
+ * were loaded, which rows were rejected (with their line numbers and reasons), and
+ * which imported rows deserve a warning, so large imports can be summarised without
+ * printing a line per item.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk catalogue import.
+ * Filled in by CatalogueImporter while it reads the file.
+ */
+public final class ImportResult {
+    // Warnings beyond this many are counted but not kept (an old catalogue can warn on every row)
+    private static final int MAX_RECORDED_WARNINGS = 1000;
+
+    private int suppliersImported;
+    private int productsImported;
+    private final List<RejectedRow> rejectedRows;
+    private int warningCount;
+    private final List<RowWarning> warnings;
+
+    /**
+     * Constructor - starts with nothing imported and nothing rejected.
+     */
+    ImportResult() {
+        this.rejectedRows = new ArrayList<>();
+        this.warnings = new ArrayList<>();
+    }
+
+    // Recording (used by the importer)
+
+    void supplierImported() {
+        suppliersImported++;
+    }
+
+    void productImported() {
+        productsImported++;
+    }
+
+    void rejectRow(long lineNumber, String reason) {
+        rejectedRows.add(new RejectedRow(lineNumber, reason));
+    }
+
+    void warnRow(long lineNumber, String message) {
+        warningCount++;
+        if (warnings.size() < MAX_RECORDED_WARNINGS) {
+            warnings.add(new RowWarning(lineNumber, message));
+        }
+    }
+
+    // Getters
+
+    public int getSuppliersImported() {
+        return suppliersImported;
+    }
+
+    public int getProductsImported() {
+        return productsImported;
+    }
+
+    public int getRejectedCount() {
+        return rejectedRows.size();
+    }
+
+    /**
+     * @return rejected rows in file order (unmodifiable)
+     */
+    public List<RejectedRow> getRejectedRows() {
+        return Collections.unmodifiableList(rejectedRows);
+    }
+
+    /**
+     * @return number of imported rows that raised a warning (including any not kept)
+     */
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    /**
+     * @return the first warnings in file order, at most 1000 (unmodifiable)
+     */
+    public List<RowWarning> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    // String Representation
+    /**
+     * Returns a one-line summary.
+     * Format: "Suppliers: n | Products: n | Rejected rows: n | Warnings: n"
+     */
+    @Override
+    public String toString() {
+        return String.format("Suppliers: %d | Products: %d | Rejected rows: %d | Warnings: %d",
+                suppliersImported, productsImported, rejectedRows.size(), warningCount);
+    }
+
+    /**
+     * A row that could not be imported, with its 1-based line number in the file.
+     */
+    public static final class RejectedRow {
+        private final long lineNumber;
+        private final String reason;
+
+        RejectedRow(long lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Format: "Line n: reason"
+         */
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + reason;
+        }
+    }
+
+    /**
+     * A row that was imported but looks suspicious (for example an expiry date in the past),
+     * with its 1-based line number in the file.
+     */
+    public static final class RowWarning {
+        private final long lineNumber;
+        private final String message;
+
+        RowWarning(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Format: "Line n: message"
+         */
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/**
+ * This file defines the IntHashMap class used by the grocery inventory system
+ * to index products and suppliers by their numeric IDs. It is a small
+ * open-addressing hash map with primitive int keys, so lookups never box an
+ * Integer, and it remembers insertion order so listings stay in the order
+ * items were added.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Insertion-ordered hash map keyed by primitive int.
+ * Entries live in dense arrays (in insertion order); a separate probe table
+ * maps each key to its entry position using linear probing.
+ * Null values are not allowed - a null entry marks a removed item.
+ * Not thread-safe: callers must provide their own synchronisation.
+ *
+ * @param <V> the type of the mapped values
+ */
+final class IntHashMap<V> implements Iterable<V> {
+    // Probe table markers (real entries are stored as entry position + 1)
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    // Smallest number of entries the dense arrays are sized for
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] table;            // Probe table - twice the dense capacity, always a power of two
+    private int[] keys;             // Dense entry keys in insertion order
+    private Object[] values;        // Dense entry values (null once removed)
+    private int used;               // Entries appended to the dense arrays, including removed ones
+    private int size;               // Live entries
+
+    /**
+     * Constructor - creates an empty map with a small default capacity.
+     */
+    IntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor - creates an empty map sized for the expected number of entries.
+     *
+     * @param expectedSize number of entries to allocate room for up front
+     */
+    IntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    // Queries
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Looks up the value mapped to a key.
+     *
+     * @param key the key to look up
+     * @return the mapped value, or null if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int position = positionOf(key);
+        return position < 0 ? null : (V) values[position];
+    }
+
+    public boolean containsKey(int key) {
+        return positionOf(key) >= 0;
+    }
+
+    // Mutators
+
+    /**
+     * Maps a key to a value. Existing keys keep their original insertion position.
+     *
+     * @param key the key
+     * @param value the value (must not be null)
+     * @return the previous value for the key, or null if the key was new
+     * @throws IllegalArgumentException if value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        int position = positionOf(key);
+        if (position >= 0) {
+            // Replace in place - insertion order is unchanged
+            V previous = (V) values[position];
+            values[position] = value;
+            return previous;
+        }
+
+        // Make room in the dense arrays before appending:
+        // compact if at least half the entries were removed, otherwise double
+        if (used == keys.length) {
+            rehash(used - size >= keys.length / 2 ? size + 1 : keys.length * 2);
+        }
+
+        keys[used] = key;
+        values[used] = value;
+        insertIntoTable(key, used);
+        used++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes a key and its value.
+     * The dense slot is left empty and reclaimed by the next rehash.
+     *
+     * @param key the key to remove
+     * @return the removed value, or null if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            int position = table[i] - 1;
+            if (table[i] != DELETED && keys[position] == key) {
+                V previous = (V) values[position];
+                values[position] = null;
+                table[i] = DELETED;     // Keep probe chains intact
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Grows the map so it can hold the given number of entries without rehashing.
+     *
+     * @param expectedSize number of entries expected
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > keys.length) {
+            rehash(expectedSize);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    // Views
+
+    /**
+     * Returns an unmodifiable list of the live values in insertion order.
+     * The list is a copy and does not change when the map changes.
+     *
+     * @return values in insertion order
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> toList() {
+        Object[] copy = new Object[size];
+        int count = 0;
+        for (int i = 0; i < used; i++) {
+            if (values[i] != null) {
+                copy[count++] = values[i];
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList((V[]) copy));
+    }
+
+    /**
+     * Iterates live values in insertion order.
+     * Removing entries while iterating is safe; adding entries is not.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            private final Object[] snapshot = values;
+            private final int limit = used;
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < limit && snapshot[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < limit;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (next >= limit) {
+                    throw new NoSuchElementException();
+                }
+                V value = (V) snapshot[next];
+                next = advance(next + 1);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream over the live values in insertion order.
+     */
+    public Stream<V> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    // Private Helpers
+
+    /**
+     * Finds the dense position of a key.
+     *
+     * @return the position, or -1 if the key is not present
+     */
+    private int positionOf(int key) {
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            int position = table[i] - 1;
+            if (table[i] != DELETED && keys[position] == key) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Records a dense position in the first free probe table slot for the key.
+     */
+    private void insertIntoTable(int key, int position) {
+        int mask = table.length - 1;
+        int i = mix(key) & mask;
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table[i] = position + 1;
+    }
+
+    /**
+     * Compacts the dense arrays (dropping removed entries) and rebuilds the probe table.
+     * Grows the capacity if needed to hold at least minCapacity entries.
+     */
+    private void rehash(int minCapacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = used;
+
+        allocate(capacityFor(Math.max(minCapacity, size)));
+
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldValues[i] != null) {
+                keys[used] = oldKeys[i];
+                values[used] = oldValues[i];
+                insertIntoTable(oldKeys[i], used);
+                used++;
+            }
+        }
+        size = used;
+    }
+
+    /**
+     * Allocates empty arrays for the given dense capacity.
+     * The probe table is twice as large, so it is never more than half full
+     * (deleted markers included).
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        table = new int[capacity * 2];
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Rounds the expected size up to a power of two (at least MIN_CAPACITY).
+     */
+    private static int capacityFor(int expectedSize) {
+        if (expectedSize <= MIN_CAPACITY) {
+            return MIN_CAPACITY;
+        }
+        if (expectedSize > (1 << 29)) {
+            throw new IllegalStateException("IntHashMap capacity exceeded");
+        }
+        return Integer.highestOneBit(expectedSize - 1) << 1;
+    }
+
+    /**
+     * Spreads sequential IDs across the probe table (Fibonacci hashing).
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
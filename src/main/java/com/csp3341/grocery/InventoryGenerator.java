@@ -0,0 +1,557 @@
+/**
+ * This file defines the InventoryGenerator class for the grocery inventory management system.
+ * It creates large, realistic synthetic inventories for load and soak testing - suppliers,
+ * perishable and non-perishable products with skewed stock levels and expiry dates around
+ * today - either straight into an InventoryManager or as a catalogue file the importer
+ * reads, and replays a synthetic point-of-sale stream against an inventory.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of synthetic inventories and sales.
+ * The same seed and settings always produce the same data: populating an empty inventory
+ * gives exactly the products (and IDs) that importing writeCatalogue's file would give,
+ * and replaying against the same inventory makes the same sales in the same order.
+ *
+ * The data is shaped like a real store's:
+ * - Suppliers are Zipf distributed, so a few large suppliers carry most of the products
+ * - Categories follow perishability (dairy, produce and meat perish, canned and dried food keep)
+ * - Prices are log-normal around LKR 400
+ * - Stock levels are skewed: most products are well stocked, about one in six is at or
+ *   below its low stock threshold and about one in thirty is out of stock
+ * - Perishables expire from a quarter of the expiry spread ago to the full spread ahead,
+ *   so about a fifth of them are expired
+ * - Sales pick products by Zipf popularity, so a few products sell most of the units
+ *
+ * Not thread-safe while its settings change; generating and replaying only read them,
+ * so several threads may replay with one generator (each call uses its own random source).
+ */
+public final class InventoryGenerator {
+    // Defaults
+    private static final int DEFAULT_SUPPLIER_COUNT = 2000;
+    private static final int DEFAULT_PERISHABLE_PERCENT = 40;
+    private static final int DEFAULT_EXPIRY_SPREAD_DAYS = 60;
+    private static final double DEFAULT_POPULARITY_EXPONENT = 1.0;
+
+    // Skew of products over suppliers (Zipf exponent)
+    private static final double SUPPLIER_EXPONENT = 1.0;
+
+    // Stock levels - thresholds are drawn from this list, stock is an exponentially distributed
+    // multiple of the threshold (plus a share of empty shelves)
+    private static final int[] LOW_STOCK_THRESHOLDS = {3, 5, 5, 5, 10, 10, 20};
+    private static final double OUT_OF_STOCK_SHARE = 0.02;
+    private static final double MEAN_STOCK_MULTIPLE = 6;
+    private static final int MAX_QUANTITY = 100_000;
+
+    // Prices in cents - log-normal around the median, never below the minimum
+    private static final double MEDIAN_PRICE_CENTS = 40_000;
+    private static final double PRICE_SPREAD = 0.7;
+    private static final long MIN_PRICE_CENTS = 1_000;
+
+    // POS replay - sales that leave a product low order a delivery that arrives this many sales later
+    private static final int DELIVERY_LEAD_SALES = 1000;
+    private static final int RESTOCK_MULTIPLE = 10;
+
+    // Keeps the replay's random sequence apart from the generation's for the same seed
+    private static final long REPLAY_SEED_OFFSET = 0x9E3779B97F4A7C15L;
+
+    private static final Category[] PERISHABLE_CATEGORIES =
+            {Category.DAIRY, Category.PRODUCE, Category.MEAT, Category.BEVERAGES};
+    private static final Category[] NON_PERISHABLE_CATEGORIES =
+            {Category.BEVERAGES, Category.CANNED_FOOD, Category.DRIED_FOOD};
+
+    // Product names are "brand item size"
+    private static final String[] BRANDS = {"Highland", "Kotmale", "Anchor", "Keells", "Harischandra",
+            "Elephant House", "Prima", "Maliban", "Munchee", "Raigam", "MD", "Edinborough",
+            "Motha", "Ceylon Fresh", "Lanka Farm", "Green Valley"};
+    private static final EnumMap<Category, String[]> ITEMS = new EnumMap<>(Category.class);
+    private static final String[] WEIGHTS = {"200g", "400g", "500g", "1kg", "2kg"};
+    private static final String[] VOLUMES = {"180ml", "330ml", "500ml", "1L", "1.5L"};
+    private static final String[] SHELF_LIVES = {"6 months", "12 months", "18 months", "2 years"};
+
+    static {
+        ITEMS.put(Category.DAIRY, new String[]{"Fresh Milk", "Yoghurt", "Curd", "Cheddar", "Butter", "Ice Cream"});
+        ITEMS.put(Category.PRODUCE, new String[]{"Carrots", "Leeks", "Tomatoes", "Bananas", "Potatoes", "Onions"});
+        ITEMS.put(Category.MEAT, new String[]{"Chicken Breast", "Beef Cubes", "Pork Chops", "Mutton", "Sausages"});
+        ITEMS.put(Category.BEVERAGES, new String[]{"Black Tea", "Coffee", "Orange Juice", "Ginger Beer", "Water"});
+        ITEMS.put(Category.CANNED_FOOD, new String[]{"Tuna", "Mackerel", "Baked Beans", "Sweet Corn", "Pineapple"});
+        ITEMS.put(Category.DRIED_FOOD, new String[]{"Red Rice", "Dhal", "Pasta", "Wheat Flour", "Sugar", "Noodles"});
+    }
+
+    private final long seed;
+    private int supplierCount;
+    private int perishablePercent;
+    private int expirySpreadDays;
+    private double popularityExponent;
+
+    /**
+     * Constructor - creates a generator with default settings.
+     *
+     * @param seed seed of every random choice the generator makes
+     */
+    public InventoryGenerator(long seed) {
+        this.seed = seed;
+        this.supplierCount = DEFAULT_SUPPLIER_COUNT;
+        this.perishablePercent = DEFAULT_PERISHABLE_PERCENT;
+        this.expirySpreadDays = DEFAULT_EXPIRY_SPREAD_DAYS;
+        this.popularityExponent = DEFAULT_POPULARITY_EXPONENT;
+    }
+
+    // Getters
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSupplierCount() {
+        return supplierCount;
+    }
+
+    public int getPerishablePercent() {
+        return perishablePercent;
+    }
+
+    public int getExpirySpreadDays() {
+        return expirySpreadDays;
+    }
+
+    public double getPopularityExponent() {
+        return popularityExponent;
+    }
+
+    // Setters with validation
+    /**
+     * @param supplierCount number of suppliers to create (default 2000, must be positive)
+     * @throws IllegalArgumentException if supplierCount is not positive
+     */
+    public void setSupplierCount(int supplierCount) {
+        if (supplierCount <= 0) {
+            throw new IllegalArgumentException("Supplier count must be positive");
+        }
+        this.supplierCount = supplierCount;
+    }
+
+    /**
+     * @param perishablePercent percentage of products that are perishable (default 40, 0-100)
+     * @throws IllegalArgumentException if perishablePercent is out of range
+     */
+    public void setPerishablePercent(int perishablePercent) {
+        if (perishablePercent < 0 || perishablePercent > 100) {
+            throw new IllegalArgumentException("Perishable percentage must be between 0 and 100");
+        }
+        this.perishablePercent = perishablePercent;
+    }
+
+    /**
+     * @param expirySpreadDays how far ahead perishables expire, in days (default 60, must be positive)
+     * @throws IllegalArgumentException if expirySpreadDays is not positive
+     */
+    public void setExpirySpreadDays(int expirySpreadDays) {
+        if (expirySpreadDays <= 0) {
+            throw new IllegalArgumentException("Expiry spread must be positive");
+        }
+        this.expirySpreadDays = expirySpreadDays;
+    }
+
+    /**
+     * @param popularityExponent skew of sales over products (default 1.0, must be positive -
+     *                           higher values concentrate sales on fewer products)
+     * @throws IllegalArgumentException if popularityExponent is not positive
+     */
+    public void setPopularityExponent(double popularityExponent) {
+        if (!(popularityExponent > 0)) {
+            throw new IllegalArgumentException("Popularity exponent must be positive");
+        }
+        this.popularityExponent = popularityExponent;
+    }
+
+    // Generation
+
+    /**
+     * Adds suppliers and products straight into an inventory, without console output.
+     * IDs continue from the inventory's next free supplier and product IDs, and expiry
+     * dates are spread around its business date. If the inventory has a mutation log,
+     * everything is synced to it once at the end.
+     *
+     * @param manager the inventory to fill (must not be null)
+     * @param productCount number of products to add (must not be negative)
+     * @throws IllegalArgumentException if manager is null or productCount is negative
+     */
+    public void populate(InventoryManager manager, int productCount) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Inventory manager cannot be null");
+        }
+        requireProductCount(productCount);
+
+        manager.ensureProductCapacity(productCount);
+        Random random = new Random(seed);
+        ZipfSampler supplierSizes = new ZipfSampler(supplierCount, SUPPLIER_EXPONENT);
+        long today = manager.getBusinessDate().toEpochDay();
+        ProductSpec spec = new ProductSpec();
+
+        try (InventoryManager.BulkLoad load = manager.beginBulkLoad()) {
+            Supplier[] suppliers = new Supplier[supplierCount];
+            int firstSupplierId = manager.getNextSupplierId();
+            for (int i = 0; i < supplierCount; i++) {
+                int supplierId = firstSupplierId + i;
+                suppliers[i] = new Supplier(supplierId, supplierName(supplierId), supplierContact(supplierId));
+                manager.registerSupplier(suppliers[i]);
+                load.loaded();
+            }
+
+            int firstProductId = manager.getNextProductId();
+            for (int i = 0; i < productCount; i++) {
+                nextProduct(random, supplierSizes, today, spec);
+
+                int id = firstProductId + i;
+                Supplier supplier = suppliers[spec.supplierIndex];
+                Product product = spec.perishable
+                        ? new Perishable(id, spec.name, spec.priceCents / 100.0, spec.quantity,
+                                spec.category, supplier, spec.expiryDay)
+                        : new NonPerishable(id, spec.name, spec.priceCents / 100.0, spec.quantity,
+                                spec.category, supplier, spec.shelfLife);
+                product.setLowStockThreshold(spec.lowStockThreshold);
+                manager.registerProduct(product);
+                load.loaded();
+            }
+        }
+
+        // Products are logged without waiting - one sync makes the whole load durable
+        manager.syncLog();
+    }
+
+    /**
+     * Writes a catalogue file in the CatalogueImporter format, with suppliers numbered
+     * from 1 and products numbered from 1. Importing it into an empty inventory gives
+     * the same inventory as populate would.
+     *
+     * @param file the file to write (replaced if it exists)
+     * @param productCount number of products to write (must not be negative)
+     * @param today date the expiry dates are spread around
+     * @throws IllegalArgumentException if file or today is null, or productCount is negative
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCatalogue(Path file, int productCount, LocalDate today) throws IOException {
+        if (file == null || today == null) {
+            throw new IllegalArgumentException("File and date cannot be null");
+        }
+        requireProductCount(productCount);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.format("# Synthetic catalogue: seed %d, %d suppliers, %d products, expiry around %s%n",
+                    seed, supplierCount, productCount, today));
+
+            for (int supplierId = 1; supplierId <= supplierCount; supplierId++) {
+                writer.write("SUPPLIER," + supplierId + ',' + supplierName(supplierId) + ','
+                        + supplierContact(supplierId));
+                writer.newLine();
+            }
+
+            Random random = new Random(seed);
+            ZipfSampler supplierSizes = new ZipfSampler(supplierCount, SUPPLIER_EXPONENT);
+            ProductSpec spec = new ProductSpec();
+            StringBuilder row = new StringBuilder(128);       // Reused for every row
+
+            for (int id = 1; id <= productCount; id++) {
+                nextProduct(random, supplierSizes, today.toEpochDay(), spec);
+
+                row.setLength(0);
+                row.append(spec.perishable ? "PERISHABLE," : "NON_PERISHABLE,")
+                        .append(id).append(',')
+                        .append(spec.name).append(',')
+                        .append(spec.priceCents / 100).append('.');
+                long cents = spec.priceCents % 100;
+                if (cents < 10) {
+                    row.append('0');
+                }
+                row.append(cents).append(',')
+                        .append(spec.quantity).append(',')
+                        .append(spec.category.name()).append(',')
+                        .append(spec.supplierIndex + 1).append(',')
+                        .append(spec.perishable ? LocalDate.ofEpochDay(spec.expiryDay).toString() : spec.shelfLife)
+                        .append(',')
+                        .append(spec.lowStockThreshold);
+                writer.append(row);
+                writer.newLine();
+            }
+        }
+    }
+
+    // Point-of-Sale Replay
+
+    /**
+     * Replays a synthetic point-of-sale stream against an inventory.
+     * Each sale picks a product by Zipf popularity (which products are popular is itself
+     * random, not tied to product IDs) and a basket quantity of mostly one or two units.
+     * A sale that leaves a product at or below its low stock threshold, or finds too
+     * little stock, orders a delivery of ten times the threshold that arrives after a
+     * fixed number of further sales; deliveries still due at the end are dropped.
+     *
+     * With a batch size of 1 every sale is a tryDecrementStock call, like a checkout.
+     * Larger batches go through applyStockAdjustments, like a POS gateway - sales of
+     * the same product in one batch are then accepted or rejected together.
+     *
+     * @param manager the inventory to sell from (must not be null or empty)
+     * @param saleCount number of sales to replay (must not be negative)
+     * @param batchSize sales per stock update call (must be positive)
+     * @return counts of sales, stockouts and deliveries
+     * @throws IllegalArgumentException if manager is null or empty, saleCount is negative,
+     *                                  or batchSize is not positive
+     */
+    public PosReplayResult replayPos(InventoryManager manager, long saleCount, int batchSize) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Inventory manager cannot be null");
+        }
+        if (saleCount < 0) {
+            throw new IllegalArgumentException("Sale count cannot be negative");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        // Products in ID order, so the same inventory always gives the same popularity ranking
+        List<Product> products = new ArrayList<>(manager.getAllProducts());
+        if (products.isEmpty()) {
+            throw new IllegalArgumentException("Inventory has no products to sell");
+        }
+        products.sort(Comparator.comparingInt(Product::getId));
+
+        Random random = new Random(seed + REPLAY_SEED_OFFSET);
+        int[] byPopularity = shuffledIndexes(products.size(), random);
+        ZipfSampler popularity = new ZipfSampler(products.size(), popularityExponent);
+        PosReplay replay = new PosReplay(manager, products, batchSize);
+
+        for (long sale = 0; sale < saleCount; sale++) {
+            replay.deliverDue(sale);
+            int index = byPopularity[popularity.sample(random) - 1];
+            replay.sell(index, basketUnits(random), sale);
+        }
+        replay.flush(saleCount);
+        return replay.result;
+    }
+
+    // Helpers
+
+    /**
+     * Draws the next product (everything but its ID) into spec.
+     * The only source of randomness is the given Random, so the sequence depends on the seed alone.
+     */
+    private void nextProduct(Random random, ZipfSampler supplierSizes, long today, ProductSpec spec) {
+        spec.perishable = random.nextInt(100) < perishablePercent;
+        Category[] categories = spec.perishable ? PERISHABLE_CATEGORIES : NON_PERISHABLE_CATEGORIES;
+        spec.category = categories[random.nextInt(categories.length)];
+
+        String[] items = ITEMS.get(spec.category);
+        String[] sizes = spec.category == Category.BEVERAGES || spec.category == Category.DAIRY ? VOLUMES : WEIGHTS;
+        spec.name = BRANDS[random.nextInt(BRANDS.length)] + ' ' + items[random.nextInt(items.length)]
+                + ' ' + sizes[random.nextInt(sizes.length)];
+
+        spec.supplierIndex = supplierSizes.sample(random) - 1;
+        spec.priceCents = Math.max(MIN_PRICE_CENTS,
+                Math.round(MEDIAN_PRICE_CENTS * Math.exp(PRICE_SPREAD * random.nextGaussian())));
+
+        spec.lowStockThreshold = LOW_STOCK_THRESHOLDS[random.nextInt(LOW_STOCK_THRESHOLDS.length)];
+        if (random.nextDouble() < OUT_OF_STOCK_SHARE) {
+            spec.quantity = 0;
+        } else {
+            // Exponential around a multiple of the threshold - skewed towards low stock
+            double multiple = -MEAN_STOCK_MULTIPLE * Math.log(1 - random.nextDouble());
+            spec.quantity = (int) Math.min(MAX_QUANTITY, Math.round(spec.lowStockThreshold * multiple));
+        }
+
+        if (spec.perishable) {
+            int earliest = -expirySpreadDays / 4;
+            spec.expiryDay = today + earliest + random.nextInt(expirySpreadDays - earliest + 1);
+        } else {
+            spec.shelfLife = SHELF_LIVES[random.nextInt(SHELF_LIVES.length)];
+        }
+    }
+
+    /**
+     * Units in one sale: one 70% of the time, two 20%, three to six otherwise.
+     */
+    private static int basketUnits(Random random) {
+        int roll = random.nextInt(10);
+        if (roll < 7) {
+            return 1;
+        }
+        return roll < 9 ? 2 : 3 + random.nextInt(4);
+    }
+
+    /**
+     * Returns 0 to count - 1 in random order (Fisher-Yates shuffle).
+     */
+    private static int[] shuffledIndexes(int count, Random random) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private static String supplierName(int supplierId) {
+        return "Supplier " + supplierId;
+    }
+
+    private static String supplierContact(int supplierId) {
+        return "011-" + (1_000_000 + supplierId % 9_000_000);
+    }
+
+    private static void requireProductCount(int productCount) {
+        if (productCount < 0) {
+            throw new IllegalArgumentException("Product count cannot be negative");
+        }
+    }
+
+    /**
+     * One generated product, reused for every row to avoid per-row allocation.
+     */
+    private static final class ProductSpec {
+        boolean perishable;
+        Category category;
+        String name;
+        int supplierIndex;          // 0-based - supplier IDs are the first ID plus this
+        long priceCents;
+        int quantity;
+        int lowStockThreshold;
+        long expiryDay;             // Perishables only
+        String shelfLife;           // Non-perishables only
+    }
+
+    /**
+     * State of one replay: the pending batch and the deliveries on order.
+     */
+    private static final class PosReplay {
+        private final InventoryManager manager;
+        private final List<Product> products;
+        private final PosReplayResult result = new PosReplayResult();
+
+        // Sales waiting for the next applyStockAdjustments call (batch size above 1)
+        private final int[] batchIndexes;
+        private final int[] batchIds;
+        private final int[] batchDeltas;
+        private int batched;
+
+        // Deliveries in arrival order - due sale number and product index
+        private final ArrayDeque<long[]> deliveries = new ArrayDeque<>();
+        private final boolean[] onOrder;
+
+        PosReplay(InventoryManager manager, List<Product> products, int batchSize) {
+            this.manager = manager;
+            this.products = products;
+            this.batchIndexes = new int[batchSize];
+            this.batchIds = new int[batchSize];
+            this.batchDeltas = new int[batchSize];
+            this.onOrder = new boolean[products.size()];
+        }
+
+        /**
+         * Sells units of a product, straight away or as part of the next batch.
+         */
+        void sell(int index, int units, long sale) {
+            Product product = products.get(index);
+
+            if (batchIds.length == 1) {
+                int left;
+                try {
+                    left = manager.tryDecrementStock(product.getId(), units);
+                } catch (IllegalArgumentException e) {
+                    result.saleMissing();       // Removed since the replay started
+                    return;
+                }
+
+                if (left < 0) {
+                    result.saleRejected();
+                } else {
+                    result.saleApplied(units);
+                }
+                reorderIfLow(index, sale);
+                return;
+            }
+
+            batchIndexes[batched] = index;
+            batchIds[batched] = product.getId();
+            batchDeltas[batched] = -units;
+            batched++;
+            if (batched == batchIds.length) {
+                flush(sale);
+            }
+        }
+
+        /**
+         * Applies the pending batch, if any.
+         */
+        void flush(long sale) {
+            if (batched == 0) {
+                return;
+            }
+
+            StockBatchResult batch = batched == batchIds.length
+                    ? manager.applyStockAdjustments(batchIds, batchDeltas)
+                    : manager.applyStockAdjustments(Arrays.copyOf(batchIds, batched), Arrays.copyOf(batchDeltas, batched));
+            int[] missingIds = batch.getMissingIds();
+            int[] rejectedIds = batch.getRejectedIds();
+
+            for (int i = 0; i < batched; i++) {
+                if (Arrays.binarySearch(missingIds, batchIds[i]) >= 0) {
+                    result.saleMissing();
+                    continue;
+                }
+
+                if (Arrays.binarySearch(rejectedIds, batchIds[i]) >= 0) {
+                    result.saleRejected();
+                } else {
+                    result.saleApplied(-batchDeltas[i]);
+                }
+                reorderIfLow(batchIndexes[i], sale);
+            }
+            batched = 0;
+        }
+
+        /**
+         * Delivers every order due by this sale.
+         */
+        void deliverDue(long sale) {
+            while (!deliveries.isEmpty() && deliveries.peekFirst()[0] <= sale) {
+                int index = (int) deliveries.pollFirst()[1];
+                onOrder[index] = false;
+
+                Product product = products.get(index);
+                int units = Math.max(product.getLowStockThreshold(), 1) * RESTOCK_MULTIPLE;
+                try {
+                    manager.adjustStock(product.getId(), units);
+                    result.delivered(units);
+                } catch (IllegalArgumentException e) {
+                    // Removed since the replay started (or stock would overflow) - nothing delivered
+                }
+            }
+        }
+
+        private void reorderIfLow(int index, long sale) {
+            if (!onOrder[index] && products.get(index).isLowStock()) {
+                onOrder[index] = true;
+                deliveries.addLast(new long[]{sale + DELIVERY_LEAD_SALES, index});
+            }
+        }
+    }
+}
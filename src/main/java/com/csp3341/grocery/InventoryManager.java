@@ -7,18 +7,48 @@
 
 package com.csp3341.grocery;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Manages inventory operations including products and suppliers.
  * Provides comprehensive reporting capabilities.
+ *
+ * Thread-safe: one instance can be shared by stock update and reporting threads.
+ * Adding or removing products and suppliers takes an exclusive write lock.
+ * Lookups, stock updates and report snapshots share the read lock, so stock
+ * updates on different products never block each other, and reports copy
+ * what they need before writing so they never hold up writers for long.
+ * The lock is striped by thread (see StripedLock), so threads updating stock at
+ * the same time do not contend on the lock itself either.
+ *
+ * Every change also increments the inventory's modification version, which lets
+ * single-list reports reuse rows formatted while nothing has changed (see ReportCache).
+ *
+ * An inventory created with open() records every change in a MutationLog.
+ * Methods that change the inventory return only once their change is on disk;
+ * concurrent callers share one disk sync (group commit).
  */
 public class InventoryManager {
     // Format for report timestamps: "2026-02-04 14:30:45"
@@ -26,24 +56,186 @@ public class InventoryManager {
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     // Length of separator lines in reports (60 characters)
-    private static final int REPORT_SEPARATOR_LENGTH = 60;
+    static final int REPORT_SEPARATOR_LENGTH = 60;
 
-    // Core data storage - use ArrayList for fast random access
-    private final List<Product> products;           // All products in inventory
-    private final List<Supplier> suppliers;         // All suppliers in system
+    // Default number of products below which queries and reports stay on the calling thread
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
 
-    // ID counters - tracks next available ID for auto-increment
-    private int nextProductId;
-    private int nextSupplierId;
+    // Records a bulk load adds under one hold of the write lock (see beginBulkLoad)
+    private static final int BULK_LOAD_BATCH = 4096;
+
+    // Core data storage
+    private final IntHashMap<Product> products;     // All products in inventory, indexed by product ID
+    private final IntHashMap<Supplier> suppliers;   // All suppliers in system, indexed by supplier ID
+
+    // Secondary index - products grouped by supplier ID (product ID -> product)
+    private final IntHashMap<IntHashMap<Product>> productsBySupplier;
+
+    // Secondary index - products grouped by category (one bucket per enum constant)
+    private final EnumMap<Category, IntHashMap<Product>> productsByCategory;
+
+    // Secondary index - perishable products ordered by expiry date (epoch day -> products expiring that day)
+    // Guarded by its own monitor, since expiry dates change outside structural updates
+    private final TreeMap<Long, IntHashMap<Perishable>> perishablesByExpiry;
+
+    // Running stock totals (products, units, value) - overall, per category and per supplier
+    private final StockValuation valuation;
+
+    // Name search index - case-folded trigrams of the distinct product names
+    private final NameIndex nameIndex;
+
+    // Live set of products at or below their low stock threshold
+    // Guarded by its own monitor, since stock updates run under the shared read lock
+    private final IntHashMap<Product> lowStockProducts;
+
+    // Guards products, suppliers and the supplier/category indexes
+    private final StripedLock lock;
+
+    // ID counters - tracks next available ID for auto-increment (atomic for concurrent callers)
+    private final AtomicInteger nextProductId;
+    private final AtomicInteger nextSupplierId;
+
+    // How report files are written (see setReportOutputMode)
+    private volatile ReportOutputMode reportOutputMode = ReportOutputMode.CHANNEL;
+
+    // Source of the business date used for expiry checks and report timestamps (see setClock)
+    private volatile Clock clock = Clock.systemDefaultZone();
+
+    // Pool for parallel scans and report formatting (null = always sequential, see setQueryPool)
+    private volatile ForkJoinPool queryPool;
+    private volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    // Write-ahead log of changes (null for a purely in-memory inventory)
+    private volatile MutationLog mutationLog;
+
+    // Incremented by every change to products or suppliers (see getModificationVersion)
+    // A LongAdder, so concurrent stock updates do not all increment the same counter
+    private final LongAdder modificationVersion = new LongAdder();
+
+    // Formatted rows of recent reports, reused while the modification version is unchanged
+    private final ReportCache reportCache = new ReportCache();
+
+    // Call counts and latencies of the main operations (see getMetrics)
+    private final MetricsRecorder metrics = new MetricsRecorder();
 
     /**
      * Constructor - initialises empty inventory with starting IDs
      */
     public InventoryManager() {
-        this.products = new ArrayList<>();
-        this.suppliers = new ArrayList<>();
-        this.nextProductId = 1;             // Start IDs at 1 (positive)
-        this.nextSupplierId = 1;
+        this.products = new IntHashMap<>();
+        this.suppliers = new IntHashMap<>();
+        this.productsBySupplier = new IntHashMap<>();
+        this.productsByCategory = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            productsByCategory.put(category, new IntHashMap<>());
+        }
+        this.perishablesByExpiry = new TreeMap<>();
+        this.lowStockProducts = new IntHashMap<>();
+        this.valuation = new StockValuation();
+        this.nameIndex = new NameIndex();
+        this.lock = new StripedLock();
+        this.nextProductId = new AtomicInteger(1);      // Start IDs at 1 (positive)
+        this.nextSupplierId = new AtomicInteger(1);
+    }
+
+    /**
+     * Opens an inventory backed by a mutation log.
+     * Replays the log to rebuild the inventory as it was when last closed (or when
+     * the last change was synced before a crash), then logs every further change.
+     *
+     * @param logFile the log file (created if it does not exist)
+     * @return the rebuilt inventory
+     * @throws IOException if the log cannot be read or opened for writing
+     */
+    public static InventoryManager open(Path logFile) throws IOException {
+        InventoryManager manager = new InventoryManager();
+        manager.mutationLog = MutationLog.openAndReplay(logFile, manager);
+        return manager;
+    }
+
+    /**
+     * Opens an inventory from a snapshot plus the mutation log it was taken from.
+     * Loads the snapshot (if the file exists), then replays only the log records
+     * written after it, so startup time no longer grows with the length of the log.
+     *
+     * @param logFile the log file (created if it does not exist)
+     * @param snapshotFile a snapshot saved by saveSnapshotAsync (may not exist yet)
+     * @return the rebuilt inventory
+     * @throws IOException if the snapshot is corrupt, or the log cannot be read or opened
+     */
+    public static InventoryManager open(Path logFile, Path snapshotFile) throws IOException {
+        InventoryManager manager = new InventoryManager();
+        long logPosition = 0;
+        if (Files.exists(snapshotFile)) {
+            logPosition = InventorySnapshot.loadInto(snapshotFile, manager);
+        }
+        manager.mutationLog = MutationLog.openAndReplay(logFile, manager, logPosition);
+        return manager;
+    }
+
+    /**
+     * Saves a binary snapshot of the whole inventory in the background.
+     * Only copying the product and supplier lists happens on the calling thread (under the
+     * read lock); the file is written by a separate thread while the inventory stays usable.
+     *
+     * Only an inventory with a mutation log can be saved: a snapshot records the log
+     * position it was taken at, and open() replays the log from there. (A snapshot of an
+     * in-memory inventory would have to claim position 0, and replaying the whole log on
+     * top of it would add everything twice.)
+     *
+     * @param snapshotFile the file to write (replaced atomically once complete)
+     * @return a future that completes when the snapshot is on disk, or fails with the I/O error
+     *         (or with IllegalStateException if the inventory has no mutation log)
+     */
+    public CompletableFuture<Void> saveSnapshotAsync(Path snapshotFile) {
+        InventorySnapshot snapshot;
+
+        lock.readLock().lock();
+        try {
+            MutationLog log = mutationLog;
+            if (log == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "Inventory has no mutation log - a snapshot would not match any log position"));
+            }
+            snapshot = new InventorySnapshot(suppliers.toList(), products.toList(),
+                    nextProductId.get(), nextSupplierId.get(), log.getAppendedPosition());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        CompletableFuture<Void> saved = new CompletableFuture<>();
+        Thread.ofPlatform().daemon().name("inventory-snapshot").start(() -> {
+            try {
+                syncLog();      // The log must reach the snapshot's position before the snapshot is used
+                snapshot.writeTo(snapshotFile);
+                saved.complete(null);
+            } catch (IOException | RuntimeException e) {
+                saved.completeExceptionally(e);
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * @return true if changes are recorded in a mutation log (the inventory was opened with
+     *         open() and not closed since), false for a purely in-memory inventory
+     */
+    public boolean isPersistent() {
+        return mutationLog != null;
+    }
+
+    /**
+     * Syncs and closes the mutation log, if there is one.
+     * The inventory stays usable in memory, but later changes are not logged.
+     *
+     * @throws IOException if the final sync fails
+     */
+    public void close() throws IOException {
+        MutationLog log = mutationLog;
+        if (log != null) {
+            mutationLog = null;
+            log.close();
+        }
     }
 
     // Supplier Management
@@ -55,11 +247,23 @@ public class InventoryManager {
      * @param contact the contact information
      */
     public void addSupplier(String supplierName, String contact) {
-        // Create supplier with auto-incremented ID
-        Supplier supplier = new Supplier(nextSupplierId, supplierName, contact);
-        suppliers.add(supplier);
+        Supplier supplier;
+
+        lock.writeLock().lock();
+        try {
+            // Create supplier with auto-incremented ID (claimed only once validation passes)
+            supplier = new Supplier(nextSupplierId.get(), supplierName, contact);
+            checkWritable();
+            supplier.owner = this;
+            suppliers.put(supplier.getSupplierId(), supplier);
+            nextSupplierId.incrementAndGet();         // Increment for next supplier
+            Supplier added = supplier;
+            recordChange(log -> log.logAddSupplier(added));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        syncLog();
         System.out.printf("Supplier '%s' added with ID: %d%n", supplierName, supplier.getSupplierId());
-        nextSupplierId++;         // Increment for next supplier
     }
 
     /**
@@ -68,477 +272,1637 @@ public class InventoryManager {
      * Updates nextSupplierId to prevent ID conflicts.
      *
      * @param supplier the supplier to add
-     * @throws IllegalArgumentException if supplier is null
+     * @throws IllegalArgumentException if supplier is null, its ID is already in use,
+     *                                  or it already belongs to another inventory
      */
     public void addSupplier(Supplier supplier) {
+        registerSupplier(supplier);
+        syncLog();
+    }
+
+    /**
+     * Adds an existing supplier without waiting for the mutation log to sync.
+     * Used by bulk loaders, which sync once at the end.
+     *
+     * @param supplier the supplier to add
+     * @throws IllegalArgumentException if supplier is null, its ID is already in use,
+     *                                  or it already belongs to another inventory
+     */
+    void registerSupplier(Supplier supplier) {
         if (supplier == null) {
             throw new IllegalArgumentException("Supplier cannot be null");
         }
-        suppliers.add(supplier);
-
-        // Ensure nextSupplierId is higher than any existing ID
-        nextSupplierId = Math.max(nextSupplierId, supplier.getSupplierId() + 1);
+        lock.writeLock().lock();
+        try {
+            if (suppliers.containsKey(supplier.getSupplierId())) {
+                throw new IllegalArgumentException("Supplier with ID " + supplier.getSupplierId() + " already exists");
+            }
+            if (supplier.owner != null) {
+                throw new IllegalArgumentException("Supplier with ID " + supplier.getSupplierId()
+                        + " already belongs to another inventory");
+            }
+            checkWritable();
+            supplier.owner = this;
+            suppliers.put(supplier.getSupplierId(), supplier);
+
+            // Ensure nextSupplierId is higher than any existing ID
+            nextSupplierId.accumulateAndGet(supplier.getSupplierId() + 1, Math::max);
+            recordChange(log -> log.logAddSupplier(supplier));
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
      * Finds a supplier by ID.
-     * Uses Java Streams for functional-style filtering
+     * Uses the supplier ID index, so lookups take constant time.
      *
      * @param supplierId the ID of the supplier to find
      * @return Optional containing the supplier if found, empty otherwise
      */
     public Optional<Supplier> findSupplier(int supplierId) {
-        // Match supplier ID and return first match or empty
-        return suppliers.stream()
-                .filter(s -> s.getSupplierId() == supplierId)
-                .findFirst();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(suppliers.get(supplierId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a supplier if no products are associated with it.
+     * Business rule: Cannot delete supplier with existing products (referential integrity).
+     *
+     * @param supplierId the ID of the supplier to remove
+     */
+    public void removeSupplier(int supplierId) {
+        Supplier supplier;
+
+        // Check and remove under one write lock so no product can be added in between
+        lock.writeLock().lock();
+        try {
+            // Find supplier first
+            supplier = suppliers.get(supplierId);
+
+            if (supplier == null) {
+                System.out.printf("Supplier with ID %d not found!%n", supplierId);
+                return;             // Early exit - supplier doesn't exist
+            }
+
+            // Check if supplier has any products
+            if (hasProductsForSupplier(supplierId)) {
+                System.out.printf("Cannot remove supplier '%s'! There are products associated with this supplier.%n",
+                        supplier.getSupplierName());
+                return;             // Prevent removal - products depend on this supplier
+            }
+
+            // Safe to remove - no dependent products
+            checkWritable();
+            suppliers.remove(supplierId);
+            supplier.owner = null;
+            recordChange(log -> log.logRemoveSupplier(supplierId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        syncLog();
+        System.out.printf("Supplier '%s' with ID: %d removed successfully!%n",
+                supplier.getSupplierName(), supplierId);
+    }
+
+    /**
+     * Checks if any products reference the given supplier.
+     * Private helper method for referential integrity check.
+     * Uses the supplier-to-products index instead of scanning all products.
+     *
+     * @param supplierId supplier ID to check
+     * @return true if any products use this supplier, false otherwise
+     */
+    private boolean hasProductsForSupplier(int supplierId) {
+        return productsBySupplier.containsKey(supplierId);
+    }
+
+    /**
+     * Removes a supplier without console output, if no products reference it.
+     * Used when replaying the mutation log.
+     *
+     * @param supplierId the ID of the supplier to remove
+     */
+    void unregisterSupplier(int supplierId) {
+        lock.writeLock().lock();
+        try {
+            if (hasProductsForSupplier(supplierId)) {
+                return;
+            }
+            checkWritable();
+            Supplier supplier = suppliers.remove(supplierId);
+            if (supplier != null) {
+                supplier.owner = null;
+                recordChange(log -> log.logRemoveSupplier(supplierId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets all products supplied by a supplier.
+     * Reads from the supplier-to-products index, so the cost depends only
+     * on the number of matching products.
+     *
+     * @param supplierId the ID of the supplier
+     * @return an unmodifiable list of the supplier's products (empty if none)
+     */
+    public List<Product> getProductsBySupplier(int supplierId) {
+        lock.readLock().lock();
+        try {
+            IntHashMap<Product> supplierProducts = productsBySupplier.get(supplierId);
+            return supplierProducts == null ? List.of() : supplierProducts.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Product Management
+
+    /**
+     * Adds a product to the inventory.
+     * Updates nextProductId to prevent ID conflicts.
+     *
+     * @param product the product to add (must not be null)
+     * @throws IllegalArgumentException if product is null, its ID is already in use,
+     *                                  or it already belongs to another inventory
+     */
+    public void addProduct(Product product) {
+        long start = metrics.start(InventoryMetrics.Operation.ADD_PRODUCT);
+        boolean succeeded = false;
+        try {
+            registerProduct(product);
+            syncLog();
+            succeeded = true;
+        } finally {
+            metrics.record(InventoryMetrics.Operation.ADD_PRODUCT, start, succeeded);
+        }
+        System.out.printf("Product '%s' added with ID: %d%n", product.getName(), product.getId());
+    }
+
+    /**
+     * Adds a product to the inventory without console output, and without waiting
+     * for the mutation log to sync.
+     * Used by addProduct and by bulk loaders such as CatalogueImporter.
+     *
+     * @param product the product to add (must not be null)
+     * @throws IllegalArgumentException if product is null, its ID is already in use,
+     *                                  or it already belongs to another inventory
+     */
+    void registerProduct(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (products.containsKey(product.getId())) {
+                throw new IllegalArgumentException("Product with ID " + product.getId() + " already exists");
+            }
+            if (product.owner != null) {
+                throw new IllegalArgumentException("Product with ID " + product.getId()
+                        + " already belongs to another inventory");
+            }
+
+            checkWritable();
+
+            // Claim the product before indexing, so changes made meanwhile are not missed
+            product.owner = this;
+            products.put(product.getId(), product);
+            addToIndexes(product);
+            valuation.add(product);
+
+            // Ensure nextProductId is higher than any existing ID
+            nextProductId.accumulateAndGet(product.getId() + 1, Math::max);
+            recordChange(log -> log.logAddProduct(product));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pre-sizes the product index for a bulk load, so it does not rehash repeatedly
+     * while growing.
+     *
+     * @param additionalProducts number of products about to be added
+     */
+    void ensureProductCapacity(int additionalProducts) {
+        lock.writeLock().lock();
+        try {
+            products.ensureCapacity(products.size() + additionalProducts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a bulk load (catalogue import, generated data, snapshot or log replay).
+     * The write lock is held across batches of registerProduct and registerSupplier
+     * calls, which then re-enter it instead of locking every stripe per product.
+     * Use with try-with-resources, and call loaded() after each record.
+     *
+     * @return the open bulk load, holding the write lock
+     */
+    BulkLoad beginBulkLoad() {
+        return new BulkLoad();
+    }
+
+    /**
+     * A bulk load in progress, holding the inventory's write lock (see beginBulkLoad).
+     * Every BULK_LOAD_BATCH records the lock is let go for a moment, so lookups, stock
+     * updates and reports are not held up for the whole load. Used by one thread.
+     */
+    final class BulkLoad implements AutoCloseable {
+        private int recordsInBatch;
+
+        private BulkLoad() {
+            lock.writeLock().lock();
+        }
+
+        /**
+         * Counts one loaded record, and lets waiting threads in once a batch is complete.
+         */
+        void loaded() {
+            if (++recordsInBatch == BULK_LOAD_BATCH) {
+                recordsInBatch = 0;
+                lock.writeLock().unlock();
+                lock.writeLock().lock();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Raises the ID counters to at least the given values.
+     * Used when loading a snapshot, so IDs handed out before the snapshot are not reused
+     * even if their products were removed since.
+     */
+    void restoreIdCounters(int productId, int supplierId) {
+        nextProductId.accumulateAndGet(productId, Math::max);
+        nextSupplierId.accumulateAndGet(supplierId, Math::max);
+    }
+
+    /**
+     * Reserves the next product ID.
+     * Safe for concurrent callers - each call returns a different ID.
+     *
+     * @return a product ID not yet handed out by this inventory
+     */
+    public int allocateProductId() {
+        return nextProductId.getAndIncrement();
+    }
+
+    /**
+     * Removes a product from the inventory.
+     * No referential checks needed - products don't have dependencies.
+     *
+     * @param productId the ID of the product to remove
+     */
+    public void removeProduct(int productId) {
+        long start = metrics.start(InventoryMetrics.Operation.REMOVE_PRODUCT);
+        boolean succeeded = false;
+        Product product;
+        try {
+            product = unregisterProduct(productId);
+            if (product != null) {
+                syncLog();
+            }
+            succeeded = true;
+        } finally {
+            metrics.record(InventoryMetrics.Operation.REMOVE_PRODUCT, start, succeeded);
+        }
+
+        if (product == null) {
+            System.out.printf("Product with ID %d not found!%n", productId);
+            return;
+        }
+
+        System.out.printf("Product '%s' with ID: %d removed successfully!%n",
+                product.getName(), productId);
+    }
+
+    /**
+     * Removes a product without console output, and without waiting for the
+     * mutation log to sync.
+     *
+     * @param productId the ID of the product to remove
+     * @return the removed product, or null if there was none
+     */
+    Product unregisterProduct(int productId) {
+        lock.writeLock().lock();
+        try {
+            checkWritable();
+
+            // Single index lookup both finds and removes the product
+            Product product = products.remove(productId);
+
+            if (product != null) {
+                // Release the product first, so late change notifications are ignored
+                product.owner = null;
+                removeFromIndexes(product);
+                valuation.remove(product);
+                recordChange(log -> log.logRemoveProduct(productId));
+            }
+            return product;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds a product by ID.
+     * Uses the product ID index, so lookups take constant time.
+     *
+     * @param productId the ID of the product to find
+     * @return Optional containing the product if found, empty Optional otherwise
+     */
+    public Optional<Product> findProduct(int productId) {
+        long start = metrics.start(InventoryMetrics.Operation.FIND_PRODUCT);
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(products.get(productId));
+        } finally {
+            lock.readLock().unlock();
+            metrics.record(InventoryMetrics.Operation.FIND_PRODUCT, start, true);
+        }
+    }
+
+    /**
+     * Finds products by name, case-insensitively.
+     * Uses the name index, so only the names sharing the rarest three-letter piece of the
+     * query are checked, however many products there are. Queries of three or more
+     * characters match anywhere in a name; shorter ones match the start of a word.
+     * Best matches come first: the exact name, then names starting with the query, names
+     * with a word starting with it, and names containing it elsewhere (ties by name, then ID).
+     *
+     * @param query the name or part of a name to look for (must not be blank)
+     * @param limit maximum number of products to return (must be positive)
+     * @return an unmodifiable list of the best matching products (empty if none)
+     * @throws IllegalArgumentException if query is null or blank, or limit is not positive
+     */
+    public List<Product> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search text cannot be empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search limit must be positive");
+        }
+
+        long start = metrics.start(InventoryMetrics.Operation.SEARCH_PRODUCTS);
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableList(nameIndex.search(query, limit));
+        } finally {
+            lock.readLock().unlock();
+            metrics.record(InventoryMetrics.Operation.SEARCH_PRODUCTS, start, true);
+        }
+    }
+
+    /**
+     * Updates the stock quantity of a product.
+     * Runs under the shared read lock, so updates to different products proceed in parallel.
+     *
+     * @param productId the ID of the product to update
+     * @param quantity the new quantity (must be non-negative - validated by Product.setQuantity)
+     */
+    public void updateStock(int productId, int quantity) {
+        long start = metrics.start(InventoryMetrics.Operation.UPDATE_STOCK);
+        boolean succeeded = false;
+        Product product;
+        try {
+            lock.readLock().lock();
+            try {
+                product = products.get(productId);
+                if (product != null) {
+                    product.setQuantity(quantity);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (product != null) {
+                syncLog();
+            }
+            succeeded = true;
+        } finally {
+            metrics.record(InventoryMetrics.Operation.UPDATE_STOCK, start, succeeded);
+        }
+
+        if (product == null) {
+            System.out.printf("Product with ID %d not found!%n", productId);
+        }
+    }
+
+    /**
+     * Adjusts the stock of a product by a relative amount.
+     * Applied atomically without locking the product, so concurrent sales and
+     * deliveries on the same product are never lost.
+     *
+     * @param productId the ID of the product to adjust
+     * @param delta amount to add (negative for sales)
+     * @return the new quantity
+     * @throws IllegalArgumentException if the product does not exist or the
+     *                                  quantity would become negative
+     */
+    public int adjustStock(int productId, int delta) {
+        long start = metrics.start(InventoryMetrics.Operation.ADJUST_STOCK);
+        boolean succeeded = false;
+        try {
+            int quantity;
+
+            lock.readLock().lock();
+            try {
+                quantity = requireProduct(productId).adjustQuantity(delta);
+            } finally {
+                lock.readLock().unlock();
+            }
+            syncLog();
+            succeeded = true;
+            return quantity;
+        } finally {
+            metrics.record(InventoryMetrics.Operation.ADJUST_STOCK, start, succeeded);
+        }
+    }
+
+    /**
+     * Removes stock from a product only if enough is available.
+     * Applied atomically without locking the product, making it suitable for checkout.
+     *
+     * @param productId the ID of the product to decrement
+     * @param amount amount to remove (must not be negative)
+     * @return the new quantity, or -1 if there was not enough stock (nothing changed)
+     * @throws IllegalArgumentException if the product does not exist or amount is negative
+     */
+    public int tryDecrementStock(int productId, int amount) {
+        long start = metrics.start(InventoryMetrics.Operation.DECREMENT_STOCK);
+        boolean succeeded = false;
+        try {
+            int quantity;
+
+            lock.readLock().lock();
+            try {
+                quantity = requireProduct(productId).tryDecrementQuantity(amount);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (quantity >= 0) {
+                syncLog();
+            }
+            succeeded = true;
+            return quantity;
+        } finally {
+            metrics.record(InventoryMetrics.Operation.DECREMENT_STOCK, start, succeeded);
+        }
+    }
+
+    // Batch Stock Updates
+
+    /**
+     * Applies a batch of relative stock adjustments in one call.
+     * Repeated product IDs are coalesced (their deltas are summed), so each product
+     * is looked up and updated once. Nothing is printed - the result lists what
+     * was applied, missing or rejected.
+     *
+     * @param productIds product IDs, paired by position with deltas
+     * @param deltas amounts to add to each product's stock (negative for sales)
+     * @return summary of the batch outcome
+     * @throws IllegalArgumentException if either array is null or their lengths differ
+     */
+    public StockBatchResult applyStockAdjustments(int[] productIds, int[] deltas) {
+        return applyStockBatch(productIds, deltas, true);
+    }
+
+    /**
+     * Applies a batch of absolute stock levels in one call.
+     * Repeated product IDs are coalesced (the last level in the batch wins), so each
+     * product is looked up and updated once. Nothing is printed - the result lists
+     * what was applied, missing or rejected.
+     *
+     * @param productIds product IDs, paired by position with quantities
+     * @param quantities new stock levels (negative levels are rejected)
+     * @return summary of the batch outcome
+     * @throws IllegalArgumentException if either array is null or their lengths differ
+     */
+    public StockBatchResult applyStockLevels(int[] productIds, int[] quantities) {
+        return applyStockBatch(productIds, quantities, false);
+    }
+
+    /**
+     * Gets all products in a category.
+     * Reads from the category index, so only the matching products are copied.
+     *
+     * @param category the category to look up (must not be null)
+     * @return an unmodifiable list of products in the category (empty if none)
+     * @throws IllegalArgumentException if category is null
+     */
+    public List<Product> getProductsByCategory(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category cannot be null");
+        }
+
+        lock.readLock().lock();
+        try {
+            return productsByCategory.get(category).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds perishable products expiring between two dates (both inclusive).
+     * Uses the expiry index, so only products in the date range are visited.
+     *
+     * @param from first expiry date to include (must not be null)
+     * @param to last expiry date to include (must not be null, not before from)
+     * @return an unmodifiable list of matching products, soonest expiry first
+     * @throws IllegalArgumentException if either date is null or the range is reversed
+     */
+    public List<Perishable> findExpiringBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+
+        List<Perishable> expiring = new ArrayList<>();
+        synchronized (perishablesByExpiry) {
+            for (IntHashMap<Perishable> sameDay : perishablesByExpiry.subMap(
+                    from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+                sameDay.forEach(expiring::add);
+            }
+        }
+        return Collections.unmodifiableList(expiring);
+    }
+
+    /**
+     * Finds perishable products that are not yet expired but expire within
+     * the given number of days (today counts as day 0).
+     *
+     * @param days number of days ahead to look (must not be negative)
+     * @return an unmodifiable list of matching products, soonest expiry first
+     * @throws IllegalArgumentException if days is negative
+     */
+    public List<Perishable> findExpiringWithin(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Number of days cannot be negative");
+        }
+        LocalDate today = getBusinessDate();
+        return findExpiringBetween(today, today.plusDays(days));
+    }
+
+    /**
+     * Returns the running stock totals: products, units and value (to the cent), overall,
+     * per category and per supplier. The totals are kept up to date by every change, so
+     * this reads one set of counters per category and supplier and never the products.
+     *
+     * @return the current totals
+     */
+    public InventoryValuation getValuation() {
+        lock.readLock().lock();
+        try {
+            return valuation.snapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Parallel Execution
+    // Evaluating report and listing lists - copying each product, checking whether it is
+    // still expired or low on stock, sorting by product ID - and formatting their rows
+    // can be split across a ForkJoinPool once the list is large enough.
+    // Results and report text are the same as on one thread; rows stay in product ID order.
+
+    /**
+     * Selects the pool used to run large queries and reports in parallel.
+     *
+     * @param pool the pool (for example ForkJoinPool.commonPool()), or null to run
+     *             everything on the calling thread (the default)
+     */
+    public void setQueryPool(ForkJoinPool pool) {
+        this.queryPool = pool;
+    }
+
+    public ForkJoinPool getQueryPool() {
+        return queryPool;
+    }
+
+    /**
+     * Sets how many products an inventory or list must have before work is split across
+     * the query pool. Below it, splitting costs more than it saves.
+     *
+     * @param threshold minimum size for parallel execution (must be positive)
+     * @throws IllegalArgumentException if threshold is not positive
+     */
+    public void setParallelThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be positive");
+        }
+        this.parallelThreshold = threshold;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Helper: Returns the query pool if work over this many products should be split, else null.
+     */
+    private ForkJoinPool poolFor(int size) {
+        return size >= parallelThreshold ? queryPool : null;
+    }
+
+    // Business Date
+    // Expiry checks, listings and reports read the date from the inventory's clock,
+    // once per operation, instead of calling LocalDate.now() for every product.
+
+    /**
+     * Replaces the clock the business date is read from.
+     * A fixed clock (Clock.fixed) pins the date, for example to re-run a report as of a
+     * past day or to check expiry logic against a known date.
+     *
+     * @param clock the new clock (must not be null)
+     * @throws IllegalArgumentException if clock is null
+     */
+    public void setClock(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the current business date - "today" for expiry checks in this inventory.
+     *
+     * @return today's date according to the inventory's clock
+     */
+    public LocalDate getBusinessDate() {
+        return LocalDate.now(clock);
+    }
+
+    // Console Reporting Methods
+    // These methods display information directly to console
+
+    /**
+     * Lists all products in inventory to console.
+     */
+    public void listAllProducts() {
+        System.out.println("PRODUCT LIST:");
+        LocalDate today = getBusinessDate();
+        printRowsOrMessage(reportRows(ReportCache.RowSet.ALL_PRODUCTS, null, today, date -> getAllProducts()),
+                "No products found!");
+    }
+
+    /**
+     * Lists expired products to console.
+     * Found through the expiry index, as of the business date.
+     */
+    public void listExpiredProducts() {
+        System.out.println("EXPIRED PRODUCT LIST:");
+        LocalDate today = getBusinessDate();
+        printRowsOrMessage(reportRows(ReportCache.RowSet.EXPIRED, null, today, this::getExpiredProducts),
+                "No expired products found!");
+    }
+
+    /**
+     * Lists products expiring within the given number of days to console.
+     *
+     * @param days number of days ahead to look (must not be negative)
+     */
+    public void listExpiringProducts(int days) {
+        System.out.printf("PRODUCTS EXPIRING WITHIN %d DAYS:%n", days);
+        printProductsOrMessage(findExpiringWithin(days), "No products expiring in this period!");
+    }
+
+    /**
+     * Lists the products matching a name search to console, best matches first.
+     * Says so when there are more matches than shown.
+     *
+     * @param query the name or part of a name to look for (must not be blank)
+     * @param limit maximum number of products to show (must be positive)
+     * @throws IllegalArgumentException if query is null or blank, or limit is not positive
+     */
+    public void listSearchResults(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search limit must be positive");
+        }
+
+        // Ask for one more than shown, to tell whether the list was cut short
+        List<Product> matches = searchProducts(query, limit == Integer.MAX_VALUE ? limit : limit + 1);
+        boolean truncated = matches.size() > limit;
+
+        System.out.printf("PRODUCTS MATCHING '%s':%n", query.trim());
+        printProductsOrMessage(truncated ? matches.subList(0, limit) : matches, "No products match this search!");
+        if (truncated) {
+            System.out.printf("Showing the best %d matches - refine the search to narrow them down.%n", limit);
+        }
+    }
+
+    /**
+     * Lists low stock products to console.
+     * Uses Product.isLowStock() method.
+     */
+    public void listLowStockProducts() {
+        System.out.println("LOW STOCK PRODUCT LIST:");
+        LocalDate today = getBusinessDate();
+        printRowsOrMessage(reportRows(ReportCache.RowSet.LOW_STOCK, null, today, date -> getLowStockProducts()),
+                "No low stock products found!");
+    }
+
+    /**
+     * Lists products by specific category to console.
+     *
+     * @param category the category to filter by (must not be null)
+     * @throws IllegalArgumentException if category is null
+     */
+    public void listProductsByCategory(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category cannot be null");
+        }
+
+        System.out.printf("PRODUCTS IN CATEGORY: %s%n", category);
+        LocalDate today = getBusinessDate();
+        printRowsOrMessage(reportRows(ReportCache.RowSet.CATEGORY, category, today,
+                date -> getProductsByCategory(category)), "No products found in this category!");
+    }
+
+    /**
+     * Lists products supplied by a specific supplier to console.
+     *
+     * @param supplierId the ID of the supplier
+     */
+    public void listProductsBySupplier(int supplierId) {
+        Optional<Supplier> supplierOpt = findSupplier(supplierId);
+
+        if (supplierOpt.isEmpty()) {
+            System.out.printf("Supplier with ID %d not found!%n", supplierId);
+            return;
+        }
+
+        System.out.printf("PRODUCTS FROM SUPPLIER: %s%n", supplierOpt.get().getSupplierName());
+        printProductsOrMessage(getProductsBySupplier(supplierId), "No products found for this supplier!");
+    }
+
+    /**
+     * Lists all suppliers to console.
+     */
+    public void listAllSuppliers() {
+        System.out.println("SUPPLIER LIST:");
+        List<Supplier> allSuppliers = getAllSuppliers();
+        if (allSuppliers.isEmpty()) {
+            System.out.println("No suppliers found!");
+        } else {
+            allSuppliers.forEach(System.out::println);  // Print each supplier using toString()
+        }
+    }
+
+    /**
+     * Generates a complete inventory report to console.
+     * Includes formatted sections with separators.
+     * All sections come from one consistent view of the inventory, and output is
+     * buffered and flushed once at the end instead of line by line.
+     *
+     * @param includeSupplierDetails whether to include supplier details in the report
+     */
+    public void generateCompleteReport(boolean includeSupplierDetails) {
+        CompleteReport report = captureCompleteReport(getBusinessDate());
+
+        try (ReportOutput out = ReportOutput.console()) {
+            report.writeConsole(out, includeSupplierDetails);
+        } catch (IOException e) {
+            System.out.println("Error printing report: " + e.getMessage());
+        }
+    }
+
+    // File Reporting Methods
+    // These methods save reports to external files, written as selected by setReportOutputMode.
+    // Each returns false (after printing the reason) if the file could not be written.
+
+    /**
+     * Selects how report files are written.
+     *
+     * @param mode CHANNEL (default) or PRINT_WRITER (must not be null)
+     * @throws IllegalArgumentException if mode is null
+     */
+    public void setReportOutputMode(ReportOutputMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Report output mode cannot be null");
+        }
+        this.reportOutputMode = mode;
+    }
+
+    public ReportOutputMode getReportOutputMode() {
+        return reportOutputMode;
+    }
+
+    /**
+     * Saves low stock products report to a file.
+     *
+     * @param filename the name/path of the file to save to
+     * @return true if the report was saved, false if writing failed
+     */
+    public boolean saveLowStockReportToFile(String filename) {
+        try {
+            writeLowStockReport(filename);
+        } catch (IOException | InvalidPathException e) {
+            System.out.printf("Error saving to file '%s': %s%n", filename, e.getMessage());
+            return false;
+        }
+
+        System.out.printf("Report saved to: %s%n", filename);
+        return true;
+    }
+
+    /**
+     * Saves expired products report to a file.
+     *
+     * @param filename the name/path of the file to save to
+     * @return true if the report was saved, false if writing failed
+     */
+    public boolean saveExpiredProductsReportToFile(String filename) {
+        try {
+            writeExpiredProductsReport(filename);
+        } catch (IOException | InvalidPathException e) {
+            System.out.printf("Error saving to file '%s': %s%n", filename, e.getMessage());
+            return false;
+        }
+
+        System.out.printf("Report saved to: %s%n", filename);
+        return true;
+    }
+
+    /**
+     * Saves category-specific products report to a file.
+     *
+     * @param filename the name/path of the file to save to
+     * @param category the category to filter by (must not be null)
+     * @return true if the report was saved, false if writing failed
+     * @throws IllegalArgumentException if category is null
+     */
+    public boolean saveCategoryReportToFile(String filename, Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category cannot be null");
+        }
+
+        try {
+            writeCategoryReport(filename, category);
+        } catch (IOException | InvalidPathException e) {
+            System.out.printf("Error saving to file '%s': %s%n", filename, e.getMessage());
+            return false;
+        }
+
+        System.out.printf("Report saved to: %s%n", filename);
+        return true;
+    }
+
+    /**
+     * Saves a complete inventory report to a file.
+     * Creates a comprehensive report with multiple sections.
+     *
+     * @param filename the name/path of the file to save to
+     * @param includeSupplierDetails whether to include supplier details
+     * @return true if the report was saved, false if writing failed
+     */
+    public boolean saveCompleteReportToFile(String filename, boolean includeSupplierDetails) {
+        try {
+            writeCompleteReport(filename, includeSupplierDetails);
+        } catch (IOException | InvalidPathException e) {
+            // Graceful error handling - don't crash, just inform user
+            System.out.printf("Error saving report to file '%s': %s%n", filename, e.getMessage());
+            return false;
+        }
+
+        System.out.printf("Complete inventory report saved to: %s%n", filename);
+        return true;
+    }
+
+    /**
+     * Saves a general inventory report to a file.
+     * Backward compatibility method - delegates to saveCompleteReportToFile.
+     *
+     * @param filename the name/path of the file to save to
+     * @param includeSupplierDetails whether to include supplier details
+     * @return true if the report was saved, false if writing failed
+     */
+    public boolean saveReportToFile(String filename, boolean includeSupplierDetails) {
+        return saveCompleteReportToFile(filename, includeSupplierDetails);
+    }
+
+    // Report Writers
+    // Write report files without any console output, throwing on failure.
+    // Used by the save methods above and by ReportService's background jobs.
+
+    /**
+     * Writes the low stock products report.
+     *
+     * @param filename the name/path of the file to write
+     * @throws IOException if the file cannot be written (or the writing thread is interrupted)
+     */
+    void writeLowStockReport(String filename) throws IOException {
+        measureReport(InventoryMetrics.Operation.LOW_STOCK_REPORT, filename, () -> {
+            Clock reportClock = Clock.fixed(clock.instant(), clock.getZone());
+            ReportCache.ProductRows lowStockRows = reportRows(ReportCache.RowSet.LOW_STOCK, null,
+                    LocalDate.now(reportClock), date -> getLowStockProducts());
+
+            return writeProductReport(filename, "LOW STOCK PRODUCTS REPORT",
+                    "LOW STOCK PRODUCTS", lowStockRows, reportClock);
+        });
+    }
+
+    /**
+     * Writes the expired products report.
+     *
+     * @param filename the name/path of the file to write
+     * @throws IOException if the file cannot be written (or the writing thread is interrupted)
+     */
+    void writeExpiredProductsReport(String filename) throws IOException {
+        measureReport(InventoryMetrics.Operation.EXPIRED_REPORT, filename, () -> {
+            // Rows are shown as of the same date the expired products were found for
+            Clock reportClock = Clock.fixed(clock.instant(), clock.getZone());
+            ReportCache.ProductRows expiredRows = reportRows(ReportCache.RowSet.EXPIRED, null,
+                    LocalDate.now(reportClock), this::getExpiredProducts);
+
+            return writeProductReport(filename, "EXPIRED PRODUCTS REPORT",
+                    "EXPIRED PRODUCTS", expiredRows, reportClock);
+        });
+    }
+
+    /**
+     * Writes the report of one category's products.
+     *
+     * @param filename the name/path of the file to write
+     * @param category the category to filter by (must not be null)
+     * @throws IOException if the file cannot be written (or the writing thread is interrupted)
+     * @throws IllegalArgumentException if category is null
+     */
+    void writeCategoryReport(String filename, Category category) throws IOException {
+        measureReport(InventoryMetrics.Operation.CATEGORY_REPORT, filename, () -> {
+            Clock reportClock = Clock.fixed(clock.instant(), clock.getZone());
+            ReportCache.ProductRows categoryRows = reportRows(ReportCache.RowSet.CATEGORY, category,
+                    LocalDate.now(reportClock), date -> getProductsByCategory(category));
+
+            return writeProductReport(filename,
+                    String.format("CATEGORY REPORT: %s", category),
+                    String.format("PRODUCTS IN CATEGORY: %s", category),
+                    categoryRows, reportClock);
+        });
+    }
+
+    /**
+     * Writes the complete inventory report.
+     *
+     * @param filename the name/path of the file to write
+     * @param includeSupplierDetails whether to include supplier details
+     * @throws IOException if the file cannot be written (or the writing thread is interrupted)
+     */
+    void writeCompleteReport(String filename, boolean includeSupplierDetails) throws IOException {
+        measureReport(InventoryMetrics.Operation.COMPLETE_REPORT, filename, () -> {
+            // Capture a consistent view of the inventory, then write without holding the lock
+            Clock reportClock = Clock.fixed(clock.instant(), clock.getZone());
+            CompleteReport report = captureCompleteReport(LocalDate.now(reportClock));
+
+            try (ReportOutput writer = ReportOutput.openFile(filename, reportOutputMode)) {
+                // Try-with-resources ensures the output is flushed and closed automatically
+                String timestamp = LocalDateTime.now(reportClock).format(REPORT_TIMESTAMP_FORMATTER);
+                report.writeFile(writer, timestamp, includeSupplierDetails);
+            }
+            return report.getRowCount(includeSupplierDetails);
+        });
+    }
+
+    /**
+     * Writes one report file and returns the number of rows written.
+     */
+    private interface ReportBody {
+        long write() throws IOException;
+    }
+
+    /**
+     * Helper: Writes a report file, recording its time, rows and size in the metrics
+     * (or counting it as failed if it throws).
+     *
+     * @param operation which report
+     * @param filename the file the body writes
+     * @param body writes the report
+     * @throws IOException if the body does
+     */
+    private void measureReport(InventoryMetrics.Operation operation, String filename, ReportBody body)
+            throws IOException {
+        long start = metrics.start(operation);
+        boolean succeeded = false;
+        try {
+            long rows = body.write();
+            succeeded = true;
+            metrics.recordReport(operation, start, rows, reportFileSize(filename));
+        } finally {
+            if (!succeeded) {
+                metrics.record(operation, start, false);
+            }
+        }
+    }
+
+    /**
+     * Helper: Size of a report file just written, or 0 if it cannot be read (the report
+     * itself was written, so this is not worth failing it for).
+     */
+    private static long reportFileSize(String filename) {
+        try {
+            return Files.size(Path.of(filename));
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Helper: Captures everything the complete report needs.
+     * The product and supplier lists are taken under one read lock, then every product
+     * is copied once, without the lock, so stock updates are never held up by a report.
+     * The expired and low stock sections, the summary counts and the stock totals are
+     * all derived from those copies, so they agree with the rows the report shows even
+     * if stock changes while it is captured or written.
+     *
+     * @param asOf business date the expired section and every row's status are evaluated for
+     * @return the captured report, ready to be written without holding the lock
+     */
+    private CompleteReport captureCompleteReport(LocalDate asOf) {
+        ReportCapture capture;
+        List<Product> live;
+
+        lock.readLock().lock();
+        try {
+            live = products.toList();
+            capture = new ReportCapture(suppliers.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Copying, and picking the expired and low stock copies, is split across the query pool if large
+        ForkJoinPool pool = poolFor(live.size());
+        List<Product> all = capture.copyProducts(live, null, false, pool);
+        List<Product> expired = ReportCapture.select(all, product -> product.isExpired(asOf), pool);
+        List<Product> lowStock = ReportCapture.select(all, Product::isLowStock, pool);
+
+        return new CompleteReport(capture.getSupplierCopies(), StockValuation.totalsOf(all),
+                reportCache.uncached(asOf, all), reportCache.uncached(asOf, expired),
+                reportCache.uncached(asOf, lowStock), pool);
+    }
+
+    /**
+     * Helper: Returns the rows of one report list as of a date - already formatted from
+     * the report cache if nothing has changed since they were formatted, otherwise
+     * freshly captured and copied (and cached once written). Copies that no longer
+     * belong in the list - a low stock product restocked since the index was read -
+     * are dropped, so every row shown meets the list's condition. Low stock and expired
+     * lists are ordered by product ID to match the full product listing. Long lists are
+     * copied, filtered and sorted on the query pool (see setQueryPool).
+     *
+     * @param rowSet which list
+     * @param category the category for CATEGORY lists (null otherwise)
+     * @param asOf business date the rows are shown for
+     * @param capture captures the list as of a date (only called if it is not cached)
+     * @return the rows to write
+     */
+    private ReportCache.ProductRows reportRows(ReportCache.RowSet rowSet, Category category, LocalDate asOf,
+                                               Function<LocalDate, List<? extends Product>> capture) {
+        long version = modificationVersion.sum();       // Before the capture - see ReportCache
+        ReportCache.ProductRows cached = reportCache.find(rowSet, category, asOf, version);
+        if (cached != null) {
+            return cached;
+        }
+
+        Predicate<Product> keep = switch (rowSet) {
+            case LOW_STOCK -> Product::isLowStock;
+            case EXPIRED -> product -> product.isExpired(asOf);
+            case ALL_PRODUCTS, CATEGORY -> null;
+        };
+        List<? extends Product> live = capture.apply(asOf);
+        List<Product> copies = newReportCapture().copyProducts(live, keep, keep != null, poolFor(live.size()));
+        return reportCache.prepare(rowSet, category, asOf, version, copies);
+    }
+
+    /**
+     * Private helper to write a product list report to a file.
+     * Generic method used by specialized report methods.
+     *
+     * @param filename target file name
+     * @param reportTitle main report title
+     * @param sectionTitle section heading
+     * @param products rows of the products to include in report
+     * @param reportClock fixed clock the rows were captured for, read for the timestamp
+     * @return number of product rows written
+     * @throws IOException if the file cannot be written
+     */
+    private long writeProductReport(String filename, String reportTitle, String sectionTitle,
+                                    ReportCache.ProductRows products, Clock reportClock) throws IOException {
+        try (ReportOutput writer = ReportOutput.openFile(filename, reportOutputMode)) {
+            String timestamp = LocalDateTime.now(reportClock).format(REPORT_TIMESTAMP_FORMATTER);
+
+            // Report header
+            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
+            writer.println(reportTitle);
+            writer.println("Generated: " + timestamp);
+            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
+            writer.println();
+
+            // Product section with count
+            writer.println(sectionTitle + " (" + products.size() + "):");
+            writer.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
+
+            if (products.isEmpty()) {
+                writer.println("No products found!");
+            } else {
+                products.writeTo(writer, poolFor(products.size()));
+            }
+
+            // Report footer
+            writer.println("\n" + createSeparator('=', REPORT_SEPARATOR_LENGTH));
+            writer.println("REPORT END");
+            writer.println("Generated by Grocery Inventory Manager");
+            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
+        }
+        return products.size();
+    }
+
+    // Helper Methods
+
+    /**
+     * Helper: Coalesces and applies a stock batch under a single read lock.
+     * Entries are sorted by product ID (packed with their batch position into one long),
+     * so repeated IDs end up next to each other and are merged before the lookup.
+     *
+     * @param productIds product IDs
+     * @param values deltas or absolute quantities, paired by position with productIds
+     * @param relative true to add values as deltas, false to set them as quantities
+     * @return summary of the batch outcome
+     */
+    private StockBatchResult applyStockBatch(int[] productIds, int[] values, boolean relative) {
+        long start = metrics.start(InventoryMetrics.Operation.STOCK_BATCH);
+        boolean succeeded = false;
+        try {
+            StockBatchResult result = runStockBatch(productIds, values, relative);
+            succeeded = true;
+            return result;
+        } finally {
+            metrics.record(InventoryMetrics.Operation.STOCK_BATCH, start, succeeded);
+        }
+    }
+
+    /**
+     * Helper: Does the work of applyStockBatch (which also times it).
+     */
+    private StockBatchResult runStockBatch(int[] productIds, int[] values, boolean relative) {
+        if (productIds == null || values == null) {
+            throw new IllegalArgumentException("Batch arrays cannot be null");
+        }
+        if (productIds.length != values.length) {
+            throw new IllegalArgumentException("Batch arrays must have the same length");
+        }
+
+        // Sort by (product ID, batch position) - high 32 bits ID, low 32 bits position
+        long[] order = new long[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            order[i] = ((long) productIds[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int applied = 0;
+        int[] missing = new int[order.length];
+        int missingCount = 0;
+        int[] rejected = new int[order.length];
+        int rejectedCount = 0;
+
+        lock.readLock().lock();
+        try {
+            checkWritable();        // Refuse the whole batch rather than fail part way through
+
+            int i = 0;
+            while (i < order.length) {
+                int productId = (int) (order[i] >> 32);
+
+                // Coalesce every entry for this product ID
+                long total = 0;
+                int last = 0;
+                for (; i < order.length && (int) (order[i] >> 32) == productId; i++) {
+                    last = values[(int) order[i]];
+                    total += last;
+                }
+
+                Product product = products.get(productId);
+                if (product == null) {
+                    missing[missingCount++] = productId;
+                    continue;
+                }
+
+                try {
+                    if (relative) {
+                        if (total < Integer.MIN_VALUE || total > Integer.MAX_VALUE) {
+                            throw new IllegalArgumentException("Quantity is too large");
+                        }
+                        product.adjustQuantity((int) total);
+                    } else {
+                        product.setQuantity(last);      // Last level in the batch wins
+                    }
+                    applied++;
+                } catch (IllegalArgumentException e) {
+                    rejected[rejectedCount++] = productId;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (applied > 0) {
+            syncLog();          // One sync for the whole batch
+        }
+
+        return new StockBatchResult(applied,
+                Arrays.copyOf(missing, missingCount), Arrays.copyOf(rejected, rejectedCount));
     }
 
     /**
-     * Removes a supplier if no products are associated with it.
-     * Business rule: Cannot delete supplier with existing products (referential integrity).
+     * Helper: Records a change that has just been made - increments the modification
+     * version, then appends a record to the mutation log, if there is one.
+     * Called after the change is complete, so a report that read the old version may
+     * have seen the change but is never cached under the new one (see ReportCache).
+     * Caller must hold the read or write lock, so the record is ordered
+     * against the add and remove records of the same product.
      *
-     * @param supplierId the ID of the supplier to remove
+     * @param append writes the record to the log
      */
-    public void removeSupplier(int supplierId) {
-        // Find supplier first
-        Optional<Supplier> supplierOpt = findSupplier(supplierId);
+    private void recordChange(Consumer<MutationLog> append) {
+        modificationVersion.increment();
 
-        if (supplierOpt.isEmpty()) {
-            System.out.printf("Supplier with ID %d not found!%n", supplierId);
-            return;             // Early exit - supplier doesn't exist
+        MutationLog log = mutationLog;
+        if (log != null) {
+            append.accept(log);
         }
+    }
 
-        Supplier supplier = supplierOpt.get();
-
-        // Check if supplier has any products
-        if (hasProductsForSupplier(supplierId)) {
-            System.out.printf("Cannot remove supplier '%s'! There are products associated with this supplier.%n",
-                    supplier.getSupplierName());
-            return;             // Prevent removal - products depend on this supplier
+    /**
+     * Checks that a change can be logged before it is made (no-op without a log).
+     * Once a log write has failed, every change is refused here instead of being made
+     * in memory and then reported as failed. (A change already past this check when
+     * another thread's write fails is still made, and fails when it is logged or synced.)
+     *
+     * @throws IllegalStateException if the mutation log has failed - the inventory is read-only
+     */
+    void checkWritable() {
+        MutationLog log = mutationLog;
+        if (log != null) {
+            log.ensureWritable();
         }
-
-        // Safe to remove - no dependent products
-        suppliers.removeIf(s -> s.getSupplierId() == supplierId);
-        System.out.printf("Supplier '%s' with ID: %d removed successfully!%n",
-                supplier.getSupplierName(), supplierId);
     }
 
     /**
-     * Checks if any products reference the given supplier.
-     * Private helper method for referential integrity check.
+     * Waits until every change logged so far is on disk (no-op without a log).
+     * Concurrent callers share one sync.
      *
-     * @param supplierId supplier ID to check
-     * @return true if any products use this supplier, false otherwise
+     * @throws UncheckedIOException if the log cannot be written - the change has been
+     *                              made in memory but is not saved
      */
-    private boolean hasProductsForSupplier(int supplierId) {
-        return products.stream()
-                .anyMatch(p -> p.getSupplier().getSupplierId() == supplierId);
+    void syncLog() {
+        MutationLog log = mutationLog;
+        if (log != null) {
+            try {
+                log.sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write inventory log - the last change is not saved", e);
+            }
+        }
     }
 
-    // Product Management
-
     /**
-     * Adds a product to the inventory.
-     * Updates nextProductId to prevent ID conflicts.
+     * Helper: Looks up a product that must exist.
+     * Caller must hold the read or write lock.
      *
-     * @param product the product to add (must not be null)
-     * @throws IllegalArgumentException if product is null
+     * @param productId the ID of the product
+     * @return the product
+     * @throws IllegalArgumentException if no product has this ID
      */
-    public void addProduct(Product product) {
+    private Product requireProduct(int productId) {
+        Product product = products.get(productId);
         if (product == null) {
-            throw new IllegalArgumentException("Product cannot be null");
+            throw new IllegalArgumentException("Product with ID " + productId + " not found");
         }
-        products.add(product);
-        System.out.printf("Product '%s' added with ID: %d%n", product.getName(), product.getId());
-
-        // Ensure nextProductId is higher than any existing ID
-        nextProductId = Math.max(nextProductId, product.getId() + 1);
+        return product;
     }
 
     /**
-     * Removes a product from the inventory.
-     * No referential checks needed - products don't have dependencies.
+     * Helper: Adds a product to every secondary index.
+     * Called whenever a product enters the inventory.
      *
-     * @param productId the ID of the product to remove
+     * @param product the product being added to the inventory
      */
-    public void removeProduct(int productId) {
-        Optional<Product> productOpt = findProduct(productId);
-
-        if (productOpt.isEmpty()) {
-            System.out.printf("Product with ID %d not found!%n", productId);
-            return;
+    private void addToIndexes(Product product) {
+        addToSupplierIndex(product);
+        nameIndex.add(product);
+        productsByCategory.get(product.getCategory()).put(product.getId(), product);
+        if (product instanceof Perishable perishable) {
+            indexExpiryDate(perishable);
+        }
+        if (product.isLowStock()) {
+            lowStockChanged(product);       // A new product cannot be in the set yet, so only add
         }
-
-        Product product = productOpt.get();
-
-        // Remove product by ID predicate
-        products.removeIf(p -> p.getId() == productId);
-        System.out.printf("Product '%s' with ID: %d removed successfully!%n",
-                product.getName(), productId);
     }
 
     /**
-     * Finds a product by ID.
-     * Uses Java Streams for functional-style filtering.
+     * Helper: Removes a product from every secondary index.
+     * Called whenever a product leaves the inventory.
      *
-     * @param productId the ID of the product to find
-     * @return Optional containing the product if found, empty Optional otherwise
+     * @param product the product being removed from the inventory
      */
-    public Optional<Product> findProduct(int productId) {
-        // Match product ID and return first match or empty
-        return products.stream()
-                .filter(p -> p.getId() == productId)
-                .findFirst();
+    private void removeFromIndexes(Product product) {
+        removeFromSupplierIndex(product);
+        nameIndex.remove(product);
+        productsByCategory.get(product.getCategory()).remove(product.getId());
+        if (product instanceof Perishable perishable) {
+            synchronized (perishablesByExpiry) {
+                removeFromExpiryIndex(perishable);
+            }
+        }
+        synchronized (lowStockProducts) {
+            lowStockProducts.remove(product.getId());
+        }
     }
 
     /**
-     * Updates the stock quantity of a product.
-     * Uses Optional.ifPresentOrElse for concise null-safe handling.
+     * Called by Product whenever an owned product's quantity changes.
+     * Updates the low stock set if the change crossed the threshold, then updates the
+     * running totals and logs the change.
+     * The totals and log record are updated under the read lock, so they never
+     * follow the product's removal.
      *
-     * @param productId the ID of the product to update
-     * @param quantity the new quantity (must be non-negative - validated by Product.setQuantity)
+     * @param product the product whose quantity changed
+     * @param previousQuantity quantity before the change
+     * @param newQuantity quantity after the change
      */
-    public void updateStock(int productId, int quantity) {
-        Optional<Product> productOpt = findProduct(productId);
-        // Update if found or else display error
-        productOpt.ifPresentOrElse(
-                product -> product.setQuantity(quantity),
-                () -> System.out.printf("Product with ID %d not found!%n", productId)
-        );
-    }
+    void quantityChanged(Product product, int previousQuantity, int newQuantity) {
+        int threshold = product.getLowStockThreshold();
+        if ((previousQuantity <= threshold) != (newQuantity <= threshold)) {
+            lowStockChanged(product);
+        }
 
-    // Console Reporting Methods
-    // These methods display information directly to console
+        lock.readLock().lock();
+        try {
+            if (product.owner == this) {
+                valuation.update(product);
+                recordChange(log -> log.logQuantity(product));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
     /**
-     * Lists all products in inventory to console.
+     * Called by Product.setLowStockThreshold for an owned product.
+     *
+     * @param product the product whose threshold changed
      */
-    public void listAllProducts() {
-        System.out.println("PRODUCT LIST:");
-        printProductsOrMessage(products, "No products found!");
+    void lowStockThresholdChanged(Product product) {
+        lowStockChanged(product);
+
+        lock.readLock().lock();
+        try {
+            if (product.owner == this) {
+                recordChange(log -> log.logLowStockThreshold(product));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Lists expired products to console.
-     * Uses Product.isExpired() method (polymorphic - calls subclass implementation).
+     * Called by Product.setPrice for an owned product.
+     *
+     * @param product the product whose price changed
      */
-    public void listExpiredProducts() {
-        System.out.println("EXPIRED PRODUCT LIST:");
-        List<Product> expiredProducts = products.stream()
-                .filter(Product::isExpired)         // Method reference to isExpired()
-                .toList();
-        printProductsOrMessage(expiredProducts, "No expired products found!");
+    void priceChanged(Product product) {
+        lock.readLock().lock();
+        try {
+            if (product.owner == this) {
+                valuation.update(product);
+                recordChange(log -> log.logPrice(product));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Lists low stock products to console.
-     * Uses Product.isLowStock() method.
+     * Called by Supplier.setSupplierName and setContact for an owned supplier.
+     * Supplier names appear in product rows, so cached report rows must not be reused.
+     * Both details are logged together, whichever of them changed.
+     *
+     * @param supplier the supplier whose details changed
      */
-    public void listLowStockProducts() {
-        System.out.println("LOW STOCK PRODUCT LIST:");
-        List<Product> lowStockProducts = products.stream()
-                .filter(Product::isLowStock)        // Method reference to isLowStock()
-                .toList();
-        printProductsOrMessage(lowStockProducts, "No low stock products found!");
+    void supplierChanged(Supplier supplier) {
+        lock.readLock().lock();
+        try {
+            if (supplier.owner == this) {
+                recordChange(log -> log.logSupplier(supplier));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Lists products by specific category to console.
+     * Called when an owned product may have crossed its low stock threshold.
+     * Re-checks the product's current status and adds it to or removes it from the
+     * live low stock set. Because the check reads the latest state, notifications that
+     * arrive out of order from concurrent updates still leave the set correct.
      *
-     * @param category the category to filter by (must not be null)
-     * @throws IllegalArgumentException if category is null
+     * @param product the product whose low stock status changed
      */
-    public void listProductsByCategory(Category category) {
-        if (category == null) {
-            throw new IllegalArgumentException("Category cannot be null");
+    void lowStockChanged(Product product) {
+        synchronized (lowStockProducts) {
+            if (product.owner != this) {
+                return;     // Removed from this inventory in the meantime
+            }
+            if (product.isLowStock()) {
+                lowStockProducts.put(product.getId(), product);
+            } else {
+                lowStockProducts.remove(product.getId());
+            }
         }
-
-        System.out.printf("PRODUCTS IN CATEGORY: %s%n", category);
-        List<Product> categoryProducts = products.stream()
-                .filter(p -> p.getCategory() == category)       // Compare enum references
-                .toList();
-        printProductsOrMessage(categoryProducts, "No products found in this category!");
     }
 
     /**
-     * Lists all suppliers to console.
+     * Called by Perishable.setExpiryDate when an owned product's date changes.
+     * Moves the product from the date it is filed under to its current expiry date,
+     * then logs the change.
+     *
+     * @param perishable the product whose expiry date changed
      */
-    public void listAllSuppliers() {
-        System.out.println("SUPPLIER LIST:");
-        if (suppliers.isEmpty()) {
-            System.out.println("No suppliers found!");
-        } else {
-            suppliers.forEach(System.out::println);     // Print each supplier using toString()
+    void expiryDateChanged(Perishable perishable) {
+        indexExpiryDate(perishable);
+
+        lock.readLock().lock();
+        try {
+            if (perishable.owner == this) {
+                recordChange(log -> log.logExpiryDate(perishable));
+            }
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
     /**
-     * Generates a complete inventory report to console.
-     * Includes formatted sections with separators.
+     * Called by NonPerishable.setShelfLife for an owned product.
+     * Shelf life appears in product rows, so cached report rows must not be reused.
      *
-     * @param includeSupplierDetails whether to include supplier details in the report
+     * @param nonPerishable the product whose shelf life changed
      */
-    public void generateCompleteReport(boolean includeSupplierDetails) {
-        String separator = createSeparator('=', REPORT_SEPARATOR_LENGTH);
-
-        System.out.println("\n" + separator);
-        System.out.println("COMPLETE INVENTORY REPORT");
-        System.out.println(separator);
-
-        // Optional supplier section
-        if (includeSupplierDetails) {
-            System.out.println("\nSUPPLIER DETAILS:");
-            System.out.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-            listAllSuppliers();
+    void shelfLifeChanged(NonPerishable nonPerishable) {
+        lock.readLock().lock();
+        try {
+            if (nonPerishable.owner == this) {
+                recordChange(log -> log.logShelfLife(nonPerishable));
+            }
+        } finally {
+            lock.readLock().unlock();
         }
-
-        // Product summary section
-        System.out.println("\nPRODUCT SUMMARY:");
-        System.out.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-        System.out.println("Total Products: " + getProductCount());
-        System.out.println("Total Suppliers: " + getSupplierCount());
-
-        // All products section
-        System.out.println("\nALL PRODUCTS:");
-        System.out.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-        listAllProducts();
-
-        // Expired products section
-        System.out.println("\nEXPIRED PRODUCTS:");
-        System.out.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-        listExpiredProducts();
-
-        // Low stock products section
-        System.out.println("\nLOW STOCK PRODUCTS:");
-        System.out.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-        listLowStockProducts();
-
-        // Report footer
-        System.out.println("\n" + separator);
-        System.out.println("REPORT COMPLETE");
-        System.out.println(separator);
     }
 
-    // File Reporting Methods
-    // These methods save reports to external files
-
     /**
-     * Saves low stock products report to a file.
+     * Helper: Files a perishable product in the expiry index under its current expiry date.
      *
-     * @param filename the name/path of the file to save to
+     * @param perishable the product to (re)file
      */
-    public void saveLowStockReportToFile(String filename) {
-        List<Product> lowStockProducts = products.stream()
-                .filter(Product::isLowStock)
-                .toList();
+    private void indexExpiryDate(Perishable perishable) {
+        synchronized (perishablesByExpiry) {
+            if (perishable.owner != this) {
+                return;     // Removed from this inventory in the meantime
+            }
+            removeFromExpiryIndex(perishable);
 
-        saveProductReportToFile(filename, "LOW STOCK PRODUCTS REPORT",
-                "LOW STOCK PRODUCTS", lowStockProducts);
+            long expiryDay = perishable.getExpiryEpochDay();
+            perishablesByExpiry.computeIfAbsent(expiryDay, day -> new IntHashMap<>())
+                    .put(perishable.getId(), perishable);
+            perishable.indexedExpiryDay = expiryDay;
+        }
     }
 
     /**
-     * Saves expired products report to a file.
-     *
-     * @param filename the name/path of the file to save to
+     * Helper: Removes a perishable product from the expiry index bucket it is filed under.
+     * Drops the bucket once it is empty so range queries skip it.
+     * Caller must hold the perishablesByExpiry monitor.
      */
-    public void saveExpiredProductsReportToFile(String filename) {
-        List<Product> expiredProducts = products.stream()
-                .filter(Product::isExpired)
-                .toList();
+    private void removeFromExpiryIndex(Perishable perishable) {
+        long expiryDay = perishable.indexedExpiryDay;
+        if (expiryDay == Perishable.NOT_INDEXED) {
+            return;     // Not filed yet
+        }
 
-        saveProductReportToFile(filename, "EXPIRED PRODUCTS REPORT",
-                "EXPIRED PRODUCTS", expiredProducts);
+        IntHashMap<Perishable> sameDay = perishablesByExpiry.get(expiryDay);
+        if (sameDay != null) {
+            sameDay.remove(perishable.getId());
+            if (sameDay.isEmpty()) {
+                perishablesByExpiry.remove(expiryDay);
+            }
+        }
+        perishable.indexedExpiryDay = Perishable.NOT_INDEXED;
     }
 
     /**
-     * Saves category-specific products report to a file.
+     * Helper: Adds a product to the supplier-to-products index.
      *
-     * @param filename the name/path of the file to save to
-     * @param category the category to filter by (must not be null)
-     * @throws IllegalArgumentException if category is null
+     * @param product the product being added to the inventory
      */
-    public void saveCategoryReportToFile(String filename, Category category) {
-        if (category == null) {
-            throw new IllegalArgumentException("Category cannot be null");
+    private void addToSupplierIndex(Product product) {
+        int supplierId = product.getSupplier().getSupplierId();
+        IntHashMap<Product> supplierProducts = productsBySupplier.get(supplierId);
+        if (supplierProducts == null) {
+            supplierProducts = new IntHashMap<>();
+            productsBySupplier.put(supplierId, supplierProducts);
         }
-
-        List<Product> categoryProducts = products.stream()
-                .filter(p -> p.getCategory() == category)
-                .toList();
-
-        saveProductReportToFile(filename,
-                String.format("CATEGORY REPORT: %s", category),
-                String.format("PRODUCTS IN CATEGORY: %s", category),
-                categoryProducts);
+        supplierProducts.put(product.getId(), product);
     }
 
     /**
-     * Saves a complete inventory report to a file.
-     * Creates a comprehensive report with multiple sections.
+     * Helper: Removes a product from the supplier-to-products index.
+     * Drops the supplier's entry once its last product is removed.
      *
-     * @param filename the name/path of the file to save to
-     * @param includeSupplierDetails whether to include supplier details
+     * @param product the product being removed from the inventory
      */
-    public void saveCompleteReportToFile(String filename, boolean includeSupplierDetails) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            // Try-with-resources ensures writer is closed automatically
-            String timestamp = LocalDateTime.now().format(REPORT_TIMESTAMP_FORMATTER);
-
-            // Report Header
-            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
-            writer.println("COMPLETE INVENTORY REPORT");
-            writer.println("Generated: " + timestamp);
-            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
-            writer.println();       // Blank line
-
-            // Supplier Section (if requested)
-            if (includeSupplierDetails) {
-                writer.println("SUPPLIER DETAILS:");
-                writer.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-                if (suppliers.isEmpty()) {
-                    writer.println("No suppliers found!");
-                } else {
-                    for (Supplier supplier : suppliers) {
-                        writer.println(supplier.toString());
-                    }
-                }
-                writer.println();       // Blank line
-            }
-
-            // Product Summary
-            writer.println("PRODUCT SUMMARY:");
-            writer.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-            writer.println("Total Products: " + getProductCount());
-            writer.println("Total Suppliers: " + getSupplierCount());
-            writer.println("Expired Products: " + countExpiredProducts());
-            writer.println("Low Stock Products: " + countLowStockProducts());
-            writer.println();           // Blank line
-
-            // All Products Section
-            writer.println("ALL PRODUCTS:");
-            writer.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-            if (products.isEmpty()) {
-                writer.println("No products found!");
-            } else {
-                for (Product product : products) {
-                    writer.println(product.toString());
-                }
-            }
-            writer.println();           // Blank line
-
-            // Expired Products Section
-            writer.println("EXPIRED PRODUCTS:");
-            writer.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-            List<Product> expiredProducts = products.stream()
-                    .filter(Product::isExpired)
-                    .toList();
-            if (expiredProducts.isEmpty()) {
-                writer.println("No expired products found!");
-            } else {
-                for (Product product : expiredProducts) {
-                    writer.println(product.toString());
-                }
-            }
-            writer.println();           // Blank line
-
-            // Low Stock Products Section
-            writer.println("LOW STOCK PRODUCTS:");
-            writer.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-            List<Product> lowStockProducts = products.stream()
-                    .filter(Product::isLowStock)
-                    .toList();
-            if (lowStockProducts.isEmpty()) {
-                writer.println("No low stock products found!");
-            } else {
-                for (Product product : lowStockProducts) {
-                    writer.println(product.toString());
-                }
+    private void removeFromSupplierIndex(Product product) {
+        int supplierId = product.getSupplier().getSupplierId();
+        IntHashMap<Product> supplierProducts = productsBySupplier.get(supplierId);
+        if (supplierProducts != null) {
+            supplierProducts.remove(product.getId());
+            if (supplierProducts.isEmpty()) {
+                productsBySupplier.remove(supplierId);
             }
-
-            // Report Footer
-            writer.println("\n" + createSeparator('=', REPORT_SEPARATOR_LENGTH));
-            writer.println("REPORT END");
-            writer.println("Generated by Grocery Inventory Manager");
-            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
-
-            System.out.printf("Complete inventory report saved to: %s%n", filename);
-        } catch (IOException e) {
-            // Graceful error handling - don't crash, just inform user
-            System.out.printf("Error saving report to file '%s': %s%n", filename, e.getMessage());
         }
     }
 
     /**
-     * Saves a general inventory report to a file.
-     * Backward compatibility method - delegates to saveCompleteReportToFile.
+     * Helper: Starts copying products for a report, with copies of the current suppliers.
      *
-     * @param filename the name/path of the file to save to
-     * @param includeSupplierDetails whether to include supplier details
+     * @return the capture to copy the report's products with
      */
-    public void saveReportToFile(String filename, boolean includeSupplierDetails) {
-        saveCompleteReportToFile(filename, includeSupplierDetails);
+    private ReportCapture newReportCapture() {
+        lock.readLock().lock();
+        try {
+            return new ReportCapture(suppliers.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Private helper to save a product list report to a file.
-     * Generic method used by specialized report methods.
+     * Helper: Prints report rows or message if there are none.
+     * Used by console display methods for consistent empty handling.
+     * Rows go through one buffered console output, which is flushed once at the end.
      *
-     * @param filename target file name
-     * @param reportTitle main report title
-     * @param sectionTitle section heading
-     * @param products list of products to include in report
+     * @param rows rows to print (see reportRows)
+     * @param emptyMessage message to display if there are no rows
      */
-    private void saveProductReportToFile(String filename, String reportTitle,
-                                         String sectionTitle, List<Product> products) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            String timestamp = LocalDateTime.now().format(REPORT_TIMESTAMP_FORMATTER);
-
-            // Report header
-            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
-            writer.println(reportTitle);
-            writer.println("Generated: " + timestamp);
-            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
-            writer.println();
-
-            // Product section with count
-            writer.println(sectionTitle + " (" + products.size() + "):");
-            writer.println(createSeparator('-', REPORT_SEPARATOR_LENGTH));
-
-            if (products.isEmpty()) {
-                writer.println("No products found!");
-            } else {
-                for (Product product : products) {
-                    writer.println(product.toString());
-                }
-            }
-
-            // Report footer
-            writer.println("\n" + createSeparator('=', REPORT_SEPARATOR_LENGTH));
-            writer.println("REPORT END");
-            writer.println("Generated by Grocery Inventory Manager");
-            writer.println(createSeparator('=', REPORT_SEPARATOR_LENGTH));
+    private void printRowsOrMessage(ReportCache.ProductRows rows, String emptyMessage) {
+        if (rows.isEmpty()) {
+            System.out.println(emptyMessage);
+            return;
+        }
 
-            System.out.printf("Report saved to: %s%n", filename);
+        try (ReportOutput out = ReportOutput.console()) {
+            rows.writeTo(out, poolFor(rows.size()));
         } catch (IOException e) {
-            System.out.printf("Error saving to file '%s': %s%n", filename, e.getMessage());
+            System.out.println("Error printing products: " + e.getMessage());
         }
     }
 
-    // Helper Methods
-
     /**
-     * Helper: Prints products list or message if list is empty.
-     * Used by console display methods for consistent empty handling.
+     * Helper: Prints products list (with expiry status as of the business date) or message if list is empty.
+     * Used by console display methods for lists that are not cached. The products are
+     * copied first, so each row shows one consistent state of its product.
+     * Rows go through one buffered console output, which is flushed once at the end.
      *
      * @param products list of products to print
      * @param emptyMessage message to display if list is empty
      */
-    private void printProductsOrMessage(List<Product> products, String emptyMessage) {
+    private void printProductsOrMessage(List<? extends Product> products, String emptyMessage) {
         if (products.isEmpty()) {
             System.out.println(emptyMessage);
-        } else {
-            products.forEach(System.out::println);      // Method reference for concise code
+            return;
+        }
+
+        try (ReportOutput out = ReportOutput.console()) {
+            ForkJoinPool pool = poolFor(products.size());
+            out.printRows(newReportCapture().copyProducts(products, null, false, pool), getBusinessDate(), pool);
+        } catch (IOException e) {
+            System.out.println("Error printing products: " + e.getMessage());
         }
     }
 
@@ -555,56 +1919,139 @@ public class InventoryManager {
     }
 
     /**
-     * Helper: Counts expired products.
-     * Uses stream count() for efficient counting.
+     * Counts expired products.
+     * Adds up the expiry index buckets dated before the business date - no per-product checks.
      *
      * @return number of expired products
      */
-    private long countExpiredProducts() {
-        return products.stream()
-                .filter(Product::isExpired)
-                .count();       // Terminal operation - returns count
+    public long countExpiredProducts() {
+        return countExpiredBefore(getBusinessDate().toEpochDay());
+    }
+
+    /**
+     * Helper: Counts the perishable products dated before an epoch day, from the sizes
+     * of the expiry index buckets.
+     */
+    private long countExpiredBefore(long epochDay) {
+        long count = 0;
+        synchronized (perishablesByExpiry) {
+            for (IntHashMap<Perishable> sameDay : perishablesByExpiry.headMap(epochDay, false).values()) {
+                count += sameDay.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Helper: Collects expired products from the expiry index.
+     * Only products dated before asOf are visited (a prefix of the index).
+     * Results are in index order; reports sort their copies by product ID (see reportRows).
+     *
+     * @param asOf the date products must have expired before
+     * @return list of expired products
+     */
+    private List<Product> getExpiredProducts(LocalDate asOf) {
+        List<Product> expired = new ArrayList<>();
+        synchronized (perishablesByExpiry) {
+            for (IntHashMap<Perishable> sameDay : perishablesByExpiry.headMap(asOf.toEpochDay(), false).values()) {
+                sameDay.forEach(expired::add);
+            }
+        }
+        return expired;
     }
 
     /**
-     * Helper: Counts low stock products.
-     * Uses stream count() for efficient counting.
+     * Counts low stock products.
+     * Reads the size of the live low stock set - no scan needed, so it is cheap to poll.
      *
      * @return number of low stock products
      */
-    private long countLowStockProducts() {
-        return products.stream()
-                .filter(Product::isLowStock)
-                .count();
+    public long countLowStockProducts() {
+        synchronized (lowStockProducts) {
+            return lowStockProducts.size();
+        }
+    }
+
+    /**
+     * Helper: Collects low stock products from the live low stock set.
+     * Results are in set order; reports sort their copies by product ID (see reportRows).
+     *
+     * @return list of low stock products
+     */
+    private List<Product> getLowStockProducts() {
+        synchronized (lowStockProducts) {
+            return lowStockProducts.toList();
+        }
     }
 
     // Getters
 
     public int getNextProductId() {
 
-        return nextProductId;
+        return nextProductId.get();
     }
 
     public int getNextSupplierId() {
 
-        return nextSupplierId;
+        return nextSupplierId.get();
     }
 
     public boolean hasProducts() {
 
-        return !products.isEmpty();
+        return getProductCount() > 0;
     }
 
     public boolean hasSuppliers() {
-        return !suppliers.isEmpty();
+        return getSupplierCount() > 0;
+    }
+
+    /**
+     * Returns the modification version - a counter incremented by every change to the
+     * inventory: adding or removing products and suppliers, and changing the quantity,
+     * price, threshold or expiry date of a product or the details of a supplier.
+     * Two equal readings mean nothing changed in between.
+     *
+     * @return the current modification version
+     */
+    public long getModificationVersion() {
+        return modificationVersion.sum();
+    }
+
+    /**
+     * Returns the operation metrics counted so far: calls and latency percentiles of
+     * product lookups, additions, removals and stock updates, and of report files, with
+     * the rows and bytes they wrote. Recording is always on and costs a few striped
+     * counter updates per call.
+     *
+     * @return a copy of the current metrics
+     */
+    public InventoryMetrics getMetrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Starts the operation metrics from zero again.
+     */
+    public void resetMetrics() {
+        metrics.reset();
     }
 
     public int getProductCount() {
-        return products.size();
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public int getSupplierCount() {
-        return suppliers.size();
+        lock.readLock().lock();
+        try {
+            return suppliers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -614,7 +2061,12 @@ public class InventoryManager {
      * @return an unmodifiable list of all products
      */
     public List<Product> getAllProducts() {
-        return List.copyOf(products);       // Defensive copy - immutable
+        lock.readLock().lock();
+        try {
+            return products.toList();       // Defensive copy - immutable
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -624,6 +2076,11 @@ public class InventoryManager {
      * @return an unmodifiable list of all suppliers
      */
     public List<Supplier> getAllSuppliers() {
-        return List.copyOf(suppliers);      // Defensive copy - immutable
+        lock.readLock().lock();
+        try {
+            return suppliers.toList();      // Defensive copy - immutable
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 }
\ No newline at end of file
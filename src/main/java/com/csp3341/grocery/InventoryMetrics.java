@@ -0,0 +1,244 @@
+/**
+ * This file defines the InventoryMetrics class for the grocery inventory management system.
+ * It is a read-only copy of an inventory's operation metrics - how often each operation
+ * ran, how long it took (as a latency histogram), and for report files how many rows
+ * and bytes were written - as returned by InventoryManager.getMetrics().
+ */
+
+package com.csp3341.grocery;
+
+import java.util.EnumMap;
+
+/**
+ * Operation metrics of an inventory at one moment, counted since it was created
+ * (or since the metrics were last reset).
+ * Latency percentiles come from a histogram with four buckets per power of two, so
+ * they are upper bounds at most 25% above the true value. Every call is counted, but
+ * operations that take well under a microsecond (see Operation.isSampled) only time
+ * a random sample of their calls, since reading the clock would cost about as much as
+ * the operation; their mean, percentiles and maximum describe the timed sample.
+ */
+public final class InventoryMetrics {
+    /**
+     * The operations that are measured.
+     */
+    public enum Operation {
+        FIND_PRODUCT("findProduct", true, false),
+        SEARCH_PRODUCTS("searchProducts", false, false),
+        ADD_PRODUCT("addProduct", false, false),
+        REMOVE_PRODUCT("removeProduct", false, false),
+        UPDATE_STOCK("updateStock", true, false),
+        ADJUST_STOCK("adjustStock", true, false),
+        DECREMENT_STOCK("tryDecrementStock", true, false),
+        STOCK_BATCH("stock batch", false, false),
+        LOW_STOCK_REPORT("low stock report", false, true),
+        EXPIRED_REPORT("expired products report", false, true),
+        CATEGORY_REPORT("category report", false, true),
+        COMPLETE_REPORT("complete report", false, true);
+
+        private final String displayName;
+        private final boolean sampled;
+        private final boolean report;
+
+        Operation(String displayName, boolean sampled, boolean report) {
+            this.displayName = displayName;
+            this.sampled = sampled;
+            this.report = report;
+        }
+
+        /**
+         * @return true for the fast operations, which only time a sample of their calls
+         */
+        public boolean isSampled() {
+            return sampled;
+        }
+
+        /**
+         * @return true for report files, which also count rows and bytes written
+         */
+        public boolean isReport() {
+            return report;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private final EnumMap<Operation, OperationStats> stats;
+
+    /**
+     * Constructor - created by MetricsRecorder.
+     */
+    InventoryMetrics(EnumMap<Operation, OperationStats> stats) {
+        this.stats = stats;
+    }
+
+    // Getters
+
+    /**
+     * @param operation the operation (must not be null)
+     * @return the operation's metrics
+     * @throws IllegalArgumentException if operation is null
+     */
+    public OperationStats getStats(Operation operation) {
+        if (operation == null) {
+            throw new IllegalArgumentException("Operation cannot be null");
+        }
+        return stats.get(operation);
+    }
+
+    // String Representation
+    /**
+     * Returns one line per operation that has run at least once.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (OperationStats operationStats : stats.values()) {
+            if (operationStats.getCount() > 0) {
+                text.append(operationStats).append(System.lineSeparator());
+            }
+        }
+        return text.length() > 0 ? text.toString() : "No operations recorded yet." + System.lineSeparator();
+    }
+
+    /**
+     * Metrics of one operation.
+     */
+    public static final class OperationStats {
+        private final Operation operation;
+        private final long count;
+        private final long timedCount;
+        private final long failures;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] bucketCounts;      // Latency histogram (see MetricsRecorder)
+        private final long rowsWritten;
+        private final long bytesWritten;
+
+        OperationStats(Operation operation, long count, long timedCount, long failures, long totalNanos,
+                       long maxNanos, long[] bucketCounts, long rowsWritten, long bytesWritten) {
+            this.operation = operation;
+            this.count = count;
+            this.timedCount = timedCount;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.bucketCounts = bucketCounts;
+            this.rowsWritten = rowsWritten;
+            this.bytesWritten = bytesWritten;
+        }
+
+        // Getters
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return number of calls measured, including failed ones
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return number of calls whose time was measured (all of them unless the operation is sampled)
+         */
+        public long getTimedCount() {
+            return timedCount;
+        }
+
+        /**
+         * @return number of calls that threw (for reports: files that could not be written)
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getMeanNanos() {
+            return timedCount == 0 ? 0 : (double) totalNanos / timedCount;
+        }
+
+        /**
+         * Estimates a latency percentile from the histogram.
+         *
+         * @param percentile between 0 and 100 (for example 99 for the 99th percentile)
+         * @return latency in nanoseconds that at least that share of calls took no longer than
+         * @throws IllegalArgumentException if percentile is out of range
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+
+            long histogramCount = 0;
+            for (long bucketCount : bucketCounts) {
+                histogramCount += bucketCount;
+            }
+            if (histogramCount == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * histogramCount));
+            long seen = 0;
+            for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+                seen += bucketCounts[bucket];
+                if (seen >= rank) {
+                    return Math.min(MetricsRecorder.bucketUpperBound(bucket), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        /**
+         * @return product and supplier rows written (reports only, 0 for other operations)
+         */
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        /**
+         * @return bytes written to report files (reports only, 0 for other operations)
+         */
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        // String Representation
+        /**
+         * Returns the metrics on one line.
+         * Format: "name: n calls | mean | p50 | p99 | max" with failures (if any), and for
+         * reports failures, rows and bytes
+         */
+        @Override
+        public String toString() {
+            String line = timedCount == 0
+                    ? String.format("%s: %d calls | none timed yet", operation, count)
+                    : String.format("%s: %d calls | mean %s | p50 %s | p99 %s | max %s",
+                            operation, count, formatNanos(getMeanNanos()), formatNanos(getPercentileNanos(50)),
+                            formatNanos(getPercentileNanos(99)), formatNanos(maxNanos));
+            if (operation.isReport()) {
+                line += String.format(" | %d failed | %d rows | %.1f KB", failures, rowsWritten, bytesWritten / 1024.0);
+            } else if (failures > 0) {
+                line += String.format(" | %d failed", failures);
+            }
+            return line;
+        }
+
+        private static String formatNanos(double nanos) {
+            if (nanos < 1_000_000) {
+                return String.format("%.1f us", nanos / 1_000);
+            }
+            if (nanos < 1_000_000_000) {
+                return String.format("%.1f ms", nanos / 1_000_000);
+            }
+            return String.format("%.2f s", nanos / 1_000_000_000);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * This file defines the InventorySnapshot class for the grocery inventory management system.
+ * It saves the full inventory (suppliers, products and ID counters) in a compact, versioned
+ * binary file, and loads it back through a memory-mapped file so that startup does not have
+ * to replay the whole mutation log or parse text.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * A point-in-time copy of an inventory, written to and read from a binary file.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   int    magic "GINV"
+ *   int    format version
+ *   long   mutation log position the snapshot is consistent with
+ *   int    next product ID, next supplier ID
+ *   int    supplier count, then per supplier: id, name, contact
+ *   int    product count, then per product:
+ *            byte type (1 = perishable, 2 = non-perishable), int id, string name,
+ *            double price, int quantity, byte category, int supplier ID,
+ *            int low stock threshold, then long expiry epoch day or string shelf life
+ *   int    CRC32C of everything before it
+ * </pre>
+ * Strings are an int byte length followed by UTF-8 bytes.
+ *
+ * The snapshot is written to a temporary file and renamed into place, so a crash while
+ * saving leaves the previous snapshot untouched.
+ */
+final class InventorySnapshot {
+    private static final int MAGIC = 0x47494E56;        // "GINV"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte PERISHABLE = 1;
+    private static final byte NON_PERISHABLE = 2;
+
+    // Size of the write buffer - large writes keep saving close to disk speed
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    // Values captured from the inventory
+    private final List<Supplier> suppliers;
+    private final List<Product> products;
+    private final int nextProductId;
+    private final int nextSupplierId;
+    private final long logPosition;
+
+    // Write state
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private CRC32C checksum;
+
+    /**
+     * Constructor - called by InventoryManager while it holds its read lock, so the
+     * lists and the log position describe the same moment.
+     *
+     * Product field values are read later, while writing. Any change made in between has
+     * its own record after logPosition, and replaying those records sets the same values
+     * again, so the snapshot plus the rest of the log always gives the current state.
+     */
+    InventorySnapshot(List<Supplier> suppliers, List<Product> products,
+                      int nextProductId, int nextSupplierId, long logPosition) {
+        this.suppliers = suppliers;
+        this.products = products;
+        this.nextProductId = nextProductId;
+        this.nextSupplierId = nextSupplierId;
+        this.logPosition = logPosition;
+    }
+
+    // Saving
+
+    /**
+     * Writes the snapshot to a file, replacing any previous snapshot atomically.
+     *
+     * @param path the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    void writeTo(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel = out;
+            buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            checksum = new CRC32C();
+
+            writeContents();
+
+            // Checksum covers every byte before it
+            flushBuffer();
+            buffer.putInt((int) checksum.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        } finally {
+            channel = null;
+            buffer = null;
+        }
+
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeContents() throws IOException {
+        ensureRoom(4 + 4 + 8 + 4 + 4 + 4);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putLong(logPosition);
+        buffer.putInt(nextProductId);
+        buffer.putInt(nextSupplierId);
+
+        buffer.putInt(suppliers.size());
+        for (Supplier supplier : suppliers) {
+            ensureRoom(4);
+            buffer.putInt(supplier.getSupplierId());
+            putString(supplier.getSupplierName());
+            putString(supplier.getContact());
+        }
+
+        ensureRoom(4);
+        buffer.putInt(products.size());
+        for (Product product : products) {
+            boolean perishable = product instanceof Perishable;
+
+            ensureRoom(1 + 4);
+            buffer.put(perishable ? PERISHABLE : NON_PERISHABLE);
+            buffer.putInt(product.getId());
+            putString(product.getName());
+
+            ensureRoom(8 + 4 + 1 + 4 + 4 + 8);
+            buffer.putDouble(product.getPrice());
+            buffer.putInt(product.getQuantity());
+            buffer.put((byte) product.getCategory().ordinal());
+            buffer.putInt(product.getSupplier().getSupplierId());
+            buffer.putInt(product.getLowStockThreshold());
+
+            if (perishable) {
+                buffer.putLong(((Perishable) product).getExpiryEpochDay());
+            } else {
+                putString(((NonPerishable) product).getShelfLife());
+            }
+        }
+    }
+
+    // Loading
+
+    /**
+     * Loads a snapshot into an empty inventory.
+     * The file is memory-mapped and checked against its checksum before anything is added.
+     *
+     * @param path the snapshot file
+     * @param manager the inventory to fill (normally empty, with no log attached)
+     * @return the mutation log position to replay from
+     * @throws IOException if the file cannot be read, is corrupt, or has an unknown version
+     */
+    static long loadInto(Path path, InventoryManager manager) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to map: " + size + " bytes");
+            }
+            if (size < 4 + 4 + 8 + 4 + 4 + 4 + 4 + 4) {
+                throw new IOException("Snapshot is truncated");
+            }
+
+            ByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            // Verify the whole file before changing the inventory
+            int contentLength = (int) size - 4;
+            CRC32C crc = new CRC32C();
+            crc.update(data.slice(0, contentLength));
+            if ((int) crc.getValue() != data.getInt(contentLength)) {
+                throw new IOException("Snapshot checksum does not match - file is corrupt");
+            }
+            data.limit(contentLength);
+
+            try {
+                return readContents(data, manager);
+            } catch (RuntimeException e) {
+                // Checksum passed but the contents are inconsistent (e.g. written by a buggy version)
+                throw new IOException("Snapshot contents are invalid: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static long readContents(ByteBuffer data, InventoryManager manager) throws IOException {
+        if (data.getInt() != MAGIC) {
+            throw new IOException("Not an inventory snapshot");
+        }
+        int version = data.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        long logPosition = data.getLong();
+        int nextProductId = data.getInt();
+        int nextSupplierId = data.getInt();
+
+        try (InventoryManager.BulkLoad load = manager.beginBulkLoad()) {
+            int supplierCount = data.getInt();
+            IntHashMap<Supplier> suppliersById = new IntHashMap<>(supplierCount);
+            for (int i = 0; i < supplierCount; i++) {
+                Supplier supplier = new Supplier(data.getInt(), getString(data), getString(data));
+                suppliersById.put(supplier.getSupplierId(), supplier);
+                manager.registerSupplier(supplier);
+                load.loaded();
+            }
+
+            int productCount = data.getInt();
+            Category[] categories = Category.values();
+            manager.ensureProductCapacity(productCount);
+
+            for (int i = 0; i < productCount; i++) {
+                byte type = data.get();
+                int id = data.getInt();
+                String name = getString(data);
+                double price = data.getDouble();
+                int quantity = data.getInt();
+                Category category = categories[data.get()];
+                int supplierId = data.getInt();
+                int threshold = data.getInt();
+
+                Supplier supplier = suppliersById.get(supplierId);
+                if (supplier == null) {
+                    throw new IOException("Product " + id + " references unknown supplier " + supplierId);
+                }
+
+                Product product = switch (type) {
+                    case PERISHABLE -> new Perishable(id, name, price, quantity, category, supplier,
+                            data.getLong());
+                    case NON_PERISHABLE -> new NonPerishable(id, name, price, quantity, category, supplier,
+                            getString(data));
+                    default -> throw new IOException("Unknown product type " + type + " for product " + id);
+                };
+                product.setLowStockThreshold(threshold);
+                manager.registerProduct(product);
+                load.loaded();
+            }
+        }
+
+        if (data.hasRemaining()) {
+            throw new IOException("Unexpected data after the last product");
+        }
+
+        manager.restoreIdCounters(nextProductId, nextSupplierId);
+        return logPosition;
+    }
+
+    // Private Helpers
+
+    /**
+     * Makes sure the write buffer has room for the given number of bytes, flushing it if not.
+     */
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the file and adds them to the checksum.
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes a string, splitting it across buffer flushes if it is very long.
+     */
+    private void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(4);
+        buffer.putInt(bytes.length);
+
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    private static String getString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getInt()];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
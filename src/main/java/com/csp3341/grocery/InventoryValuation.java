@@ -0,0 +1,119 @@
+/**
+ * This file defines the InventoryValuation class for the grocery inventory management system.
+ * It is a read-only copy of an inventory's running stock totals - number of products,
+ * units in stock and stock value - overall, per category and per supplier, as returned
+ * by InventoryManager.getValuation() and shown in the complete report summary.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Stock totals of an inventory at one moment.
+ * Values are in LKR, counted to the cent: each product's price times quantity is rounded
+ * to the nearest cent before being added up.
+ */
+public final class InventoryValuation {
+    private final Totals overall;
+    private final EnumMap<Category, Totals> byCategory;
+    private final Map<Integer, Totals> bySupplier;
+
+    /**
+     * Constructor - created by StockValuation from its running totals, or from the
+     * products a report captured.
+     */
+    InventoryValuation(Totals overall, EnumMap<Category, Totals> byCategory, Map<Integer, Totals> bySupplier) {
+        this.overall = overall;
+        this.byCategory = byCategory;
+        this.bySupplier = bySupplier;
+    }
+
+    // Getters
+
+    /**
+     * @return totals over every product in the inventory
+     */
+    public Totals getOverall() {
+        return overall;
+    }
+
+    /**
+     * @param category the category (must not be null)
+     * @return totals over the category's products (all zero if it has none)
+     * @throws IllegalArgumentException if category is null
+     */
+    public Totals getCategoryTotals(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category cannot be null");
+        }
+        return byCategory.get(category);
+    }
+
+    /**
+     * @param supplierId the supplier ID
+     * @return totals over the products from this supplier (all zero if there are none)
+     */
+    public Totals getSupplierTotals(int supplierId) {
+        return bySupplier.getOrDefault(supplierId, Totals.NONE);
+    }
+
+    /**
+     * @return totals per supplier ID, for every supplier with at least one product
+     */
+    public Map<Integer, Totals> getSupplierTotals() {
+        return Collections.unmodifiableMap(bySupplier);
+    }
+
+    /**
+     * Totals for one group of products.
+     */
+    public static final class Totals {
+        static final Totals NONE = new Totals(0, 0, 0);
+
+        private final int productCount;
+        private final long totalUnits;
+        private final long valueInCents;
+
+        Totals(int productCount, long totalUnits, long valueInCents) {
+            this.productCount = productCount;
+            this.totalUnits = totalUnits;
+            this.valueInCents = valueInCents;
+        }
+
+        // Getters
+        public int getProductCount() {
+            return productCount;
+        }
+
+        public long getTotalUnits() {
+            return totalUnits;
+        }
+
+        /**
+         * @return stock value in LKR
+         */
+        public double getTotalValue() {
+            return valueInCents / 100.0;
+        }
+
+        /**
+         * @return stock value in cents (exact)
+         */
+        public long getValueInCents() {
+            return valueInCents;
+        }
+
+        // String Representation
+        /**
+         * Returns the totals on one line.
+         * Format: "n products | n units | LKR value"
+         */
+        @Override
+        public String toString() {
+            return String.format("%d products | %d units | LKR %.2f", productCount, totalUnits, getTotalValue());
+        }
+    }
+}
@@ -8,8 +8,15 @@
 
 package com.csp3341.grocery;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Console interface for the Grocery Inventory Manager.
@@ -19,8 +26,23 @@ public class Main {
     // Shared Scanner for reading user input from console
     private static final Scanner scanner = new Scanner(System.in);
 
+    // Log file the inventory is saved to and rebuilt from at startup
+    private static final String INVENTORY_LOG_FILE = "inventory.wal";
+
+    // Snapshot saved on exit so the next startup only replays newer log records
+    private static final String INVENTORY_SNAPSHOT_FILE = "inventory.snapshot";
+
     // Core inventory manager instance - handles all business logic
-    private static final InventoryManager manager = new InventoryManager();
+    private static final InventoryManager manager = openInventory();
+
+    // Writes report files in the background so the menu stays responsive
+    private static final ReportService reportService = new ReportService(manager);
+
+    // Maximum rejected rows (and warnings) shown after a catalogue import
+    private static final int MAX_REJECTED_ROWS_SHOWN = 10;
+
+    // Maximum products shown for a name search
+    private static final int MAX_SEARCH_RESULTS = 20;
 
     /**
      * Enumeration of report types for type-safe report generation.
@@ -42,22 +64,48 @@ public class Main {
     public static void main(String[] args) {
         displayWelcomeMessage();
 
+        // Let large queries and reports use the other cores (no effect on small inventories)
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            manager.setQueryPool(ForkJoinPool.commonPool());
+        }
+
         // Main application loop - runs until user chooses to exit
         while (true) {
             displayMainMenu();
             int choice = readInt("Enter your choice: ");
 
             // Process user's main menu choice
-            switch (choice) {
-                case 1 -> manageProducts();
-                case 2 -> manageSuppliers();
-                case 3 -> inventoryReports();
-                case 4 -> exitApplication();
-                default -> System.out.println("Error! Invalid choice. Please try again.");
+            try {
+                switch (choice) {
+                    case 1 -> manageProducts();
+                    case 2 -> manageSuppliers();
+                    case 3 -> inventoryReports();
+                    case 4 -> importCatalogue();
+                    case 5 -> exitApplication();
+                    default -> System.out.println("Error! Invalid choice. Please try again.");
+                }
+            } catch (IllegalStateException | UncheckedIOException e) {
+                // The inventory log could not be written (e.g. the disk is full)
+                reportLogFailure(e);
             }
         }
     }
 
+    /**
+     * Explains a failed inventory log write. The inventory stays usable for lookups and
+     * reports, but refuses every further change, so the user can still exit cleanly.
+     *
+     * @param e the failure, as thrown by the inventory
+     */
+    private static void reportLogFailure(RuntimeException e) {
+        System.out.printf("Error! %s%n", e.getMessage());
+        if (e instanceof UncheckedIOException && e.getCause() != null) {
+            System.out.printf("Cause: %s%n", e.getCause().getMessage());
+        }
+        System.out.println("The inventory is now read-only: changes can no longer be saved.");
+        System.out.println("Exit, fix the problem (for example free some disk space) and restart to make changes.");
+    }
+
     /**
      * Displays the welcome banner when application starts.
      */
@@ -75,7 +123,8 @@ public class Main {
         System.out.println("1. Manage Products");
         System.out.println("2. Manage Suppliers");
         System.out.println("3. Inventory Reports");
-        System.out.println("4. Exit");
+        System.out.println("4. Import Catalogue from CSV");
+        System.out.println("5. Exit");
     }
 
     /**
@@ -83,11 +132,91 @@ public class Main {
      * Closes resources and displays exit message.
      */
     private static void exitApplication() {
+        // Let report files that are still being written finish first
+        int runningReports = reportService.countRunningJobs();
+        if (runningReports > 0) {
+            System.out.printf("Waiting for %d report job(s) to finish...%n", runningReports);
+        }
+        reportService.close();
+
+        // An inventory that could not be opened from its files leaves them untouched
+        if (manager.isPersistent()) {
+            try {
+                manager.saveSnapshotAsync(Path.of(INVENTORY_SNAPSHOT_FILE)).join();
+            } catch (CompletionException e) {
+                // Not fatal - the log alone can still rebuild the inventory
+                System.out.printf("Error saving inventory snapshot '%s': %s%n",
+                        INVENTORY_SNAPSHOT_FILE, e.getCause().getMessage());
+            }
+            try {
+                manager.close();        // Sync any outstanding changes to the inventory log
+            } catch (IOException e) {
+                System.out.printf("Error saving inventory log '%s': %s%n", INVENTORY_LOG_FILE, e.getMessage());
+            }
+        } else {
+            System.out.println("Changes made in this session were not saved.");
+        }
         System.out.println("\nExiting... Thank you for using Grocery Inventory Manager!");
         scanner.close();            // Close scanner to prevent resource leak
         System.exit(0);       // Terminate JVM with status code 0 (success)
     }
 
+    /**
+     * Rebuilds the inventory from its snapshot and log files.
+     * Falls back to an empty in-memory inventory if they cannot be opened. That inventory
+     * has no log, so nothing is written to either file and they can still be repaired.
+     */
+    private static InventoryManager openInventory() {
+        try {
+            return InventoryManager.open(Path.of(INVENTORY_LOG_FILE), Path.of(INVENTORY_SNAPSHOT_FILE));
+        } catch (IOException | RuntimeException e) {
+            System.out.printf("Error opening inventory files '%s' and '%s': %s%n",
+                    INVENTORY_SNAPSHOT_FILE, INVENTORY_LOG_FILE, e.getMessage());
+            System.out.printf("Continuing with an empty inventory - changes will not be saved, "
+                    + "and '%s' and '%s' are left untouched.%n", INVENTORY_SNAPSHOT_FILE, INVENTORY_LOG_FILE);
+            return new InventoryManager();
+        }
+    }
+
+    // Catalogue Import
+
+    /**
+     * Imports suppliers and products in bulk from a CSV file.
+     * Shows a summary and the first few rejected rows instead of a line per item.
+     */
+    private static void importCatalogue() {
+        System.out.println("\nIMPORT CATALOGUE:");
+        System.out.println("Rows: SUPPLIER,id,name,contact");
+        System.out.println("      PERISHABLE,id,name,price,quantity,category,supplierId,expiryDate[,threshold]");
+        System.out.println("      NON_PERISHABLE,id,name,price,quantity,category,supplierId,shelfLife[,threshold]");
+
+        String filename = readString("Enter CSV filename: ");
+
+        try {
+            ImportResult result = new CatalogueImporter(manager).importFile(Path.of(filename));
+            System.out.println("Import complete. " + result);
+
+            // Show the first few rejected rows so the file can be fixed
+            List<ImportResult.RejectedRow> rejectedRows = result.getRejectedRows();
+            rejectedRows.stream()
+                    .limit(MAX_REJECTED_ROWS_SHOWN)
+                    .forEach(row -> System.out.println("  " + row));
+            if (rejectedRows.size() > MAX_REJECTED_ROWS_SHOWN) {
+                System.out.printf("  ... and %d more rejected rows%n", rejectedRows.size() - MAX_REJECTED_ROWS_SHOWN);
+            }
+
+            // Then the first few warnings (e.g. products already past their expiry date)
+            result.getWarnings().stream()
+                    .limit(MAX_REJECTED_ROWS_SHOWN)
+                    .forEach(warning -> System.out.println("  Warning: " + warning));
+            if (result.getWarningCount() > MAX_REJECTED_ROWS_SHOWN) {
+                System.out.printf("  ... and %d more warnings%n", result.getWarningCount() - MAX_REJECTED_ROWS_SHOWN);
+            }
+        } catch (IOException | InvalidPathException e) {
+            System.out.printf("Error reading file '%s': %s%n", filename, e.getMessage());
+        }
+    }
+
     // Product Management
 
     /**
@@ -98,26 +227,30 @@ public class Main {
         while (true) {
             System.out.println("\nMANAGE PRODUCTS:");
             System.out.println("1. View All Products");
-            System.out.println("2. View Expired Products");
-            System.out.println("3. View Low Stock Products");
-            System.out.println("4. View Products by Category");
-            System.out.println("5. Add Product");
-            System.out.println("6. Update Product Stock");
-            System.out.println("7. Remove Product");
-            System.out.println("8. Return to Main Menu");
+            System.out.println("2. Search Products by Name");
+            System.out.println("3. View Expired Products");
+            System.out.println("4. View Low Stock Products");
+            System.out.println("5. View Products by Category");
+            System.out.println("6. View Products Expiring Soon");
+            System.out.println("7. Add Product");
+            System.out.println("8. Update Product Stock");
+            System.out.println("9. Remove Product");
+            System.out.println("10. Return to Main Menu");
 
             int choice = readInt("Enter choice: ");
 
             // Process product menu choice
             switch (choice) {
                 case 1 -> manager.listAllProducts();
-                case 2 -> manager.listExpiredProducts();
-                case 3 -> manager.listLowStockProducts();
-                case 4 -> filterProductsByCategory();
-                case 5 -> addProduct();
-                case 6 -> updateProductStock();
-                case 7 -> removeProduct();
-                case 8 -> {
+                case 2 -> searchProducts();
+                case 3 -> manager.listExpiredProducts();
+                case 4 -> manager.listLowStockProducts();
+                case 5 -> filterProductsByCategory();
+                case 6 -> viewExpiringProducts();
+                case 7 -> addProduct();
+                case 8 -> updateProductStock();
+                case 9 -> removeProduct();
+                case 10 -> {
                     System.out.println("Returning to Main Menu...");
                     return;     // Exit this menu, return to main menu
                 }
@@ -272,6 +405,34 @@ public class Main {
         manager.listProductsByCategory(category);
     }
 
+    /**
+     * Searches products by name and displays the best matches.
+     */
+    private static void searchProducts() {
+        String query = readString("Enter product name (or part of it): ");
+
+        if (query.isEmpty()) {
+            System.out.println("Error! Search text cannot be empty.");
+            return;
+        }
+
+        manager.listSearchResults(query, MAX_SEARCH_RESULTS);
+    }
+
+    /**
+     * Displays perishable products expiring within a user-selected number of days.
+     */
+    private static void viewExpiringProducts() {
+        int days = readInt("Show products expiring within how many days? ");
+
+        if (days < 0) {
+            System.out.println("Error! Number of days cannot be negative.");
+            return;
+        }
+
+        manager.listExpiringProducts(days);
+    }
+
     // Supplier Management
 
     /**
@@ -282,16 +443,18 @@ public class Main {
             System.out.println("\nMANAGE SUPPLIERS:");
             System.out.println("1. Add Supplier");
             System.out.println("2. List Suppliers");
-            System.out.println("3. Remove Supplier");
-            System.out.println("4. Return to Main Menu");
+            System.out.println("3. View Products by Supplier");
+            System.out.println("4. Remove Supplier");
+            System.out.println("5. Return to Main Menu");
 
             int choice = readInt("Enter choice: ");
 
             switch (choice) {
                 case 1 -> addSupplier();
                 case 2 -> manager.listAllSuppliers();
-                case 3 -> removeSupplier();
-                case 4 -> {
+                case 3 -> viewProductsBySupplier();
+                case 4 -> removeSupplier();
+                case 5 -> {
                     System.out.println("Returning to Main Menu...");
                     return;
                 }
@@ -383,6 +546,21 @@ public class Main {
         }
     }
 
+    /**
+     * Displays all products supplied by a selected supplier.
+     */
+    private static void viewProductsBySupplier() {
+        System.out.println("\nVIEW PRODUCTS BY SUPPLIER:");
+        manager.listAllSuppliers();         // Show suppliers for selection
+
+        if (!manager.hasSuppliers()) {
+            return;
+        }
+
+        int supplierId = readInt("Enter the Supplier ID: ");
+        manager.listProductsBySupplier(supplierId);     // Delegate to InventoryManager
+    }
+
     /**
      * Removes a supplier from the system.
      * Note: Supplier can only be removed if no products reference it.
@@ -412,7 +590,9 @@ public class Main {
             System.out.println("2. Expired Products Report");
             System.out.println("3. Category Report");
             System.out.println("4. Complete Inventory Report");
-            System.out.println("5. Return to Main Menu");
+            System.out.println("5. Report Jobs (status / cancel)");
+            System.out.println("6. Operation Metrics");
+            System.out.println("7. Return to Main Menu");
 
             int choice = readInt("Enter choice: ");
 
@@ -421,7 +601,9 @@ public class Main {
                 case 2 -> generateExpiredProductsReport();
                 case 3 -> generateCategoryReport();
                 case 4 -> generateCompleteInventoryReport();
-                case 5 -> {
+                case 5 -> viewReportJobs();
+                case 6 -> viewMetrics();
+                case 7 -> {
                     System.out.println("Returning to Main Menu...");
                     return;
                 }
@@ -502,7 +684,49 @@ public class Main {
     }
 
     /**
-     * Asks user if they want to save a report to file, and handles the save process.
+     * Shows every report job started in this session, and offers to cancel one that is still running.
+     */
+    private static void viewReportJobs() {
+        System.out.println("\nREPORT JOBS:");
+        List<ReportJob> jobs = reportService.getJobs();
+        if (jobs.isEmpty()) {
+            System.out.println("No report jobs have been started.");
+            return;
+        }
+        jobs.forEach(System.out::println);
+
+        if (reportService.countRunningJobs() == 0) {
+            return;         // Nothing left to cancel
+        }
+
+        int jobId = readInt("Enter a job ID to cancel (0 to go back): ");
+        if (jobId == 0) {
+            return;
+        }
+        if (reportService.cancel(jobId)) {
+            System.out.printf("Report job #%d cancelled.%n", jobId);
+        } else {
+            System.out.printf("Report job #%d is not running!%n", jobId);
+        }
+    }
+
+    /**
+     * Displays how often the main inventory operations have run and how long they took,
+     * including report files written in the background.
+     */
+    private static void viewMetrics() {
+        System.out.println("\nOPERATION METRICS:");
+        System.out.print(manager.getMetrics());
+
+        if (askYesNo("Reset the metrics? (yes/no): ")) {
+            manager.resetMetrics();
+            System.out.println("Metrics reset.");
+        }
+    }
+
+    /**
+     * Asks user if they want to save a report to file, and starts writing it in the background.
+     * The menu is available again straight away; progress is shown under Report Jobs.
      *
      * @param defaultFilename suggested filename for the report
      * @param reportType type of report being saved
@@ -524,19 +748,21 @@ public class Main {
             filename = defaultFilename;
         }
 
-        // Call appropriate save method based on report type
-        switch (reportType) {
-            case LOW_STOCK -> manager.saveLowStockReportToFile(filename);
-            case EXPIRED_PRODUCTS -> manager.saveExpiredProductsReportToFile(filename);
-            case CATEGORY -> manager.saveCategoryReportToFile(filename, category);
+        // Start the appropriate report job based on report type
+        ReportJob job = switch (reportType) {
+            case LOW_STOCK -> reportService.submitLowStockReport(filename);
+            case EXPIRED_PRODUCTS -> reportService.submitExpiredProductsReport(filename);
+            case CATEGORY -> reportService.submitCategoryReport(filename, category);
             case COMPLETE_INVENTORY -> {
                 // Ask additional question for complete report
                 boolean includeSuppliers = askYesNo("Include supplier details in the report? (yes/no): ");
-                manager.saveCompleteReportToFile(filename, includeSuppliers);
+                yield reportService.submitCompleteReport(filename, includeSuppliers);
             }
-        }
+        };
 
-        System.out.println("Report saved to: " + filename);
+        System.out.printf("Report job #%d started - %s is being written in the background.%n",
+                job.getId(), filename);
+        System.out.println("Check its progress under Inventory Reports > Report Jobs.");
     }
 
     // Helper Methods
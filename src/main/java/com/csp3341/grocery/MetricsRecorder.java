@@ -0,0 +1,190 @@
+/**
+ * This file defines the MetricsRecorder class for the grocery inventory management system.
+ * It counts how often InventoryManager's operations run and how long they take, with
+ * striped counters (LongAdder) so threads updating stock at the same time do not contend
+ * on shared counters, and cheap enough to stay switched on.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.EnumMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running operation metrics of one inventory.
+ * Recording a call costs a few uncontended LongAdder additions; the histogram bucket
+ * is found with a couple of bit operations, with no allocation. Reading the clock costs
+ * about as much as a product lookup, so sampled operations (see Operation.isSampled)
+ * read it for a random one in SAMPLE_INTERVAL calls and only count the others.
+ *
+ * Latencies go into a fixed log-linear histogram: values below 4 ns get a bucket each,
+ * and every power of two above that is split into four buckets, so a bucket's upper
+ * bound is at most 25% above any value in it (similar to an HDR histogram with two
+ * bits of precision). 248 buckets cover every possible long.
+ *
+ * Thread-safe.
+ */
+final class MetricsRecorder {
+    // Sub-buckets per power of two, as a number of bits
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    // Sampled operations time one call in this many (a power of two)
+    static final int SAMPLE_INTERVAL = 16;
+
+    // Start time of a call that is counted but not timed
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final EnumMap<InventoryMetrics.Operation, OperationCounters> counters =
+            new EnumMap<>(InventoryMetrics.Operation.class);
+
+    MetricsRecorder() {
+        for (InventoryMetrics.Operation operation : InventoryMetrics.Operation.values()) {
+            counters.put(operation, new OperationCounters());
+        }
+    }
+
+    /**
+     * Starts a call - returns the time to pass to record, or a marker if this call
+     * is not one of the sampled calls that get timed.
+     *
+     * @param operation the operation
+     * @return start time for record
+     */
+    long start(InventoryMetrics.Operation operation) {
+        if (operation.isSampled() && (ThreadLocalRandom.current().nextInt() & (SAMPLE_INTERVAL - 1)) != 0) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param operation the operation
+     * @param startNanos what start returned for the call
+     * @param succeeded false if the call threw (it still counts towards the latencies)
+     */
+    void record(InventoryMetrics.Operation operation, long startNanos, boolean succeeded) {
+        OperationCounters operationCounters = counters.get(operation);
+        operationCounters.record(startNanos);
+        if (!succeeded) {
+            operationCounters.failures.increment();
+        }
+    }
+
+    /**
+     * Records one report file written successfully.
+     *
+     * @param operation the report
+     * @param startNanos what start returned for the report
+     * @param rows product and supplier rows in the report
+     * @param bytes size of the file
+     */
+    void recordReport(InventoryMetrics.Operation operation, long startNanos, long rows, long bytes) {
+        OperationCounters operationCounters = counters.get(operation);
+        operationCounters.record(startNanos);
+        operationCounters.rows.add(rows);
+        operationCounters.bytes.add(bytes);
+    }
+
+    /**
+     * Reads all metrics. Calls recorded meanwhile may be partly included.
+     */
+    InventoryMetrics snapshot() {
+        EnumMap<InventoryMetrics.Operation, InventoryMetrics.OperationStats> stats =
+                new EnumMap<>(InventoryMetrics.Operation.class);
+        counters.forEach((operation, operationCounters) -> stats.put(operation, operationCounters.read(operation)));
+        return new InventoryMetrics(stats);
+    }
+
+    /**
+     * Starts counting from zero again. Calls recorded meanwhile may be partly kept.
+     */
+    void reset() {
+        counters.values().forEach(OperationCounters::reset);
+    }
+
+    /**
+     * Histogram bucket for a latency: exact below 4 ns, then four buckets per power of two.
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);        // nanoTime never goes back, but be safe
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Largest latency that falls in a bucket (the inverse of bucketOf).
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        long upper = ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;     // Top bucket ends at Long.MAX_VALUE
+    }
+
+    /**
+     * Counters of one operation.
+     */
+    private static final class OperationCounters {
+        final LongAdder count = new LongAdder();
+        final LongAdder timedCount = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+        final LongAdder rows = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+
+        OperationCounters() {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                buckets[bucket] = new LongAdder();
+            }
+        }
+
+        void record(long startNanos) {
+            count.increment();
+            if (startNanos == NOT_TIMED) {
+                return;
+            }
+
+            long nanos = System.nanoTime() - startNanos;
+            timedCount.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets[bucketOf(nanos)].increment();
+        }
+
+        InventoryMetrics.OperationStats read(InventoryMetrics.Operation operation) {
+            long[] bucketCounts = new long[BUCKET_COUNT];
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                bucketCounts[bucket] = buckets[bucket].sum();
+            }
+            return new InventoryMetrics.OperationStats(operation, count.sum(), timedCount.sum(), failures.sum(),
+                    totalNanos.sum(), maxNanos.get(), bucketCounts, rows.sum(), bytes.sum());
+        }
+
+        void reset() {
+            count.reset();
+            timedCount.reset();
+            failures.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            rows.reset();
+            bytes.reset();
+        }
+    }
+}
@@ -0,0 +1,663 @@
+/**
+ * This file defines the MutationLog class for the grocery inventory management system.
+ * It is an append-only binary write-ahead log of every inventory change. Changes are
+ * buffered in memory and made durable with group commit: one thread writes and syncs
+ * everything appended so far, while other threads waiting for durability share that
+ * sync instead of each paying for their own. On startup the log is replayed to rebuild
+ * the inventory.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of inventory mutations.
+ *
+ * Record layout (big-endian):
+ * <pre>
+ *   int    payload length (type byte + fields)
+ *   int    CRC32C of the payload
+ *   byte   record type
+ *   ...    record fields (strings are an int byte length followed by UTF-8 bytes)
+ * </pre>
+ * A record whose length or checksum does not match marks a torn write from a crash;
+ * replay stops there and the log is truncated back to the last complete record.
+ *
+ * Thread-safe. Appends are ordered by an internal lock; sync() blocks until every
+ * record appended before the call is on disk.
+ */
+public final class MutationLog implements Closeable {
+    // Record types
+    private static final byte ADD_SUPPLIER = 1;
+    private static final byte REMOVE_SUPPLIER = 2;
+    private static final byte ADD_PERISHABLE = 3;
+    private static final byte ADD_NON_PERISHABLE = 4;
+    private static final byte REMOVE_PRODUCT = 5;
+    private static final byte SET_QUANTITY = 6;
+    private static final byte SET_PRICE = 7;
+    private static final byte SET_LOW_STOCK_THRESHOLD = 8;
+    private static final byte SET_EXPIRY_DATE = 9;
+    private static final byte SET_SHELF_LIFE = 10;
+    private static final byte SET_SUPPLIER = 11;
+
+    // Bytes before the payload: length + checksum
+    private static final int HEADER_SIZE = 8;
+
+    // Initial size of each in-memory append buffer (grows if a burst needs more)
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    // Most of the log mapped at once during replay (one mapping cannot exceed 2 GiB)
+    static final int REPLAY_WINDOW_SIZE = 1 << 28;
+
+    private final FileChannel channel;
+
+    // Guards every field below; released by the flushing thread during disk I/O
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition flushFinished = appendLock.newCondition();
+    private final CRC32C checksum = new CRC32C();
+
+    // Double buffering: appenders fill one buffer while a flushing thread writes the other
+    private ByteBuffer appendBuffer;
+    private ByteBuffer spareBuffer;
+    private int recordStart;                // Buffer offset of the record being written
+
+    private long appendedPosition;          // Log position after the last appended record
+    private long durablePosition;           // Log position known to be on disk
+    private boolean flushInProgress;        // True while one thread is writing and syncing
+    private boolean closed;
+
+    // Why a flush failed, if one did - the log then has a gap, so no further records are
+    // accepted (volatile so the inventory can check it without taking the lock)
+    private volatile IOException writeFailure;
+
+    /**
+     * Constructor - opens the log channel positioned at the end of valid data.
+     */
+    private MutationLog(FileChannel channel, long validLength) {
+        this.channel = channel;
+        this.appendBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        this.spareBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        this.appendedPosition = validLength;
+        this.durablePosition = validLength;
+    }
+
+    /**
+     * Opens (or creates) a log file, replays its records into the inventory,
+     * and returns the log ready for appending.
+     * A torn record at the end of the file (from a crash) is discarded.
+     *
+     * @param path the log file
+     * @param manager the inventory to rebuild (normally empty, with no log attached)
+     * @return the opened log
+     * @throws IOException if the file cannot be read or written
+     */
+    static MutationLog openAndReplay(Path path, InventoryManager manager) throws IOException {
+        return openAndReplay(path, manager, 0);
+    }
+
+    /**
+     * Opens (or creates) a log file and replays the records from a given position
+     * (for example, the position stored in a snapshot), then returns the log ready
+     * for appending.
+     *
+     * @param path the log file
+     * @param manager the inventory to apply records to
+     * @param fromPosition log position to start replaying from
+     * @return the opened log
+     * @throws IOException if the file cannot be read or written
+     */
+    static MutationLog openAndReplay(Path path, InventoryManager manager, long fromPosition) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validLength = replay(channel, manager, fromPosition);
+
+            // Drop any torn tail so new records follow the last complete one
+            if (validLength < channel.size()) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+            channel.position(validLength);
+            return new MutationLog(channel, validLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Appending
+
+    void logAddSupplier(Supplier supplier) {
+        byte[] name = utf8(supplier.getSupplierName());
+        byte[] contact = utf8(supplier.getContact());
+
+        appendLock.lock();
+        try {
+            ByteBuffer buffer = beginRecord(ADD_SUPPLIER, 4 + 4 + name.length + 4 + contact.length);
+            buffer.putInt(supplier.getSupplierId());
+            putBytes(buffer, name);
+            putBytes(buffer, contact);
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void logRemoveSupplier(int supplierId) {
+        appendLock.lock();
+        try {
+            beginRecord(REMOVE_SUPPLIER, 4).putInt(supplierId);
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void logAddProduct(Product product) {
+        byte[] name = utf8(product.getName());
+        byte[] shelfLife = product instanceof NonPerishable nonPerishable
+                ? utf8(nonPerishable.getShelfLife()) : null;
+
+        appendLock.lock();
+        try {
+            // Fixed fields: id, price, quantity, category, supplier, threshold
+            int fixedSize = 4 + 8 + 4 + 1 + 4 + 4;
+            ByteBuffer buffer;
+
+            if (product instanceof Perishable perishable) {
+                buffer = beginRecord(ADD_PERISHABLE, fixedSize + 4 + name.length + 8);
+                putProductFields(buffer, product, name);
+                buffer.putLong(perishable.getExpiryEpochDay());
+            } else {
+                buffer = beginRecord(ADD_NON_PERISHABLE, fixedSize + 4 + name.length + 4 + shelfLife.length);
+                putProductFields(buffer, product, name);
+                putBytes(buffer, shelfLife);
+            }
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void logRemoveProduct(int productId) {
+        appendLock.lock();
+        try {
+            beginRecord(REMOVE_PRODUCT, 4).putInt(productId);
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Logs a product's quantity.
+     * The value is read while holding the append lock, so when several threads change
+     * the same product the last record in the log always carries the latest quantity.
+     */
+    void logQuantity(Product product) {
+        appendLock.lock();
+        try {
+            beginRecord(SET_QUANTITY, 8).putInt(product.getId()).putInt(product.getQuantity());
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void logPrice(Product product) {
+        appendLock.lock();
+        try {
+            beginRecord(SET_PRICE, 12).putInt(product.getId()).putDouble(product.getPrice());
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void logLowStockThreshold(Product product) {
+        appendLock.lock();
+        try {
+            beginRecord(SET_LOW_STOCK_THRESHOLD, 8).putInt(product.getId()).putInt(product.getLowStockThreshold());
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    void logExpiryDate(Perishable perishable) {
+        appendLock.lock();
+        try {
+            beginRecord(SET_EXPIRY_DATE, 12).putInt(perishable.getId())
+                    .putLong(perishable.getExpiryEpochDay());
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Logs a non-perishable product's shelf life.
+     * The value is read while holding the append lock, like logQuantity.
+     */
+    void logShelfLife(NonPerishable nonPerishable) {
+        appendLock.lock();
+        try {
+            byte[] shelfLife = utf8(nonPerishable.getShelfLife());
+            ByteBuffer buffer = beginRecord(SET_SHELF_LIFE, 4 + 4 + shelfLife.length).putInt(nonPerishable.getId());
+            putBytes(buffer, shelfLife);
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Logs a supplier's name and contact details.
+     * The values are read while holding the append lock, like logQuantity.
+     */
+    void logSupplier(Supplier supplier) {
+        appendLock.lock();
+        try {
+            byte[] name = utf8(supplier.getSupplierName());
+            byte[] contact = utf8(supplier.getContact());
+            ByteBuffer buffer = beginRecord(SET_SUPPLIER, 4 + 4 + name.length + 4 + contact.length);
+            buffer.putInt(supplier.getSupplierId());
+            putBytes(buffer, name);
+            putBytes(buffer, contact);
+            endRecord();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Durability
+
+    /**
+     * Blocks until every record appended so far is on disk.
+     *
+     * Group commit: if no flush is running, the caller becomes the flushing thread and
+     * writes and syncs everything buffered so far (including records from other threads).
+     * Otherwise it waits for the running flush, and for the next one if that did not
+     * cover its records. Many concurrent mutations therefore share one sync.
+     *
+     * @throws IOException if writing or syncing the log fails
+     */
+    public void sync() throws IOException {
+        appendLock.lock();
+        try {
+            long target = appendedPosition;
+
+            while (durablePosition < target) {
+                if (writeFailure != null) {
+                    throw new IOException("Inventory log could not be written earlier", writeFailure);
+                }
+                ensureOpen();
+
+                if (flushInProgress) {
+                    awaitFlush();       // Another thread is syncing - its flush may cover us
+                    continue;
+                }
+
+                // Become the flushing thread for everything appended so far
+                flushInProgress = true;
+                ByteBuffer toWrite = appendBuffer;
+                appendBuffer = spareBuffer;
+                long flushTarget = appendedPosition;
+                boolean flushed = false;
+                IOException failure = null;
+
+                // Release the lock during disk I/O so other threads can keep appending
+                appendLock.unlock();
+                try {
+                    writeAndForce(toWrite);
+                    flushed = true;
+                } catch (IOException e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    appendLock.lock();
+                    toWrite.clear();
+                    spareBuffer = toWrite;
+                    flushInProgress = false;
+                    if (flushed) {
+                        durablePosition = flushTarget;
+                    } else {
+                        // A failed write leaves a gap - refuse further appends
+                        writeFailure = failure != null ? failure : new IOException("Inventory log write did not complete");
+                    }
+                    flushFinished.signalAll();
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * @return log position after the last appended record (the log length once synced)
+     */
+    public long getAppendedPosition() {
+        appendLock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Checks that records can still be appended, without taking the append lock.
+     * The inventory calls this before making a change, so that once a flush has failed
+     * changes are refused up front instead of being made in memory and then failing.
+     *
+     * @throws IllegalStateException if a flush has failed
+     */
+    void ensureWritable() {
+        IOException failure = writeFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Inventory log could not be written (" + failure.getMessage()
+                    + ") - the inventory is read-only", failure);
+        }
+    }
+
+    /**
+     * Syncs any remaining records and closes the file.
+     * Further appends fail with IllegalStateException.
+     *
+     * @throws IOException if the final sync or close fails (also if an earlier flush failed,
+     *                     in which case the file is still closed)
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+
+        try {
+            sync();
+        } finally {
+            appendLock.lock();
+            try {
+                closed = true;
+                flushFinished.signalAll();
+            } finally {
+                appendLock.unlock();
+            }
+            channel.close();
+        }
+    }
+
+    // Replay
+
+    /**
+     * Applies every complete record from the given position to the inventory.
+     * The log is mapped one window (at most REPLAY_WINDOW_SIZE bytes) at a time, each
+     * starting at a record boundary, so a log of any length can be replayed.
+     *
+     * @return position just after the last complete record
+     */
+    private static long replay(FileChannel channel, InventoryManager manager, long fromPosition) throws IOException {
+        long size = channel.size();
+        long position = Math.min(fromPosition, size);
+        CRC32C crc = new CRC32C();
+
+        try (InventoryManager.BulkLoad load = manager.beginBulkLoad()) {
+            while (size - position >= HEADER_SIZE) {
+                long windowSize = Math.min(REPLAY_WINDOW_SIZE, size - position);
+                ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+
+                // A record longer than a window gets a window of its own
+                long firstRecordSize = HEADER_SIZE + (long) Math.max(window.getInt(0), 0);
+                if (firstRecordSize > windowSize && firstRecordSize <= size - position) {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, firstRecordSize);
+                }
+
+                long windowEnd = position + window.limit();
+                int replayed = replayWindow(window, manager, load, crc);
+                position += replayed;
+
+                // Carry on only if the window ended in the middle of a record that looks intact
+                if (replayed == 0 || windowEnd == size || !continuesInNextWindow(window)) {
+                    break;          // End of the log, or a torn or damaged record
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Applies the complete records at the start of a window and leaves the window
+     * positioned at the first record it could not apply.
+     *
+     * @return number of bytes of complete records applied
+     */
+    private static int replayWindow(ByteBuffer window, InventoryManager manager, InventoryManager.BulkLoad load,
+                                    CRC32C crc) {
+        while (window.remaining() >= HEADER_SIZE) {
+            int start = window.position();
+            int payloadLength = window.getInt();
+            int expectedChecksum = window.getInt();
+
+            if (payloadLength <= 0 || payloadLength > window.remaining()) {
+                window.position(start);
+                break;          // Torn or garbage record, or one continuing in the next window
+            }
+
+            ByteBuffer payload = window.slice(window.position(), payloadLength);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expectedChecksum) {
+                window.position(start);
+                break;          // Partially written record
+            }
+
+            apply(payload, manager);
+            load.loaded();
+            window.position(window.position() + payloadLength);
+        }
+        return window.position();
+    }
+
+    /**
+     * @return true if replayWindow stopped only because the window ends inside the
+     *         next record (rather than at a damaged record)
+     */
+    private static boolean continuesInNextWindow(ByteBuffer window) {
+        if (window.remaining() < HEADER_SIZE) {
+            return true;        // Ends at, or inside, the next record's header
+        }
+        int payloadLength = window.getInt(window.position());
+        return payloadLength > 0 && payloadLength > window.remaining() - HEADER_SIZE;
+    }
+
+    /**
+     * Applies one record to the inventory.
+     * Records for products or suppliers that no longer exist are skipped.
+     */
+    private static void apply(ByteBuffer record, InventoryManager manager) {
+        byte type = record.get();
+
+        switch (type) {
+            case ADD_SUPPLIER -> manager.addSupplier(
+                    new Supplier(record.getInt(), getString(record), getString(record)));
+            case REMOVE_SUPPLIER -> manager.unregisterSupplier(record.getInt());
+            case ADD_PERISHABLE, ADD_NON_PERISHABLE -> {
+                int id = record.getInt();
+                String name = getString(record);
+                double price = record.getDouble();
+                int quantity = record.getInt();
+                Category category = Category.values()[record.get()];
+                int supplierId = record.getInt();
+                int threshold = record.getInt();
+
+                Supplier supplier = manager.findSupplier(supplierId).orElseThrow(
+                        () -> new IllegalStateException("Log references unknown supplier " + supplierId));
+
+                Product product = type == ADD_PERISHABLE
+                        ? new Perishable(id, name, price, quantity, category, supplier, record.getLong())
+                        : new NonPerishable(id, name, price, quantity, category, supplier, getString(record));
+                product.setLowStockThreshold(threshold);
+                manager.registerProduct(product);
+            }
+            case REMOVE_PRODUCT -> manager.unregisterProduct(record.getInt());
+            case SET_QUANTITY -> {
+                int id = record.getInt();
+                int quantity = record.getInt();
+                manager.findProduct(id).ifPresent(product -> product.setQuantity(quantity));
+            }
+            case SET_PRICE -> {
+                int id = record.getInt();
+                double price = record.getDouble();
+                manager.findProduct(id).ifPresent(product -> product.setPrice(price));
+            }
+            case SET_LOW_STOCK_THRESHOLD -> {
+                int id = record.getInt();
+                int threshold = record.getInt();
+                manager.findProduct(id).ifPresent(product -> product.setLowStockThreshold(threshold));
+            }
+            case SET_EXPIRY_DATE -> {
+                int id = record.getInt();
+                long expiryDay = record.getLong();
+                manager.findProduct(id).ifPresent(product -> {
+                    if (product instanceof Perishable perishable) {
+                        perishable.setExpiryDay(expiryDay);
+                    }
+                });
+            }
+            case SET_SHELF_LIFE -> {
+                int id = record.getInt();
+                String shelfLife = getString(record);
+                manager.findProduct(id).ifPresent(product -> {
+                    if (product instanceof NonPerishable nonPerishable) {
+                        nonPerishable.setShelfLife(shelfLife);
+                    }
+                });
+            }
+            case SET_SUPPLIER -> {
+                int id = record.getInt();
+                String name = getString(record);
+                String contact = getString(record);
+                manager.findSupplier(id).ifPresent(supplier -> {
+                    supplier.setSupplierName(name);
+                    supplier.setContact(contact);
+                });
+            }
+            default -> throw new IllegalStateException("Unknown log record type " + type);
+        }
+    }
+
+    // Private Helpers
+
+    /**
+     * Reserves room for a record and writes its header and type.
+     * Caller must hold appendLock and finish with endRecord().
+     *
+     * @param type record type
+     * @param fieldsSize size of the record fields (excluding header and type byte)
+     * @return the buffer positioned to receive the fields
+     */
+    private ByteBuffer beginRecord(byte type, int fieldsSize) {
+        ensureWritable();
+        ensureOpen();
+
+        int recordSize = HEADER_SIZE + 1 + fieldsSize;
+        if (appendBuffer.remaining() < recordSize) {
+            // Grow instead of blocking - the next flush writes everything at once
+            int newCapacity = Math.max(appendBuffer.capacity() * 2, appendBuffer.position() + recordSize);
+            ByteBuffer larger = ByteBuffer.allocate(newCapacity);
+            appendBuffer.flip();
+            larger.put(appendBuffer);
+            appendBuffer = larger;
+        }
+
+        recordStart = appendBuffer.position();
+        appendBuffer.putInt(1 + fieldsSize);       // Payload length
+        appendBuffer.putInt(0);                     // Checksum - filled in by endRecord
+        appendBuffer.put(type);
+        return appendBuffer;
+    }
+
+    /**
+     * Fills in the checksum of the record started by beginRecord and advances the log position.
+     */
+    private void endRecord() {
+        int payloadStart = recordStart + HEADER_SIZE;
+        int end = appendBuffer.position();
+
+        checksum.reset();
+        checksum.update(appendBuffer.slice(payloadStart, end - payloadStart));
+        appendBuffer.putInt(recordStart + 4, (int) checksum.getValue());
+
+        appendedPosition += end - recordStart;
+    }
+
+    /**
+     * Writes a buffer to the end of the log and syncs it to disk.
+     * Called by the flushing thread without holding appendLock.
+     */
+    private void writeAndForce(ByteBuffer toWrite) throws IOException {
+        toWrite.flip();
+        while (toWrite.hasRemaining()) {
+            channel.write(toWrite);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Waits for the running flush to finish. Caller must hold appendLock.
+     */
+    private void awaitFlush() throws IOException {
+        try {
+            flushFinished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for log sync", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Mutation log is closed");
+        }
+    }
+
+    private static void putProductFields(ByteBuffer buffer, Product product, byte[] name) {
+        buffer.putInt(product.getId());
+        putBytes(buffer, name);
+        buffer.putDouble(product.getPrice());
+        buffer.putInt(product.getQuantity());
+        buffer.put((byte) product.getCategory().ordinal());
+        buffer.putInt(product.getSupplier().getSupplierId());
+        buffer.putInt(product.getLowStockThreshold());
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
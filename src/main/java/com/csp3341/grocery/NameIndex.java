@@ -0,0 +1,394 @@
+/**
+ * This file defines the NameIndex class used by the grocery inventory system to find
+ * products by name. It keeps the distinct product names sorted (for prefix matches) with
+ * a case-folded trigram index over them (for matches inside a name), so a search reads
+ * only the names that can match instead of scanning every product.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Name search index, kept by InventoryManager.
+ * Products with the same (case-folded) name share one name entry. Entries are kept in
+ * name order, and the index also maps:
+ * - every trigram (three consecutive characters) of a name to the names containing it
+ * - the first one and two characters of every word to the names with such a word
+ *
+ * Matches are ranked: exact name, then names starting with the query, then names with a
+ * word starting with it, then names containing it anywhere; ties are ordered by name,
+ * then product ID. Names starting with the query are read in order from the sorted
+ * names (the exact name sorts first), which is often enough to fill the results. Only
+ * if it is not, a query of three or more characters reads the entries of its rarest
+ * trigram and checks each name really contains the query; shorter queries read the
+ * word-start entries and match only names with a word starting with the query.
+ *
+ * Keys are hashes of the characters, so two trigrams may share an entry list - harmless,
+ * since every candidate is checked against the query. Names are folded with
+ * Character.toLowerCase, so matching does not depend on the default locale.
+ *
+ * Removed names are only marked dead in the entry lists; once dead names outnumber live
+ * ones, the lists are rebuilt, so removal costs O(1) amortised.
+ *
+ * Not thread-safe: changes happen under the inventory's write lock, searches under its read lock.
+ */
+final class NameIndex {
+    // Shortest query matched anywhere in a name (shorter queries match word starts only)
+    static final int TRIGRAM_LENGTH = 3;
+
+    // Rebuilding is not worth it for a handful of dead names
+    private static final int MIN_DEAD_NAMES_TO_REBUILD = 1024;
+
+    // Match ranks, best first
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int NO_MATCH = -1;
+
+    private static final Comparator<Match> BEST_FIRST =
+            Comparator.<Match>comparingInt(match -> match.rank).thenComparing(match -> match.name.folded);
+
+    // Name entries by folded name (in name order), and by entry number (null once removed)
+    private final TreeMap<String, NameEntry> byName = new TreeMap<>();
+    private NameEntry[] entries = new NameEntry[16];
+    private int entryCount;
+    private int deadCount;
+
+    // Trigram and word-start keys -> entry numbers of the names containing them
+    private IntHashMap<Postings> postings = new IntHashMap<>();
+
+    /**
+     * Adds a product's name (caller holds the write lock).
+     */
+    void add(Product product) {
+        String folded = fold(product.getName());
+        NameEntry name = byName.get(folded);
+        if (name == null) {
+            name = new NameEntry(entryCount, folded);
+            byName.put(folded, name);
+            if (entryCount == entries.length) {
+                entries = Arrays.copyOf(entries, entryCount * 2);
+            }
+            entries[entryCount++] = name;
+            indexName(name);
+        }
+        name.add(product);
+    }
+
+    /**
+     * Removes a product's name (caller holds the write lock).
+     */
+    void remove(Product product) {
+        NameEntry name = byName.get(fold(product.getName()));
+        if (name == null || !name.remove(product)) {
+            return;
+        }
+
+        if (name.productCount == 0) {
+            // Last product with this name - leave the entry lists to the next rebuild
+            byName.remove(name.folded);
+            entries[name.number] = null;
+            deadCount++;
+            if (deadCount >= MIN_DEAD_NAMES_TO_REBUILD && deadCount > byName.size()) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Finds products whose name matches a query (caller holds the read or write lock).
+     *
+     * @param query the text to look for (case-insensitive, not blank)
+     * @param limit maximum number of products to return (positive)
+     * @return the best matches, best first
+     */
+    List<Product> search(String query, int limit) {
+        String folded = fold(query);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+
+        // Every name holds at least one product, so the best limit names hold the best limit products
+        List<NameEntry> ranked = new ArrayList<>(Math.min(limit, 64));
+        for (NameEntry name : byName.tailMap(folded, true).values()) {
+            if (ranked.size() == limit || !name.folded.startsWith(folded)) {
+                break;
+            }
+            ranked.add(name);       // Exact name or name prefix, already in order
+        }
+        if (ranked.size() < limit) {
+            ranked.addAll(bestInnerMatches(folded, limit - ranked.size()));
+        }
+
+        List<Product> found = new ArrayList<>(Math.min(limit, 64));
+        for (NameEntry name : ranked) {
+            for (Product product : name.productsById()) {
+                if (found.size() == limit) {
+                    return found;
+                }
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return number of distinct names indexed
+     */
+    int nameCount() {
+        return byName.size();
+    }
+
+    /**
+     * Folds a name or query for matching: trimmed and lower case.
+     */
+    static String fold(String text) {
+        String trimmed = text.trim();
+        StringBuilder folded = null;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            char lower = Character.toLowerCase(c);
+            if (lower != c && folded == null) {
+                folded = new StringBuilder(trimmed.length()).append(trimmed, 0, i);
+            }
+            if (folded != null) {
+                folded.append(lower);
+            }
+        }
+        return folded == null ? trimmed : folded.toString();      // No copy if already folded
+    }
+
+    // Helpers
+
+    /**
+     * Finds the best names that match a folded query other than at their start
+     * (word prefix, then anywhere inside), best first.
+     *
+     * @param limit maximum number of names to return
+     */
+    private List<NameEntry> bestInnerMatches(String folded, int limit) {
+        Postings candidates = rarestPostings(folded);
+        if (candidates == null) {
+            return List.of();
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.min(limit, 64), BEST_FIRST.reversed());
+        for (int i = 0; i < candidates.size; i++) {
+            NameEntry name = entries[candidates.numbers[i]];
+            if (name == null) {
+                continue;       // Removed, waiting for the next rebuild
+            }
+
+            int rank = rank(name.folded, folded);
+            if (rank < WORD_PREFIX || (rank == SUBSTRING && folded.length() < TRIGRAM_LENGTH)) {
+                continue;       // No match, already found as a name prefix, or too short to match inside a word
+            }
+
+            if (best.size() == limit) {
+                Match worst = best.peek();
+                if (rank > worst.rank || (rank == worst.rank && name.folded.compareTo(worst.name.folded) >= 0)) {
+                    continue;   // Cannot make the cut
+                }
+                best.poll();
+            }
+            best.add(new Match(name, rank));
+        }
+
+        Match[] ranked = best.toArray(new Match[0]);
+        Arrays.sort(ranked, BEST_FIRST);
+        List<NameEntry> names = new ArrayList<>(ranked.length);
+        for (Match match : ranked) {
+            names.add(match.name);
+        }
+        return names;
+    }
+
+    /**
+     * Entry list to read for a folded query: its rarest trigram, or its word-start key
+     * if it is shorter than a trigram. Null if some piece of the query is in no name.
+     */
+    private Postings rarestPostings(String folded) {
+        if (folded.length() < TRIGRAM_LENGTH) {
+            return postings.get(wordStartKey(folded, 0, folded.length()));
+        }
+
+        Postings rarest = null;
+        for (int i = 0; i + TRIGRAM_LENGTH <= folded.length(); i++) {
+            Postings trigram = postings.get(trigramKey(folded.charAt(i), folded.charAt(i + 1), folded.charAt(i + 2)));
+            if (trigram == null) {
+                return null;    // No name contains this piece, so none contains the query
+            }
+            if (rarest == null || trigram.size < rarest.size) {
+                rarest = trigram;
+            }
+        }
+        return rarest;
+    }
+
+    /**
+     * Adds a name to the entry list of every trigram and word start in it (each once).
+     */
+    private void indexName(NameEntry name) {
+        String folded = name.folded;
+        for (int i = 0; i < folded.length(); i++) {
+            if (i + TRIGRAM_LENGTH <= folded.length()) {
+                addPosting(trigramKey(folded.charAt(i), folded.charAt(i + 1), folded.charAt(i + 2)), name.number);
+            }
+            if (isWordStart(folded, i)) {
+                addPosting(wordStartKey(folded, i, 1), name.number);
+                if (i + 1 < folded.length()) {
+                    addPosting(wordStartKey(folded, i, 2), name.number);
+                }
+            }
+        }
+    }
+
+    private void addPosting(int key, int number) {
+        Postings list = postings.get(key);
+        if (list == null) {
+            list = new Postings();
+            postings.put(key, list);
+        }
+        list.addOnce(number);
+    }
+
+    /**
+     * Drops dead names: renumbers the live ones and rebuilds the entry lists.
+     */
+    private void rebuild() {
+        NameEntry[] live = new NameEntry[Math.max(16, byName.size() * 2)];
+        int liveCount = 0;
+        for (int i = 0; i < entryCount; i++) {
+            NameEntry name = entries[i];
+            if (name != null) {
+                name.number = liveCount;
+                live[liveCount++] = name;
+            }
+        }
+
+        entries = live;
+        entryCount = liveCount;
+        deadCount = 0;
+        postings = new IntHashMap<>();
+        for (int i = 0; i < entryCount; i++) {
+            indexName(entries[i]);
+        }
+    }
+
+    /**
+     * How well a folded name matches a folded query (see the class comment), or NO_MATCH.
+     */
+    private static int rank(String name, String query) {
+        int at = name.indexOf(query);
+        if (at < 0) {
+            return NO_MATCH;
+        }
+        if (at == 0) {
+            return name.length() == query.length() ? EXACT : NAME_PREFIX;
+        }
+
+        for (; at >= 0; at = name.indexOf(query, at + 1)) {
+            if (isWordStart(name, at)) {
+                return WORD_PREFIX;
+            }
+        }
+        return SUBSTRING;
+    }
+
+    private static boolean isWordStart(String text, int index) {
+        return Character.isLetterOrDigit(text.charAt(index))
+                && (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1)));
+    }
+
+    private static int trigramKey(char first, char second, char third) {
+        return (first * 31 + second) * 31 + third;
+    }
+
+    /**
+     * Key for the first one or two characters of a word - hashed as a trigram padded with
+     * NUL characters, which names never start a trigram with in practice.
+     */
+    private static int wordStartKey(String text, int start, int length) {
+        return length == 1
+                ? trigramKey('\0', '\0', text.charAt(start))
+                : trigramKey('\0', text.charAt(start), text.charAt(start + 1));
+    }
+
+    /**
+     * The products sharing one folded name.
+     */
+    private static final class NameEntry {
+        final String folded;
+        int number;                     // Position in entries (changes when rebuilt)
+        Product[] products = new Product[1];
+        int productCount;
+
+        NameEntry(int number, String folded) {
+            this.number = number;
+            this.folded = folded;
+        }
+
+        void add(Product product) {
+            if (productCount == products.length) {
+                products = Arrays.copyOf(products, productCount * 2);
+            }
+            products[productCount++] = product;
+        }
+
+        boolean remove(Product product) {
+            for (int i = 0; i < productCount; i++) {
+                if (products[i] == product) {
+                    products[i] = products[--productCount];
+                    products[productCount] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Product[] productsById() {
+            Product[] sorted = Arrays.copyOf(products, productCount);
+            Arrays.sort(sorted, Comparator.comparingInt(Product::getId));
+            return sorted;
+        }
+    }
+
+    /**
+     * Entry numbers of the names containing one key, in the order they were added.
+     */
+    private static final class Postings {
+        int[] numbers = new int[4];
+        int size;
+
+        void addOnce(int number) {
+            // A name adds its keys in one go, so a repeat can only be the last number added
+            if (size > 0 && numbers[size - 1] == number) {
+                return;
+            }
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = number;
+        }
+    }
+
+    /**
+     * A matching name and how well it matches.
+     */
+    private static final class Match {
+        final NameEntry name;
+        final int rank;
+
+        Match(NameEntry name, int rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+    }
+}
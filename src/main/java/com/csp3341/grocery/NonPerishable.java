@@ -7,11 +7,13 @@
 
 package com.csp3341.grocery;
 
+import java.time.LocalDate;
+
 /**
  * Represents a non-perishable product with shelf life information.
  */
 public class NonPerishable extends Product {
-    private String shelfLife;
+    private volatile String shelfLife;
 
     /**
      * Constructor for non-perishable products.
@@ -44,28 +46,34 @@ public class NonPerishable extends Product {
         if (shelfLife == null || shelfLife.trim().isEmpty()) {
             throw new IllegalArgumentException("Shelf life cannot be null or empty for non-perishable products");
         }
+        checkOwnerWritable();
         this.shelfLife = shelfLife.trim();
+
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.shelfLifeChanged(this);
+        }
     }
 
     // Overridden Methods
     /**
      * Non-perishable products never expire in this system.
-     * Always returns false regardless of shelf life.
+     * Always returns false regardless of shelf life or date.
      *
+     * @param asOf the date to check against (ignored)
      * @return false (non-perishable products don't expire)
      */
     @Override
-    public boolean isExpired() {
+    public boolean isExpired(LocalDate asOf) {
         return false;
     }
 
     /**
-     * Returns product info with shelf life appended.
-     *
-     * @return Formatted string: "[parent toString()] | Shelf Life: [shelfLife]"
+     * Appends shelf life to the product row.
+     * Row format: "[base product info] | Shelf Life: [shelfLife]"
      */
     @Override
-    public String toString() {
-        return super.toString() + " | Shelf Life: " + shelfLife;
+    protected void appendDetails(StringBuilder out, boolean expired) {
+        out.append(" | Shelf Life: ").append(shelfLife);
     }
 }
\ No newline at end of file
@@ -14,12 +14,29 @@ import java.time.format.DateTimeParseException;
 /**
  * Represents a perishable product with an expiry date.
  * Extends Product class with expiration date functionality.
+ *
+ * The date is stored as an epoch day (days since 1970-01-01, as LocalDate.toEpochDay),
+ * so a product carries no LocalDate object and expiry checks compare two numbers.
  */
 public class Perishable extends Product {
-    // ISO date format: YYYY-MM-DD (2026-02-04)
+    // ISO date format: YYYY-MM-DD (2026-02-04) - also accepts an offset, as it always has
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE;
 
-    private LocalDate expiryDate;
+    // Range of epoch days LocalDate can represent
+    private static final long MIN_EPOCH_DAY = LocalDate.MIN.toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.MAX.toEpochDay();
+
+    // Days from 0000-03-01 to 1970-01-01, and days in a 400 year cycle (proleptic Gregorian)
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final long DAYS_PER_CYCLE = 146_097;
+
+    // indexedExpiryDay value for a product not filed in any expiry index
+    static final long NOT_INDEXED = Long.MIN_VALUE;
+
+    private volatile long expiryDay;
+
+    // Day this product is filed under in its owner's expiry index (guarded by that index)
+    long indexedExpiryDay = NOT_INDEXED;
 
     /**
      * Constructor for perishable products.
@@ -35,14 +52,39 @@ public class Perishable extends Product {
         setExpiryDate(expiryDate);
     }
 
-    // Getter
+    /**
+     * Constructor for bulk loading with an already parsed expiry date.
+     * Skips the past-date console warning, which would flood the output on large imports.
+     *
+     * @param expiryDay expiry date as an epoch day (see LocalDate.toEpochDay)
+     */
+    Perishable(int id, String name, double price, int quantity,
+               Category category, Supplier supplier, long expiryDay) {
+        super(id, name, price, quantity, category, supplier);
+
+        this.expiryDay = checkEpochDay(expiryDay);
+    }
+
+    // Getters
+    /**
+     * Returns the expiry date. A new LocalDate is created from the stored epoch day,
+     * so code that only compares dates should prefer getExpiryEpochDay().
+     */
     public LocalDate getExpiryDate() {
-        return expiryDate;
+        return LocalDate.ofEpochDay(expiryDay);
+    }
+
+    /**
+     * @return the expiry date as an epoch day (days since 1970-01-01)
+     */
+    public long getExpiryEpochDay() {
+        return expiryDay;
     }
 
     // Setter
     /**
      * Sets expiry date with validation.
+     * Notifies the owning inventory so its expiry index stays in date order.
      *
      * @param expiryDate Must be valid YYYY-MM-DD format
      * @throws IllegalArgumentException for invalid or empty dates
@@ -55,14 +97,15 @@ public class Perishable extends Product {
 
         try {
             // Parse date from string
-            LocalDate parsedDate = LocalDate.parse(expiryDate.trim(), DATE_FORMATTER);
+            long parsedDay = parseExpiryDay(expiryDate.trim());
 
             // Warn if date is already past
-            if (parsedDate.isBefore(LocalDate.now())) {
-                System.out.println("Warning: Expiry date " + parsedDate + " is in the past. Product may be expired.");
+            if (parsedDay < currentDate().toEpochDay()) {
+                System.out.println("Warning: Expiry date " + LocalDate.ofEpochDay(parsedDay)
+                        + " is in the past. Product may be expired.");
             }
 
-            this.expiryDate = parsedDate;
+            setExpiryDay(parsedDay);
         } catch (DateTimeParseException e) {
             // Provide helpful error message for format issues
             throw new IllegalArgumentException(
@@ -70,36 +113,130 @@ public class Perishable extends Product {
         }
     }
 
+    /**
+     * Sets an already parsed expiry date without the past-date warning.
+     * Used when replaying the mutation log.
+     *
+     * @param expiryDay the new expiry date as an epoch day
+     */
+    void setExpiryDay(long expiryDay) {
+        long checkedDay = checkEpochDay(expiryDay);
+        checkOwnerWritable();
+        this.expiryDay = checkedDay;
+
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.expiryDateChanged(this);
+        }
+    }
+
     // Overridden Methods
     /**
-     * Checks if product is expired.
+     * Checks if product is expired on the given date.
      *
-     * @return true if expiry date exists and is before today
+     * @param asOf the date to check against (must not be null)
+     * @return true if the expiry date is before asOf
+     * @throws IllegalArgumentException if asOf is null
      */
     @Override
-    public boolean isExpired() {
-        return expiryDate != null && expiryDate.isBefore(LocalDate.now());
+    public boolean isExpired(LocalDate asOf) {
+        if (asOf == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        return expiryDay < asOf.toEpochDay();
     }
 
     /**
-     * Returns string with product info + expiry details.
+     * Appends expiry details to the product row.
      * Formats expired products differently.
      */
     @Override
-    public String toString() {
-        // Get parent's formatted string
-        String baseString = super.toString();
-
-        String expiryInfo;
-
-        if (isExpired()) {
+    protected void appendDetails(StringBuilder out, boolean expired) {
+        if (expired) {
             // Show as expired with date
-            expiryInfo = " [Expired " + expiryDate + "]";
+            out.append(" [Expired ");
+            RowFormat.appendDate(out, expiryDay);
+            out.append(']');
         } else {
             // Show upcoming expiry date
-            expiryInfo = " | Expiry: " + expiryDate;
+            out.append(" | Expiry: ");
+            RowFormat.appendDate(out, expiryDay);
         }
+    }
 
-        return baseString + expiryInfo;
+    // Date Parsing
+
+    /**
+     * Parses an expiry date to an epoch day.
+     * Plain YYYY-MM-DD text (what catalogue files contain) is parsed by hand, without
+     * going through DateTimeFormatter; anything else (signed years, offsets) is passed
+     * on to the ISO formatter, so both accept exactly the same input.
+     *
+     * @param text the date text (already trimmed)
+     * @return the date as an epoch day
+     * @throws DateTimeParseException if the text is not a valid date
+     */
+    static long parseExpiryDay(CharSequence text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return LocalDate.parse(text, DATE_FORMATTER).toEpochDay();
+        }
+
+        int year = parseDigits(text, 0, 4);
+        int month = parseDigits(text, 5, 7);
+        int day = parseDigits(text, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return LocalDate.parse(text, DATE_FORMATTER).toEpochDay();      // Reports the bad text
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new DateTimeParseException("Invalid date '" + text + "'", text, 0);
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Reads the ASCII digits text[start, end) as a number, or returns -1 if any is not a digit.
+     */
+    private static int parseDigits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Converts a valid date to an epoch day, counting from March so the leap day comes last.
+     * Gives the same result as LocalDate.of(year, month, day).toEpochDay().
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long cycle = Math.floorDiv(y, 400);
+        long yearOfCycle = y - cycle * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfCycle = yearOfCycle * 365 + yearOfCycle / 4 - yearOfCycle / 100 + dayOfYear;
+        return cycle * DAYS_PER_CYCLE + dayOfCycle - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Checks an epoch day lies within the range of LocalDate.
+     */
+    private static long checkEpochDay(long expiryDay) {
+        if (expiryDay < MIN_EPOCH_DAY || expiryDay > MAX_EPOCH_DAY) {
+            throw new IllegalArgumentException("Expiry date is out of range");
+        }
+        return expiryDay;
     }
-}
\ No newline at end of file
+}
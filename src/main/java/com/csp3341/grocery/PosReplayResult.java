@@ -0,0 +1,98 @@
+/**
+ * This file defines the PosReplayResult class for the grocery inventory management system.
+ * It summarises a synthetic point-of-sale replay: how many sales went through, how many
+ * were lost to stockouts, and how much stock was delivered back, so load and soak runs
+ * can be checked without inspecting every product.
+ */
+
+package com.csp3341.grocery;
+
+/**
+ * Outcome of InventoryGenerator.replayPos.
+ * Filled in by the generator while it replays the stream.
+ */
+public final class PosReplayResult {
+    private long saleEvents;
+    private long salesApplied;
+    private long unitsSold;
+    private long stockouts;
+    private long missingProducts;
+    private long deliveries;
+    private long unitsDelivered;
+
+    /**
+     * Constructor - starts with nothing replayed.
+     */
+    PosReplayResult() {
+    }
+
+    // Recording (used by the generator)
+
+    void saleApplied(int units) {
+        saleEvents++;
+        salesApplied++;
+        unitsSold += units;
+    }
+
+    void saleRejected() {
+        saleEvents++;
+        stockouts++;
+    }
+
+    void saleMissing() {
+        saleEvents++;
+        missingProducts++;
+    }
+
+    void delivered(int units) {
+        deliveries++;
+        unitsDelivered += units;
+    }
+
+    // Getters
+
+    public long getSaleEvents() {
+        return saleEvents;
+    }
+
+    public long getSalesApplied() {
+        return salesApplied;
+    }
+
+    public long getUnitsSold() {
+        return unitsSold;
+    }
+
+    /**
+     * @return sales rejected because there was not enough stock
+     */
+    public long getStockouts() {
+        return stockouts;
+    }
+
+    /**
+     * @return sales of products that had been removed from the inventory meanwhile
+     */
+    public long getMissingProducts() {
+        return missingProducts;
+    }
+
+    public long getDeliveries() {
+        return deliveries;
+    }
+
+    public long getUnitsDelivered() {
+        return unitsDelivered;
+    }
+
+    // String Representation
+    /**
+     * Returns a one-line summary.
+     * Format: "Sales: n (n units) | Stockouts: n | Missing: n | Deliveries: n (n units)"
+     */
+    @Override
+    public String toString() {
+        return String.format("Sales: %d (%d units) | Stockouts: %d | Missing: %d | Deliveries: %d (%d units)",
+                salesApplied, unitsSold, stockouts, missingProducts, deliveries, unitsDelivered);
+    }
+}
@@ -7,23 +7,47 @@
 
 package com.csp3341.grocery;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+
 /**
  * Abstract base class for all products in the inventory system.
+ * Mutable fields are volatile so one product can be shared between threads.
+ * Cloneable only so reports can copy products (see copyForReport); clone() stays protected.
  */
-public abstract class Product {
+public abstract class Product implements Cloneable {
     // Default low stock warning threshold
     protected static final int DEFAULT_LOW_STOCK_THRESHOLD = 5;
 
+    // Handle for atomic (lock-free) updates of the quantity field
+    private static final VarHandle QUANTITY;
+
+    static {
+        try {
+            QUANTITY = MethodHandles.lookup().findVarHandle(Product.class, "quantity", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     // Immutable fields (set once at creation)
     protected final int id;
     protected final String name;
     protected final Category category;
-    protected final Supplier supplier;
+    protected Supplier supplier;        // Only changed in report copies (see copyForReport)
 
-    // Mutable fields (can be updated)
-    protected double price;
-    protected int quantity;
-    protected int lowStockThreshold;
+    // Mutable fields (can be updated, visible across threads)
+    protected volatile double price;
+    protected volatile int quantity;
+    protected volatile int lowStockThreshold;
+
+    // Inventory currently holding this product (managed by InventoryManager)
+    volatile InventoryManager owner;
+
+    // Stock this product is counted with in the owner's valuation (guarded by the valuation's lock for this product)
+    int valuedQuantity;
+    long valuedCents;
 
     /**
      * Constructor with validation for all arguments.
@@ -100,21 +124,142 @@ public abstract class Product {
         if (price < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
+        checkOwnerWritable();
         this.price = price;
+
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.priceChanged(this);
+        }
     }
 
     public void setQuantity(int quantity) {
         if (quantity < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
-        this.quantity = quantity;
+        checkOwnerWritable();
+
+        // Swap atomically so the previous value is exact even under concurrent updates
+        int previousQuantity = (int) QUANTITY.getAndSet(this, quantity);
+        notifyQuantityChanged(previousQuantity, quantity);
+    }
+
+    /**
+     * Atomically adds a delta to the quantity (negative for sales, positive for deliveries).
+     * Lock-free: retries a compare-and-set until no other thread has changed the quantity
+     * in between, so concurrent adjustments are never lost.
+     *
+     * @param delta amount to add (may be negative)
+     * @return the new quantity
+     * @throws IllegalArgumentException if the result would be negative or overflow
+     */
+    public int adjustQuantity(int delta) {
+        checkOwnerWritable();
+
+        while (true) {
+            int current = quantity;
+            long updated = (long) current + delta;
+
+            if (updated < 0) {
+                throw new IllegalArgumentException("Quantity cannot be negative");
+            }
+            if (updated > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Quantity is too large");
+            }
+
+            if (QUANTITY.compareAndSet(this, current, (int) updated)) {
+                notifyQuantityChanged(current, (int) updated);
+                return (int) updated;
+            }
+        }
+    }
+
+    /**
+     * Atomically removes stock only if enough is available.
+     * Lock-free like adjustQuantity, but leaves the quantity unchanged instead of failing
+     * when the stock is insufficient.
+     *
+     * @param amount amount to remove (must not be negative)
+     * @return the new quantity, or -1 if there was not enough stock
+     * @throws IllegalArgumentException if amount is negative
+     */
+    public int tryDecrementQuantity(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+        checkOwnerWritable();
+
+        while (true) {
+            int current = quantity;
+            if (current < amount) {
+                return -1;      // Not enough stock - nothing changed
+            }
+
+            int updated = current - amount;
+            if (QUANTITY.compareAndSet(this, current, updated)) {
+                notifyQuantityChanged(current, updated);
+                return updated;
+            }
+        }
     }
 
     public void setLowStockThreshold(int lowStockThreshold) {
         if (lowStockThreshold < 0) {
             throw new IllegalArgumentException("Low stock threshold cannot be negative");
         }
+        checkOwnerWritable();
         this.lowStockThreshold = lowStockThreshold;
+
+        // Threshold changes are rare - always let the owner re-check the status
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.lowStockThresholdChanged(this);
+        }
+    }
+
+    /**
+     * Lets the owning inventory refuse a change before it is made, once its mutation log
+     * can no longer be written (see InventoryManager.checkWritable).
+     *
+     * @throws IllegalStateException if the owning inventory is read-only
+     */
+    void checkOwnerWritable() {
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.checkWritable();
+        }
+    }
+
+    /**
+     * Tells the owning inventory about a quantity change, so it can keep its low stock
+     * set current and record the change in its mutation log.
+     */
+    private void notifyQuantityChanged(int previousQuantity, int newQuantity) {
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.quantityChanged(this, previousQuantity, newQuantity);
+        }
+    }
+
+    /**
+     * Returns a copy of this product for a report that is written later, detached from
+     * any inventory. Every field - including those of subclasses - is read once, so the
+     * copy's row, low stock status and expiry status always agree, even while this
+     * product keeps changing.
+     *
+     * @param supplierCopy copy of this product's supplier, taken with the rest of the report
+     * @return the copy
+     */
+    Product copyForReport(Supplier supplierCopy) {
+        Product copy;
+        try {
+            copy = (Product) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Product is Cloneable", e);
+        }
+        copy.owner = null;
+        copy.supplier = supplierCopy;
+        return copy;
     }
 
     // Business Logic
@@ -126,10 +271,33 @@ public abstract class Product {
         return quantity <= lowStockThreshold;
     }
 
+    /**
+     * Checks if the product is expired today.
+     * "Today" is the owning inventory's business date (see InventoryManager.setClock),
+     * or the system date for a product not in any inventory.
+     */
+    public boolean isExpired() {
+        return isExpired(currentDate());
+    }
+
     /**
      * Abstract method - subclasses must define expiration logic.
+     * Scans call this with one date captured up front, so every product is judged
+     * against the same day and the clock is read once instead of once per product.
+     *
+     * @param asOf the date to check against (must not be null)
+     * @return true if the product is expired on that date
      */
-    public abstract boolean isExpired();
+    public abstract boolean isExpired(LocalDate asOf);
+
+    /**
+     * Returns today's date for this product: the owning inventory's business date,
+     * or the system date if the product is not in an inventory.
+     */
+    protected LocalDate currentDate() {
+        InventoryManager currentOwner = owner;
+        return currentOwner != null ? currentOwner.getBusinessDate() : LocalDate.now();
+    }
 
     // String Representation
     /**
@@ -138,17 +306,62 @@ public abstract class Product {
      */
     @Override
     public String toString() {
-        StringBuilder statusBuilder = new StringBuilder();
+        return appendTo(new StringBuilder(128)).toString();
+    }
 
-        if (isLowStock()) {
-            statusBuilder.append(" [LOW STOCK]");
+    /**
+     * Appends the same text as toString() to a builder, without intermediate strings.
+     * Reports reuse one builder for every row, so formatting creates almost no garbage.
+     *
+     * @param out the builder to append to
+     * @return the builder, for chaining
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        return appendTo(out, currentDate());
+    }
+
+    /**
+     * Appends the product row as of a given date, so all rows of one report or listing
+     * show their expiry status for the same day.
+     *
+     * @param out the builder to append to
+     * @param asOf the date expiry status is shown for (must not be null)
+     * @return the builder, for chaining
+     */
+    public StringBuilder appendTo(StringBuilder out, LocalDate asOf) {
+        boolean expired = isExpired(asOf);
+
+        if (RowFormat.isPlainLocale()) {
+            out.append(id).append(" | ").append(name).append(" | LKR ");
+            RowFormat.appendPrice(out, price);
+            out.append(" | Qty: ").append(quantity)
+                    .append(" | ").append(category)
+                    .append(" | Supplier: ").append(supplier.getSupplierName());
+        } else {
+            // Locales with other digits or decimal separators keep String.format's output
+            out.append(String.format("%d | %s | LKR %.2f | Qty: %d | %s | Supplier: %s",
+                    id, name, price, quantity, category, supplier.getSupplierName()));
         }
 
-        if (isExpired()) {
-            statusBuilder.append(" [EXPIRED]");
+        if (isLowStock()) {
+            out.append(" [LOW STOCK]");
+        }
+        if (expired) {
+            out.append(" [EXPIRED]");
         }
 
-        return String.format("%d | %s | LKR %.2f | Qty: %d | %s | Supplier: %s%s",
-                id, name, price, quantity, category, supplier.getSupplierName(), statusBuilder);
+        appendDetails(out, expired);
+        return out;
+    }
+
+    /**
+     * Appends subclass-specific details to the end of the row.
+     * Does nothing by default; subclasses override it to add their own fields.
+     *
+     * @param out the builder to append to
+     * @param expired the expiry status shown earlier in the same row
+     */
+    protected void appendDetails(StringBuilder out, boolean expired) {
+        // No extra details for a plain product
     }
 }
\ No newline at end of file
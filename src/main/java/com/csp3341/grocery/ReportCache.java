@@ -0,0 +1,195 @@
+/**
+ * This file defines the ReportCache class for the grocery inventory management system.
+ * It keeps the formatted rows of the product lists that reports are built from (all
+ * products, low stock, expired, and each category), tagged with the inventory version
+ * they were formatted at, so re-running a report on an unchanged inventory does not
+ * collect, sort and format the same products again.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cache of formatted product rows, one entry per list.
+ * An entry is only used if the inventory's modification version, the business date
+ * (which decides the [EXPIRED] tags) and the format locale all match, so it never
+ * serves text the current inventory would not produce. A newer entry for the same
+ * list replaces the old one, so the cache holds at most one entry per list.
+ *
+ * Callers must read the version BEFORE capturing the list: a change made during the
+ * capture then leaves the entry tagged with an older version, so it is never used.
+ *
+ * Thread-safe.
+ */
+final class ReportCache {
+    // Lists longer than this are formatted straight to the output instead of being kept
+    static final int MAX_CACHED_ROWS = 1 << 17;
+
+    /**
+     * The product lists reports are built from.
+     */
+    enum RowSet {
+        ALL_PRODUCTS,
+        LOW_STOCK,
+        EXPIRED,
+        CATEGORY
+    }
+
+    // Latest entry per list - category lists are kept per category (guarded by this)
+    private final EnumMap<RowSet, Entry> entries = new EnumMap<>(RowSet.class);
+    private final EnumMap<Category, Entry> categoryEntries = new EnumMap<>(Category.class);
+
+    /**
+     * Looks up the formatted rows of a list.
+     *
+     * @param rowSet which list
+     * @param category the category for CATEGORY lists (null otherwise)
+     * @param asOf business date the rows must be formatted for
+     * @param version current modification version of the inventory
+     * @return the cached rows, or null if there are none for this version and date
+     */
+    ProductRows find(RowSet rowSet, Category category, LocalDate asOf, long version) {
+        Entry entry;
+        synchronized (this) {
+            entry = rowSet == RowSet.CATEGORY ? categoryEntries.get(category) : entries.get(rowSet);
+        }
+
+        if (entry == null || entry.version != version || entry.asOfDay != asOf.toEpochDay()
+                || !entry.locale.equals(Locale.getDefault(Locale.Category.FORMAT))) {
+            return null;
+        }
+        return new ProductRows(entry.text, entry.count, null, asOf, null);
+    }
+
+    /**
+     * Wraps a freshly captured list. Its rows are formatted when first written, and
+     * kept for later reports if the list is short enough.
+     *
+     * @param rowSet which list
+     * @param category the category for CATEGORY lists (null otherwise)
+     * @param asOf business date the rows are formatted for
+     * @param version modification version read before the list was captured
+     * @param products the captured list (must not change afterwards)
+     * @return rows to write
+     */
+    ProductRows prepare(RowSet rowSet, Category category, LocalDate asOf, long version,
+                        List<? extends Product> products) {
+        Entry pending = products.size() <= MAX_CACHED_ROWS
+                ? new Entry(rowSet, category, asOf.toEpochDay(), Locale.getDefault(Locale.Category.FORMAT),
+                        version, products.size(), null)
+                : null;
+        return new ProductRows(null, products.size(), products, asOf, pending);
+    }
+
+    /**
+     * Wraps a captured list that is written once and never cached - such as the sections
+     * of the complete report, whose rows must match the totals captured with them.
+     *
+     * @param asOf business date the rows are formatted for
+     * @param products the captured list (must not change afterwards)
+     * @return rows to write
+     */
+    ProductRows uncached(LocalDate asOf, List<? extends Product> products) {
+        return new ProductRows(null, products.size(), products, asOf, null);
+    }
+
+    /**
+     * Keeps an entry unless a newer one for the same list is already there.
+     */
+    private synchronized void store(Entry entry) {
+        boolean byCategory = entry.rowSet == RowSet.CATEGORY;
+        Entry current = byCategory ? categoryEntries.get(entry.category) : entries.get(entry.rowSet);
+        if (current != null && current.version > entry.version) {
+            return;     // Formatted from an older capture - keep the newer rows
+        }
+
+        if (byCategory) {
+            categoryEntries.put(entry.category, entry);
+        } else {
+            entries.put(entry.rowSet, entry);
+        }
+    }
+
+    /**
+     * The rows of one product list in a report: either text from the cache, or the
+     * products themselves, formatted (and cached, if short enough) when first written.
+     * Used by one report at a time.
+     */
+    final class ProductRows {
+        private final int count;
+        private final List<? extends Product> products;     // null for rows served from the cache
+        private final LocalDate asOf;
+        private final Entry pending;                        // Entry to cache once formatted, or null
+        private String text;                                // Formatted rows, null until formatted
+
+        private ProductRows(String text, int count, List<? extends Product> products,
+                            LocalDate asOf, Entry pending) {
+            this.text = text;
+            this.count = count;
+            this.products = products;
+            this.asOf = asOf;
+            this.pending = pending;
+        }
+
+        int size() {
+            return count;
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        /**
+         * Writes the rows, formatting them first if they are not cached yet.
+         *
+         * @param out destination
+         * @param pool pool to format on, or null to format on the calling thread
+         * @throws IOException if writing fails
+         */
+        void writeTo(ReportOutput out, ForkJoinPool pool) throws IOException {
+            if (text == null && pending != null) {
+                text = ReportOutput.formatRows(products, asOf, pool);
+                store(pending.withText(text));
+            }
+
+            if (text != null) {
+                out.printBlock(text);
+            } else {
+                out.printRows(products, asOf, pool);        // Too long to keep - stream it
+            }
+        }
+    }
+
+    /**
+     * Formatted rows of one list, with everything they depend on.
+     */
+    private static final class Entry {
+        final RowSet rowSet;
+        final Category category;
+        final long asOfDay;
+        final Locale locale;
+        final long version;
+        final int count;
+        final String text;
+
+        Entry(RowSet rowSet, Category category, long asOfDay, Locale locale, long version, int count, String text) {
+            this.rowSet = rowSet;
+            this.category = category;
+            this.asOfDay = asOfDay;
+            this.locale = locale;
+            this.version = version;
+            this.count = count;
+            this.text = text;
+        }
+
+        Entry withText(String formatted) {
+            return new Entry(rowSet, category, asOfDay, locale, version, count, formatted);
+        }
+    }
+}
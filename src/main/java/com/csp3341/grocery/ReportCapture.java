@@ -0,0 +1,200 @@
+/**
+ * This file defines the ReportCapture class for the grocery inventory management system.
+ * It copies the products and suppliers one report shows at the moment the report is
+ * captured, so its rows, the sections they are listed in and the counts and totals
+ * printed above them all come from the same values, however the inventory changes
+ * while the report is being written. Long lists are copied, filtered and sorted in
+ * chunks on a ForkJoinPool.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copies for one report. The inventory's suppliers are copied up front, and every
+ * product of one supplier then points at the same copy - so the supplier section and
+ * the rows of one report always show the same supplier name.
+ *
+ * Products may be copied from several pool threads at once: the listed suppliers'
+ * copies never change after construction, and suppliers that are not listed (products
+ * may name a supplier the inventory does not hold) are copied once each through a
+ * concurrent map.
+ */
+final class ReportCapture {
+    // Products copied or filtered by one task when a list is split across a pool
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private static final Comparator<Product> BY_ID = Comparator.comparingInt(Product::getId);
+
+    // Live supplier -> its copy, for the inventory's suppliers (not changed after construction)
+    private final IdentityHashMap<Supplier, Supplier> listedCopies;
+    private final List<Supplier> supplierCopies;
+
+    // Copies of suppliers that are not in the inventory, by supplier ID (see Supplier.equals)
+    private final ConcurrentHashMap<Supplier, Supplier> unlistedCopies = new ConcurrentHashMap<>();
+
+    /**
+     * Copies the inventory's suppliers (caller holds the inventory's read lock).
+     *
+     * @param suppliers the inventory's suppliers
+     */
+    ReportCapture(List<Supplier> suppliers) {
+        listedCopies = new IdentityHashMap<>(suppliers.size());
+        List<Supplier> copies = new ArrayList<>(suppliers.size());
+        for (Supplier supplier : suppliers) {
+            Supplier copy = supplier.copyForReport();
+            listedCopies.put(supplier, copy);
+            copies.add(copy);
+        }
+        supplierCopies = Collections.unmodifiableList(copies);
+    }
+
+    // Getters
+
+    /**
+     * @return copies of the inventory's suppliers, in the order given
+     */
+    List<Supplier> getSupplierCopies() {
+        return supplierCopies;
+    }
+
+    /**
+     * @param supplier a live supplier
+     * @return this report's copy of it
+     */
+    Supplier copyOf(Supplier supplier) {
+        Supplier copy = listedCopies.get(supplier);
+        return copy != null ? copy : unlistedCopies.computeIfAbsent(supplier, Supplier::copyForReport);
+    }
+
+    /**
+     * @param product a live product
+     * @return this report's copy of it
+     */
+    Product copyOf(Product product) {
+        return product.copyForReport(copyOf(product.getSupplier()));
+    }
+
+    /**
+     * Copies products, keeping only the copies a list's condition holds for. Lists found
+     * through an index (low stock, expired) are checked again on the copies, since a
+     * product may have left the list between the index read and its copy.
+     * With a pool, chunks are copied on the pool's threads and joined back; the result
+     * is the same as copying on one thread.
+     *
+     * @param products live products
+     * @param keep condition the copies must meet, or null to keep every copy
+     * @param byId true to order the copies by product ID, false to keep list order
+     * @param pool pool to split the work across, or null to copy on the calling thread
+     * @return the copies kept
+     */
+    List<Product> copyProducts(List<? extends Product> products, Predicate<? super Product> keep,
+                               boolean byId, ForkJoinPool pool) {
+        return run(new ChunkTask(products, 0, products.size(), this::copyOf, keep, byId), pool);
+    }
+
+    /**
+     * Picks the copies a condition holds for, ordered by product ID.
+     *
+     * @param copies copies made by copyProducts
+     * @param keep condition to meet
+     * @param pool pool to split the work across, or null to filter on the calling thread
+     * @return the copies kept
+     */
+    static List<Product> select(List<Product> copies, Predicate<? super Product> keep, ForkJoinPool pool) {
+        return run(new ChunkTask(copies, 0, copies.size(), UnaryOperator.identity(), keep, true), pool);
+    }
+
+    // Private Helpers
+
+    private static List<Product> run(ChunkTask task, ForkJoinPool pool) {
+        return pool == null || task.to - task.from <= CHUNK_SIZE ? task.collect() : pool.invoke(task);
+    }
+
+    /**
+     * Merges two lists ordered by product ID (IDs are unique, so the result is the same
+     * as sorting both together).
+     */
+    private static List<Product> merge(List<Product> left, List<Product> right) {
+        List<Product> merged = new ArrayList<>(left.size() + right.size());
+        int i = 0;
+        int j = 0;
+        while (i < left.size() && j < right.size()) {
+            merged.add(left.get(i).getId() < right.get(j).getId() ? left.get(i++) : right.get(j++));
+        }
+        merged.addAll(left.subList(i, left.size()));
+        merged.addAll(right.subList(j, right.size()));
+        return merged;
+    }
+
+    /**
+     * Maps, filters and (optionally) sorts a range of a list, splitting it in halves down
+     * to CHUNK_SIZE products. Halves are joined in list order, or merged by product ID.
+     */
+    @SuppressWarnings("serial")     // Tasks are never serialized
+    private static final class ChunkTask extends RecursiveTask<List<Product>> {
+        private final List<? extends Product> products;
+        private final int from;
+        private final int to;
+        private final UnaryOperator<Product> map;
+        private final Predicate<? super Product> keep;      // null keeps everything
+        private final boolean byId;
+
+        ChunkTask(List<? extends Product> products, int from, int to, UnaryOperator<Product> map,
+                  Predicate<? super Product> keep, boolean byId) {
+            this.products = products;
+            this.from = from;
+            this.to = to;
+            this.map = map;
+            this.keep = keep;
+            this.byId = byId;
+        }
+
+        @Override
+        protected List<Product> compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return collect();
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(products, from, middle, map, keep, byId);
+            ChunkTask right = new ChunkTask(products, middle, to, map, keep, byId);
+            left.fork();
+            List<Product> rightResult = right.compute();
+            List<Product> leftResult = left.join();
+
+            if (byId) {
+                return merge(leftResult, rightResult);
+            }
+            leftResult.addAll(rightResult);
+            return leftResult;
+        }
+
+        /**
+         * Handles the whole range on the calling thread.
+         */
+        List<Product> collect() {
+            List<Product> result = new ArrayList<>(keep == null ? to - from : 16);
+            for (int i = from; i < to; i++) {
+                Product product = map.apply(products.get(i));
+                if (keep == null || keep.test(product)) {
+                    result.add(product);
+                }
+            }
+            if (byId) {
+                result.sort(BY_ID);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * This file defines the ReportJob class for the grocery inventory management system.
+ * It tracks one report file being written in the background by ReportService: which
+ * report it is, whether it is still running, and how it ended, so the console can show
+ * progress and cancel it without waiting for the file to be written.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * A report being written to a file on a background (virtual) thread.
+ * Created and started by ReportService; safe to query and cancel from any thread.
+ */
+public final class ReportJob {
+    /**
+     * Stages of a report job. A job starts RUNNING and ends in exactly one of the others.
+     */
+    public enum Status {
+        RUNNING,
+        DONE,
+        FAILED,
+        CANCELLED
+    }
+
+    /**
+     * Writes one report file, throwing instead of printing if it fails.
+     */
+    interface ReportWriter {
+        void write(String filename) throws IOException;
+    }
+
+    private final int id;
+    private final String description;
+    private final String filename;
+    private final long startNanos;
+
+    // Completed when the job ends: normally, with its failure, or cancelled
+    private final CompletableFuture<Void> completion;
+
+    // Thread running the job, set by ReportService once submitted (interrupted on cancel)
+    private volatile Future<?> task;
+    private volatile long endNanos;
+    private volatile String failureReason;
+
+    /**
+     * Constructor - the job counts as running from now on.
+     */
+    ReportJob(int id, String description, String filename) {
+        this.id = id;
+        this.description = description;
+        this.filename = filename;
+        this.startNanos = System.nanoTime();
+        this.completion = new CompletableFuture<>();
+        completion.whenComplete((result, error) -> endNanos = System.nanoTime());
+    }
+
+    /**
+     * Writes the report (called on the job's own thread).
+     * A cancelled job deletes whatever part of the file it had written.
+     */
+    void run(ReportWriter writer) {
+        if (completion.isDone()) {
+            return;     // Cancelled before it started
+        }
+
+        try {
+            writer.write(filename);
+            completion.complete(null);
+        } catch (IOException | RuntimeException e) {
+            failureReason = e.getMessage();
+            completion.completeExceptionally(e);    // No effect if the job was cancelled
+        } finally {
+            if (completion.isCancelled()) {
+                deletePartialFile();
+            }
+        }
+    }
+
+    /**
+     * Called by ReportService once the job is submitted. A job cancelled before this
+     * (possibly after its thread had started) could not be interrupted then, so it is now.
+     */
+    void setTask(Future<?> task) {
+        this.task = task;
+        if (completion.isCancelled()) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Cancels the job if it is still running: its thread is interrupted, which stops
+     * the report at the next row, and the partly written file is deleted.
+     *
+     * @return true if the job was cancelled, false if it had already ended
+     */
+    public boolean cancel() {
+        // cancel() also reports true for a job that was already cancelled, so check first
+        if (completion.isDone() || !completion.cancel(false)) {
+            return false;
+        }
+
+        // Not submitted yet - setTask sees the cancellation and interrupts the thread then
+        Future<?> running = task;
+        if (running != null) {
+            running.cancel(true);
+        }
+        return true;
+    }
+
+    // Getters
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public Status getStatus() {
+        if (!completion.isDone()) {
+            return Status.RUNNING;
+        }
+        if (completion.isCancelled()) {
+            return Status.CANCELLED;
+        }
+        return completion.isCompletedExceptionally() ? Status.FAILED : Status.DONE;
+    }
+
+    /**
+     * @return why the job failed, or null unless its status is FAILED
+     */
+    public String getFailureReason() {
+        return getStatus() == Status.FAILED ? failureReason : null;
+    }
+
+    /**
+     * @return time since the job started, or how long it ran if it has ended
+     */
+    public long getElapsedMillis() {
+        long end = endNanos;
+        if (end == 0) {
+            end = System.nanoTime();        // Still running (or only just ended)
+        }
+        return (end - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Returns a future that completes when the job ends.
+     * It completes normally if the report was written, exceptionally if writing failed,
+     * and is cancelled if the job was. Cancelling the returned future does not cancel
+     * the job - use cancel() for that.
+     *
+     * @return a future for the end of the job
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion.copy();
+    }
+
+    // Private Helpers
+
+    private void deletePartialFile() {
+        try {
+            Files.deleteIfExists(Path.of(filename));
+        } catch (IOException | InvalidPathException e) {
+            // Nothing useful to do - the file was never complete anyway
+        }
+    }
+
+    // String Representation
+    /**
+     * Returns a one-line status.
+     * Format: "#id | description -> filename | STATUS (seconds)" with the reason for failures
+     */
+    @Override
+    public String toString() {
+        Status status = getStatus();
+        String detail = status == Status.FAILED ? ": " + failureReason : "";
+        return String.format("#%d | %s -> %s | %s (%.1f s)%s",
+                id, description, filename, status, getElapsedMillis() / 1000.0, detail);
+    }
+}
@@ -0,0 +1,332 @@
+/**
+ * This file defines the ReportOutput class for the grocery inventory management system.
+ * It is the destination reports are written to: a file (through a FileChannel or a
+ * PrintWriter, see ReportOutputMode) or the console. Unlike a bare PrintWriter, every
+ * file output reports write failures as IOExceptions instead of silently dropping them.
+ * Writing rows stops with an InterruptedIOException once the writing thread is
+ * interrupted, which is how background report jobs are cancelled.
+ */
+
+package com.csp3341.grocery;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Line-oriented report destination.
+ * Lines end with the platform line separator, as with PrintWriter.println.
+ * Not thread-safe: one report writes to one output.
+ */
+abstract class ReportOutput implements Closeable {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // Rows formatted by one task when rows are formatted on a pool
+    private static final int ROWS_PER_CHUNK = 4096;
+
+    // Formatted chunks allowed to wait for writing, per pool thread
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+    // Characters handed to print at a time when writing a long block of text
+    private static final int BLOCK_PIECE_LENGTH = 1 << 16;
+
+    /**
+     * Opens a report file for writing, replacing any existing file.
+     *
+     * @param filename the file to write
+     * @param mode how to write it
+     * @return the opened output
+     * @throws IOException if the file cannot be created
+     */
+    static ReportOutput openFile(String filename, ReportOutputMode mode) throws IOException {
+        return switch (mode) {
+            case CHANNEL -> new ChannelOutput(Path.of(filename));
+            case PRINT_WRITER -> new WriterOutput(new PrintWriter(new FileWriter(filename)), true);
+        };
+    }
+
+    /**
+     * Creates an output that writes to the console through one buffer.
+     * Closing it flushes System.out but leaves it open.
+     */
+    static ReportOutput console() {
+        return new WriterOutput(new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, System.out.charset()))), false);
+    }
+
+    // Reused for every product row
+    private final StringBuilder row = new StringBuilder(256);
+
+    abstract void print(CharSequence text) throws IOException;
+
+    void println(CharSequence text) throws IOException {
+        print(text);
+        print(LINE_SEPARATOR);
+    }
+
+    void println() throws IOException {
+        print(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes the text of any object (for example a Supplier row) followed by a line break.
+     */
+    void println(Object item) throws IOException {
+        println(String.valueOf(item));
+    }
+
+    /**
+     * Writes a product row followed by a line break.
+     * The row is formatted into a reused builder, so no String is created per product.
+     *
+     * @param product the product
+     * @param asOf the date the row's expiry status is shown for
+     */
+    void printRow(Product product, LocalDate asOf) throws IOException {
+        checkNotInterrupted();
+        row.setLength(0);
+        product.appendTo(row, asOf).append(LINE_SEPARATOR);
+        print(row);
+    }
+
+    /**
+     * Writes a product row for each product, in list order.
+     * With a pool, chunks of rows are formatted on the pool's threads while this thread
+     * writes the chunks already finished, in order - so the text is exactly what printRow
+     * would write, and only a few chunks per pool thread are held in memory at once.
+     *
+     * @param products the products (read concurrently, so the list must not change)
+     * @param asOf the date the rows' expiry status is shown for
+     * @param pool pool to format on, or null to format on the calling thread
+     */
+    void printRows(List<? extends Product> products, LocalDate asOf, ForkJoinPool pool) throws IOException {
+        int size = products.size();
+        if (pool == null || size <= ROWS_PER_CHUNK) {
+            for (Product product : products) {
+                printRow(product, asOf);
+            }
+            return;
+        }
+
+        int maxInFlight = pool.getParallelism() * CHUNKS_IN_FLIGHT_PER_THREAD;
+        ArrayDeque<ForkJoinTask<StringBuilder>> inFlight = new ArrayDeque<>();
+        try {
+            for (int start = 0; start < size; start += ROWS_PER_CHUNK) {
+                checkNotInterrupted();
+                if (inFlight.size() == maxInFlight) {
+                    print(inFlight.removeFirst().join());      // Oldest chunk first keeps the order
+                }
+                int from = start;
+                int to = Math.min(start + ROWS_PER_CHUNK, size);
+                inFlight.addLast(pool.submit(() -> formatRows(products, from, to, asOf)));
+            }
+            while (!inFlight.isEmpty()) {
+                print(inFlight.removeFirst().join());
+            }
+        } finally {
+            // Only non-empty if writing failed - the remaining chunks are not needed
+            inFlight.forEach(chunk -> chunk.cancel(false));
+        }
+    }
+
+    /**
+     * Writes a long block of already formatted text (such as cached rows) in pieces,
+     * so the output never copies more than one piece at a time and a cancelled report
+     * still stops part way.
+     *
+     * @param text the text to write
+     */
+    void printBlock(String text) throws IOException {
+        for (int start = 0; start < text.length(); start += BLOCK_PIECE_LENGTH) {
+            checkNotInterrupted();
+            print(text.substring(start, Math.min(start + BLOCK_PIECE_LENGTH, text.length())));
+        }
+    }
+
+    /**
+     * Formats the rows of all products into one string - the same text printRows writes.
+     * With a pool, chunks of rows are formatted on the pool's threads.
+     *
+     * @param products the products (read concurrently, so the list must not change)
+     * @param asOf the date the rows' expiry status is shown for
+     * @param pool pool to format on, or null to format on the calling thread
+     * @return the formatted rows
+     */
+    static String formatRows(List<? extends Product> products, LocalDate asOf, ForkJoinPool pool)
+            throws IOException {
+        checkNotInterrupted();
+        int size = products.size();
+        if (pool == null || size <= ROWS_PER_CHUNK) {
+            return formatRows(products, 0, size, asOf).toString();
+        }
+
+        List<ForkJoinTask<StringBuilder>> chunks = new ArrayList<>();
+        try {
+            for (int start = 0; start < size; start += ROWS_PER_CHUNK) {
+                int from = start;
+                int to = Math.min(start + ROWS_PER_CHUNK, size);
+                chunks.add(pool.submit(() -> formatRows(products, from, to, asOf)));
+            }
+
+            StringBuilder text = new StringBuilder(size * 128);
+            for (ForkJoinTask<StringBuilder> chunk : chunks) {
+                text.append(chunk.join());
+            }
+            return text.toString();
+        } finally {
+            // Only unfinished if formatting failed - the remaining chunks are not needed
+            chunks.forEach(chunk -> chunk.cancel(false));
+        }
+    }
+
+    /**
+     * Stops the report if the writing thread has been interrupted (its job was cancelled).
+     * Leaves the interrupt flag set, so the caller can still see why writing stopped.
+     */
+    private static void checkNotInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Report cancelled");
+        }
+    }
+
+    /**
+     * Formats products[from, to) into one builder, each row followed by a line break.
+     */
+    private static StringBuilder formatRows(List<? extends Product> products, int from, int to, LocalDate asOf) {
+        StringBuilder chunk = new StringBuilder((to - from) * 128);
+        for (int i = from; i < to; i++) {
+            products.get(i).appendTo(chunk, asOf).append(LINE_SEPARATOR);
+        }
+        return chunk;
+    }
+
+    /**
+     * Writes UTF-8 encoded text into a large reusable buffer, and writes the buffer
+     * to a FileChannel whenever it fills up - one system call per megabyte.
+     */
+    private static final class ChannelOutput extends ReportOutput {
+        private static final int BUFFER_SIZE = 1 << 20;
+
+        private final FileChannel channel;
+        private final CharsetEncoder encoder;
+        private final ByteBuffer bytes;
+
+        // Characters of the text being encoded (array-backed, so the encoder's fast path applies)
+        private char[] chars;
+        private CharBuffer charBuffer;
+
+        ChannelOutput(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+            this.chars = new char[256];
+            this.charBuffer = CharBuffer.wrap(chars);
+        }
+
+        @Override
+        void print(CharSequence text) throws IOException {
+            int length = text.length();
+            if (length > chars.length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+                charBuffer = CharBuffer.wrap(chars);
+            }
+            copyChars(text, length);
+            charBuffer.clear().limit(length);
+
+            encoder.reset();
+            while (encoder.encode(charBuffer, bytes, true) == CoderResult.OVERFLOW) {
+                drain();
+            }
+            while (encoder.flush(bytes) == CoderResult.OVERFLOW) {
+                drain();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+
+        /**
+         * Copies text into the char array, using bulk copies for the common types.
+         */
+        private void copyChars(CharSequence text, int length) {
+            if (text instanceof String string) {
+                string.getChars(0, length, chars, 0);
+            } else if (text instanceof StringBuilder builder) {
+                builder.getChars(0, length, chars, 0);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    chars[i] = text.charAt(i);
+                }
+            }
+        }
+
+        /**
+         * Writes everything buffered so far to the file.
+         */
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+
+    /**
+     * Writes through a PrintWriter, checking its error flag on close so failures are not lost.
+     */
+    private static final class WriterOutput extends ReportOutput {
+        private final PrintWriter writer;
+        private final boolean closeWriter;
+
+        WriterOutput(PrintWriter writer, boolean closeWriter) {
+            this.writer = writer;
+            this.closeWriter = closeWriter;
+        }
+
+        @Override
+        void print(CharSequence text) {
+            writer.append(text);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // checkError flushes first, so it also catches failures in the final write
+            boolean failed = writer.checkError();
+            if (closeWriter) {
+                writer.close();
+            }
+            if (failed) {
+                throw new IOException("Write failed");
+            }
+        }
+    }
+}
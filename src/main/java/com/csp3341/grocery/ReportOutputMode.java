@@ -0,0 +1,17 @@
+/**
+ * This file defines the ReportOutputMode enumeration for the grocery inventory system.
+ * It selects how file reports are written to disk.
+ */
+
+package com.csp3341.grocery;
+
+/**
+ * Ways of writing report files, selected with InventoryManager.setReportOutputMode.
+ */
+public enum ReportOutputMode {
+    // Encodes rows into a large reusable byte buffer and writes it through a FileChannel
+    CHANNEL,
+
+    // Writes through PrintWriter(FileWriter), as reports were originally saved
+    PRINT_WRITER
+}
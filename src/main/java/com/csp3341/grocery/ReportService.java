@@ -0,0 +1,178 @@
+/**
+ * This file defines the ReportService class for the grocery inventory management system.
+ * It writes report files in the background, one virtual thread per report, so the console
+ * (and any other caller) can carry on with stock updates while large reports are written,
+ * and several report files can be written at the same time.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs report jobs for one inventory on virtual threads.
+ * Each report captures its view of the inventory once - copies of the products it
+ * shows - and writes it without holding the inventory's lock, so a job never blocks
+ * stock updates for longer than it takes to list the products. Jobs are numbered from 1 and kept until the service closes.
+ *
+ * Thread-safe.
+ */
+public final class ReportService implements AutoCloseable {
+    private final InventoryManager manager;
+
+    // One new virtual thread per job - jobs mostly wait on disk, so there is no pool to size
+    private final ExecutorService executor;
+
+    // All jobs submitted so far (job ID -> job), guarded by its own monitor
+    private final IntHashMap<ReportJob> jobs;
+    private final AtomicInteger nextJobId;
+
+    /**
+     * Constructor - creates a service writing reports of the given inventory.
+     *
+     * @param manager the inventory to report on (must not be null)
+     * @throws IllegalArgumentException if manager is null
+     */
+    public ReportService(InventoryManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Inventory manager cannot be null");
+        }
+        this.manager = manager;
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("report-job-", 1).factory());
+        this.jobs = new IntHashMap<>();
+        this.nextJobId = new AtomicInteger(1);
+    }
+
+    // Submitting Reports
+    // Each method returns as soon as the job has started; the report is written in the background.
+
+    /**
+     * Starts writing the low stock products report (see InventoryManager.saveLowStockReportToFile).
+     *
+     * @param filename the name/path of the file to write
+     * @return the running job
+     * @throws IllegalArgumentException if filename is null or empty
+     */
+    public ReportJob submitLowStockReport(String filename) {
+        return submit("Low stock report", filename, manager::writeLowStockReport);
+    }
+
+    /**
+     * Starts writing the expired products report.
+     *
+     * @param filename the name/path of the file to write
+     * @return the running job
+     * @throws IllegalArgumentException if filename is null or empty
+     */
+    public ReportJob submitExpiredProductsReport(String filename) {
+        return submit("Expired products report", filename, manager::writeExpiredProductsReport);
+    }
+
+    /**
+     * Starts writing the report of one category's products.
+     *
+     * @param filename the name/path of the file to write
+     * @param category the category to report on (must not be null)
+     * @return the running job
+     * @throws IllegalArgumentException if filename is null or empty, or category is null
+     */
+    public ReportJob submitCategoryReport(String filename, Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category cannot be null");
+        }
+        return submit("Category report: " + category, filename,
+                target -> manager.writeCategoryReport(target, category));
+    }
+
+    /**
+     * Starts writing the complete inventory report.
+     *
+     * @param filename the name/path of the file to write
+     * @param includeSupplierDetails whether to include supplier details
+     * @return the running job
+     * @throws IllegalArgumentException if filename is null or empty
+     */
+    public ReportJob submitCompleteReport(String filename, boolean includeSupplierDetails) {
+        return submit("Complete inventory report", filename,
+                target -> manager.writeCompleteReport(target, includeSupplierDetails));
+    }
+
+    // Tracking Jobs
+
+    /**
+     * Finds a job by its ID.
+     *
+     * @param jobId the job ID
+     * @return Optional containing the job if found
+     */
+    public Optional<ReportJob> findJob(int jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    /**
+     * @return every job submitted so far, oldest first
+     */
+    public List<ReportJob> getJobs() {
+        List<ReportJob> allJobs;
+        synchronized (jobs) {
+            allJobs = new ArrayList<>(jobs.toList());
+        }
+        allJobs.sort(Comparator.comparingInt(ReportJob::getId));
+        return allJobs;
+    }
+
+    /**
+     * @return number of jobs still writing their report
+     */
+    public int countRunningJobs() {
+        int running = 0;
+        for (ReportJob job : getJobs()) {
+            if (job.getStatus() == ReportJob.Status.RUNNING) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Cancels a running job (see ReportJob.cancel).
+     *
+     * @param jobId the job ID
+     * @return true if the job was cancelled, false if there is no such job or it had already ended
+     */
+    public boolean cancel(int jobId) {
+        return findJob(jobId).map(ReportJob::cancel).orElse(false);
+    }
+
+    /**
+     * Stops accepting new jobs and waits for the running ones to finish writing.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    // Private Helpers
+
+    private ReportJob submit(String description, String filename, ReportJob.ReportWriter writer) {
+        if (filename == null || filename.trim().isEmpty()) {
+            throw new IllegalArgumentException("Filename cannot be null or empty");
+        }
+
+        ReportJob job = new ReportJob(nextJobId.getAndIncrement(), description, filename);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        job.setTask(executor.submit(() -> job.run(writer)));
+        return job;
+    }
+}
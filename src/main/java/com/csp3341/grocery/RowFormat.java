@@ -0,0 +1,143 @@
+/**
+ * This file defines the RowFormat helper class for the grocery inventory management system.
+ * It appends prices and dates to a StringBuilder without creating intermediate strings,
+ * producing exactly the text String.format and LocalDate.toString would. Product rows
+ * use it so that reports over millions of products do not churn through garbage.
+ */
+
+package com.csp3341.grocery;
+
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Allocation-free formatting helpers for product rows.
+ * The fast paths only apply where they give the same text as String.format in the
+ * current default locale; anything else falls back to String.format.
+ */
+final class RowFormat {
+    // Above this the double's spacing gets too coarse to round by hand safely
+    private static final double MAX_FAST_PRICE = 1e9;
+
+    // Prices this close to a half cent are formatted by String.format, which rounds
+    // the shortest decimal form of the double (so 1.005 becomes 1.01, not 1.00)
+    private static final double TIE_WINDOW = 1e-4;
+
+    // Epoch days of 0000-01-01 and 9999-12-31, the dates formatted by hand
+    private static final long MIN_FAST_EPOCH_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long MAX_FAST_EPOCH_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+
+    // Days from 0000-03-01 to 1970-01-01, and days in a 400 year cycle (proleptic Gregorian)
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final long DAYS_PER_CYCLE = 146_097;
+
+    // Most recently checked locale, with whether it formats numbers as plain ASCII
+    private static volatile LocaleCheck lastLocaleCheck = new LocaleCheck(null, false);
+
+    private RowFormat() {
+        // Static helpers only
+    }
+
+    /**
+     * Checks whether the default format locale writes numbers with ASCII digits and a
+     * '.' decimal separator - the output the hand-rolled formatting produces.
+     *
+     * @return true if the fast paths match String.format in the current locale
+     */
+    static boolean isPlainLocale() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleCheck check = lastLocaleCheck;
+        if (check.locale != locale) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            check = new LocaleCheck(locale, symbols.getZeroDigit() == '0' && symbols.getDecimalSeparator() == '.');
+            lastLocaleCheck = check;
+        }
+        return check.plain;
+    }
+
+    /**
+     * Appends a price with two decimal places, as String.format("%.2f", price) would
+     * in a plain locale (see isPlainLocale).
+     *
+     * @param out the builder to append to
+     * @param price the price
+     */
+    static void appendPrice(StringBuilder out, double price) {
+        // Sign bit clear rules out negative values and -0.0; NaN fails the range check
+        if (Double.doubleToRawLongBits(price) >= 0 && price < MAX_FAST_PRICE) {
+            double scaled = price * 100;
+            double fraction = scaled - Math.floor(scaled);
+
+            if (Math.abs(fraction - 0.5) > TIE_WINDOW) {
+                long cents = Math.round(scaled);
+                int remainder = (int) (cents % 100);
+                out.append(cents / 100).append('.');
+                if (remainder < 10) {
+                    out.append('0');
+                }
+                out.append(remainder);
+                return;
+            }
+        }
+        out.append(String.format("%.2f", price));      // Rounding ties and unusual values
+    }
+
+    /**
+     * Appends a date given as an epoch day in ISO format (YYYY-MM-DD), as
+     * LocalDate.ofEpochDay(epochDay).toString() would, without creating the LocalDate.
+     *
+     * @param out the builder to append to
+     * @param epochDay the date as days since 1970-01-01
+     */
+    static void appendDate(StringBuilder out, long epochDay) {
+        if (epochDay < MIN_FAST_EPOCH_DAY || epochDay > MAX_FAST_EPOCH_DAY) {
+            out.append(LocalDate.ofEpochDay(epochDay));     // Signed or extended years have their own format
+            return;
+        }
+
+        // Split into 400 year cycles of March-based years, so the leap day is the last day of a year
+        long shifted = epochDay + DAYS_0000_TO_1970;
+        long cycle = Math.floorDiv(shifted, DAYS_PER_CYCLE);
+        int dayOfCycle = (int) (shifted - cycle * DAYS_PER_CYCLE);
+        int yearOfCycle = (dayOfCycle - dayOfCycle / 1460 + dayOfCycle / 36524 - dayOfCycle / 146096) / 365;
+        int dayOfYear = dayOfCycle - (365 * yearOfCycle + yearOfCycle / 4 - yearOfCycle / 100);
+        int marchMonth = (5 * dayOfYear + 2) / 153;             // 0 = March ... 11 = February
+
+        int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        int month = marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+        int year = (int) (cycle * 400) + yearOfCycle + (month <= 2 ? 1 : 0);
+
+        appendDigits(out, year, 4);
+        out.append('-');
+        appendDigits(out, month, 2);
+        out.append('-');
+        appendDigits(out, day, 2);
+    }
+
+    /**
+     * Appends a non-negative number zero-padded to the given width.
+     */
+    private static void appendDigits(StringBuilder out, int value, int width) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Result of checking one locale.
+     */
+    private static final class LocaleCheck {
+        final Locale locale;
+        final boolean plain;
+
+        LocaleCheck(Locale locale, boolean plain) {
+            this.locale = locale;
+            this.plain = plain;
+        }
+    }
+}
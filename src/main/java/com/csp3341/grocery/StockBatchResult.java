@@ -0,0 +1,76 @@
+/**
+ * This file defines the StockBatchResult class for the grocery inventory management system.
+ * It summarises the outcome of a batch stock update: how many products were updated,
+ * and which product IDs were missing or rejected, so callers such as a POS gateway
+ * can process whole batches without per-item console output.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.Arrays;
+
+/**
+ * Immutable outcome of a batch stock update.
+ * Counts refer to distinct product IDs - repeated IDs in a batch are coalesced first.
+ */
+public final class StockBatchResult {
+    private final int appliedCount;
+    private final int[] missingIds;         // IDs with no matching product
+    private final int[] rejectedIds;        // IDs whose update broke a validation rule
+
+    /**
+     * Constructor - arrays are copied, so the result cannot change afterwards.
+     */
+    StockBatchResult(int appliedCount, int[] missingIds, int[] rejectedIds) {
+        this.appliedCount = appliedCount;
+        this.missingIds = missingIds.clone();
+        this.rejectedIds = rejectedIds.clone();
+    }
+
+    // Getters
+
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    public int getMissingCount() {
+        return missingIds.length;
+    }
+
+    public int getRejectedCount() {
+        return rejectedIds.length;
+    }
+
+    /**
+     * @return IDs in the batch that matched no product (ascending order)
+     */
+    public int[] getMissingIds() {
+        return missingIds.clone();
+    }
+
+    /**
+     * @return IDs whose update was rejected, e.g. stock would go negative (ascending order)
+     */
+    public int[] getRejectedIds() {
+        return rejectedIds.clone();
+    }
+
+    /**
+     * @return true if every product in the batch was updated
+     */
+    public boolean isFullyApplied() {
+        return missingIds.length == 0 && rejectedIds.length == 0;
+    }
+
+    // String Representation
+    /**
+     * Returns a one-line summary.
+     * Format: "Applied: n | Missing: n [ids] | Rejected: n [ids]"
+     */
+    @Override
+    public String toString() {
+        return String.format("Applied: %d | Missing: %d %s | Rejected: %d %s",
+                appliedCount, missingIds.length, Arrays.toString(missingIds),
+                rejectedIds.length, Arrays.toString(rejectedIds));
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * This file defines the StockValuation class for the grocery inventory management system.
+ * It keeps running totals of the stock held - products, units and value - for the whole
+ * inventory, for each category and for each supplier. The totals are adjusted as products
+ * are added, removed, restocked or repriced, so reading them never means going through
+ * the product list.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running stock totals of one inventory, kept by InventoryManager.
+ * Adding and removing products happens under the inventory's write lock; updates run
+ * under its read lock, from many threads at once. Each product remembers the stock it
+ * was last counted with (under one of this valuation's private locks), so an update adds
+ * only the difference, in O(1), and updates that arrive out of order still leave the
+ * totals exact.
+ *
+ * Values are counted in whole cents (price times quantity, rounded per product), so
+ * adding and subtracting them never accumulates rounding errors.
+ */
+final class StockValuation {
+    // Number of locks guarding the products' counted stock (a power of two)
+    private static final int LOCK_STRIPES = 64;
+
+    private final Counters overall = new Counters(0);
+    private final EnumMap<Category, Counters> byCategory = new EnumMap<>(Category.class);
+
+    // Counters per supplier ID - entries are added and removed under the inventory's write lock
+    private final IntHashMap<Counters> bySupplier = new IntHashMap<>();
+
+    // Guard each product's valuedQuantity and valuedCents, chosen by product ID. Private,
+    // so code outside the valuation cannot hold them, as it could a product's monitor
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    StockValuation() {
+        for (Category category : Category.values()) {
+            byCategory.put(category, new Counters(0));
+        }
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Counts a product that has just joined the inventory (caller holds the write lock).
+     */
+    void add(Product product) {
+        int quantity;
+        long cents;
+        synchronized (lockFor(product)) {
+            quantity = product.getQuantity();
+            cents = valueInCents(product.getPrice(), quantity);
+            product.valuedQuantity = quantity;
+            product.valuedCents = cents;
+        }
+
+        int supplierId = product.getSupplier().getSupplierId();
+        Counters supplierCounters = bySupplier.get(supplierId);
+        if (supplierCounters == null) {
+            supplierCounters = new Counters(supplierId);
+            bySupplier.put(supplierId, supplierCounters);
+        }
+        apply(product, supplierCounters, 1, quantity, cents);
+    }
+
+    /**
+     * Stops counting a product that has just left the inventory (caller holds the write lock).
+     */
+    void remove(Product product) {
+        int quantity;
+        long cents;
+        synchronized (lockFor(product)) {
+            quantity = product.valuedQuantity;
+            cents = product.valuedCents;
+        }
+
+        int supplierId = product.getSupplier().getSupplierId();
+        Counters supplierCounters = bySupplier.get(supplierId);
+        apply(product, supplierCounters, -1, -quantity, -cents);
+
+        // No updates run under the write lock, so the sum is exact
+        if (supplierCounters.products.sum() == 0) {
+            bySupplier.remove(supplierId);
+        }
+    }
+
+    /**
+     * Re-counts an owned product after its quantity or price changed (caller holds the
+     * read lock). Reads the product's current stock, so it does not matter which of
+     * several concurrent changes is reported first.
+     */
+    void update(Product product) {
+        long unitDelta;
+        long centDelta;
+        synchronized (lockFor(product)) {
+            int quantity = product.getQuantity();
+            long cents = valueInCents(product.getPrice(), quantity);
+            unitDelta = quantity - product.valuedQuantity;
+            centDelta = cents - product.valuedCents;
+            product.valuedQuantity = quantity;
+            product.valuedCents = cents;
+        }
+
+        if (unitDelta != 0 || centDelta != 0) {
+            apply(product, bySupplier.get(product.getSupplier().getSupplierId()), 0, unitDelta, centDelta);
+        }
+    }
+
+    /**
+     * Reads the current totals (caller holds the read or write lock).
+     * Costs one read per category and supplier, however many products there are.
+     */
+    InventoryValuation snapshot() {
+        EnumMap<Category, InventoryValuation.Totals> categoryTotals = new EnumMap<>(Category.class);
+        byCategory.forEach((category, counters) -> categoryTotals.put(category, counters.read()));
+
+        Map<Integer, InventoryValuation.Totals> supplierTotals = new HashMap<>();
+        for (Counters counters : bySupplier) {
+            supplierTotals.put(counters.supplierId, counters.read());
+        }
+        return new InventoryValuation(overall.read(), categoryTotals, supplierTotals);
+    }
+
+    /**
+     * Totals of a list of products, counted the same way as the running totals. Used for
+     * reports, on copies taken at capture, so the totals match the rows the report shows.
+     *
+     * @param products the products to count (not shared with other threads)
+     * @return their totals
+     */
+    static InventoryValuation totalsOf(List<? extends Product> products) {
+        Counters all = new Counters(0);
+        EnumMap<Category, Counters> categories = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            categories.put(category, new Counters(0));
+        }
+        IntHashMap<Counters> suppliers = new IntHashMap<>();
+
+        for (Product product : products) {
+            int quantity = product.getQuantity();
+            long cents = valueInCents(product.getPrice(), quantity);
+            int supplierId = product.getSupplier().getSupplierId();
+            Counters supplierCounters = suppliers.get(supplierId);
+            if (supplierCounters == null) {
+                supplierCounters = new Counters(supplierId);
+                suppliers.put(supplierId, supplierCounters);
+            }
+
+            all.add(1, quantity, cents);
+            categories.get(product.getCategory()).add(1, quantity, cents);
+            supplierCounters.add(1, quantity, cents);
+        }
+
+        EnumMap<Category, InventoryValuation.Totals> categoryTotals = new EnumMap<>(Category.class);
+        categories.forEach((category, counters) -> categoryTotals.put(category, counters.read()));
+        Map<Integer, InventoryValuation.Totals> supplierTotals = new HashMap<>();
+        for (Counters counters : suppliers) {
+            supplierTotals.put(counters.supplierId, counters.read());
+        }
+        return new InventoryValuation(all.read(), categoryTotals, supplierTotals);
+    }
+
+    /**
+     * Value of a stock level in cents, rounded to the nearest cent.
+     */
+    static long valueInCents(double price, int quantity) {
+        return Math.round(price * quantity * 100.0);
+    }
+
+    private Object lockFor(Product product) {
+        return locks[product.getId() & (LOCK_STRIPES - 1)];
+    }
+
+    private void apply(Product product, Counters supplierCounters, int products, long units, long cents) {
+        overall.add(products, units, cents);
+        byCategory.get(product.getCategory()).add(products, units, cents);
+        supplierCounters.add(products, units, cents);
+    }
+
+    /**
+     * Totals for one group of products. LongAdders, so concurrent stock updates
+     * do not all contend on the same counter.
+     */
+    private static final class Counters {
+        final int supplierId;       // Supplier counted, or 0 for the overall and category totals
+        final LongAdder products = new LongAdder();
+        final LongAdder units = new LongAdder();
+        final LongAdder cents = new LongAdder();
+
+        Counters(int supplierId) {
+            this.supplierId = supplierId;
+        }
+
+        void add(int productDelta, long unitDelta, long centDelta) {
+            if (productDelta != 0) {
+                products.add(productDelta);
+            }
+            units.add(unitDelta);
+            cents.add(centDelta);
+        }
+
+        InventoryValuation.Totals read() {
+            return new InventoryValuation.Totals(products.intValue(), units.sum(), cents.sum());
+        }
+    }
+}
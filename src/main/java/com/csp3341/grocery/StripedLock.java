@@ -0,0 +1,116 @@
+/**
+ * This file defines the StripedLock class for the grocery inventory management system.
+ * It is a read-write lock split into stripes, so threads taking the read lock at the
+ * same time - such as POS threads updating the stock of different products - each
+ * update their own stripe instead of all updating the same lock word.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-write lock made of several ReentrantReadWriteLocks (stripes).
+ * A reader locks only the stripe its thread maps to, so readers on different stripes
+ * never touch the same cache line. The write lock takes every stripe, in order, which
+ * makes writing cost one lock per stripe - fine for adding and removing products, which
+ * are rare next to stock updates.
+ *
+ * Like ReentrantReadWriteLock, both locks are reentrant, a writer may also take the read
+ * lock, and a reader must not try to take the write lock. Re-taking the write lock only
+ * counts the hold, so bulk loads can hold it around many writes (see
+ * InventoryManager.beginBulkLoad).
+ */
+final class StripedLock {
+    // Most stripes used, however many processors there are
+    private static final int MAX_STRIPES = 64;
+
+    private final ReentrantReadWriteLock[] stripes;
+    private final int mask;
+    private final WriteLock writeLock = new WriteLock();
+
+    /**
+     * Creates a lock with one stripe per processor (rounded up to a power of two).
+     */
+    StripedLock() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a lock with at least the given number of stripes (rounded up to a power of two).
+     */
+    StripedLock(int minStripes) {
+        int count = Integer.highestOneBit(Math.clamp(minStripes, 1, MAX_STRIPES) * 2 - 1);
+        stripes = new ReentrantReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+        mask = count - 1;
+    }
+
+    /**
+     * Returns the calling thread's stripe's read lock. A thread always maps to the same
+     * stripe, so it unlocks the lock it locked.
+     *
+     * @return the read lock for this thread
+     */
+    Lock readLock() {
+        return stripes[(int) Thread.currentThread().threadId() & mask].readLock();
+    }
+
+    /**
+     * @return the write lock, which excludes readers on every stripe
+     */
+    WriteLock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * @return number of stripes
+     */
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Exclusive side of the lock: holds the write lock of every stripe.
+     */
+    final class WriteLock {
+        // Thread holding every stripe and how many times it took the lock (written only
+        // by the holder, so no other thread can ever read itself here)
+        private Thread holder;
+        private int holds;
+
+        private WriteLock() {
+        }
+
+        void lock() {
+            Thread current = Thread.currentThread();
+            if (holder == current) {
+                holds++;
+                return;
+            }
+
+            for (ReentrantReadWriteLock stripe : stripes) {
+                stripe.writeLock().lock();
+            }
+            holder = current;
+            holds = 1;
+        }
+
+        void unlock() {
+            if (holder != Thread.currentThread()) {
+                throw new IllegalMonitorStateException("Write lock not held by this thread");
+            }
+            if (--holds > 0) {
+                return;
+            }
+
+            holder = null;
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].writeLock().unlock();
+            }
+        }
+    }
+}
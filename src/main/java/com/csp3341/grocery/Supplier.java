@@ -16,9 +16,13 @@ public class Supplier {
     // Immutable field - supplier ID should not change
     private final int supplierId;
 
-    // Mutable fields - can be updated
-    private String supplierName;
-    private String contact;
+    // Mutable fields - can be updated (volatile so changes are visible across threads)
+    private volatile String supplierName;
+    private volatile String contact;
+
+    // Inventory this supplier belongs to (set and cleared by InventoryManager, null if none)
+    // Told about name and contact changes, which show up in its reports
+    volatile InventoryManager owner;
 
     /**
      * Constructor with validation for all arguments.
@@ -64,14 +68,47 @@ public class Supplier {
         if (supplierName == null || supplierName.trim().isEmpty()) {
             throw new IllegalArgumentException("Supplier name cannot be null or empty");
         }
+        checkOwnerWritable();
         this.supplierName = supplierName;
+        notifyOwner();
     }
 
     public void setContact(String contact) {
         if (contact == null || contact.trim().isEmpty()) {
             throw new IllegalArgumentException("Contact information cannot be null or empty");
         }
+        checkOwnerWritable();
         this.contact = contact;
+        notifyOwner();
+    }
+
+    /**
+     * Lets the owning inventory refuse a change before it is made, once its mutation log
+     * can no longer be written (see InventoryManager.checkWritable).
+     */
+    private void checkOwnerWritable() {
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.checkWritable();
+        }
+    }
+
+    /**
+     * Tells the owning inventory (if any) that this supplier's details changed.
+     */
+    private void notifyOwner() {
+        InventoryManager currentOwner = owner;
+        if (currentOwner != null) {
+            currentOwner.supplierChanged(this);
+        }
+    }
+
+    /**
+     * Returns a copy of this supplier's current details for a report, detached from any
+     * inventory, so a rename while the report is written does not change its rows.
+     */
+    Supplier copyForReport() {
+        return new Supplier(supplierId, supplierName, contact);
     }
 
     // String Representation
@@ -0,0 +1,122 @@
+/**
+ * This file defines the ZipfSampler class used by the grocery inventory system's
+ * synthetic data generator. It draws ranks from a Zipf distribution - rank k is picked
+ * with probability proportional to 1 / k^exponent - which models how a few products
+ * (and suppliers) account for most of the sales in a real store.
+ */
+
+package com.csp3341.grocery;
+
+import java.util.Random;
+
+/**
+ * Zipf distributed ranks from 1 to n.
+ * Uses rejection-inversion sampling (Hormann and Derflinger, "Rejection-inversion to
+ * generate variates from monotone discrete distributions", 1996): each sample costs a
+ * few logarithms and exponentials and is accepted on the first try almost always, with
+ * no tables, so n can be in the millions.
+ *
+ * Immutable: the random source is passed in, so one sampler can serve several threads.
+ */
+final class ZipfSampler {
+    private final int n;
+    private final double exponent;
+
+    // Precomputed bounds of the inversion (see the paper)
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    /**
+     * Constructor - sets up a sampler over ranks 1 to n.
+     *
+     * @param n number of ranks (must be positive)
+     * @param exponent skew (must be positive - 1.0 is classic Zipf, higher is more skewed)
+     * @throws IllegalArgumentException if n or exponent is not positive
+     */
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Number of ranks must be positive");
+        }
+        if (!(exponent > 0)) {
+            throw new IllegalArgumentException("Zipf exponent must be positive");
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * Draws one rank.
+     *
+     * @param random source of randomness
+     * @return a rank from 1 (most popular) to n
+     */
+    int sample(Random random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > n) {
+                k = n;
+            }
+
+            // Accept straight away near the centre of the hat, else compare with the exact mass
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Integral of h from 1 to x (up to a constant): (x^(1-exponent) - 1) / (1 - exponent),
+     * or log(x) when exponent is 1.
+     */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    /**
+     * The hat function h(x) = 1 / x^exponent.
+     */
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    /**
+     * Inverse of hIntegral.
+     */
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            t = -1;     // Rounding can push t just past -1, where log1p would fail
+        }
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    /**
+     * log(1 + x) / x, accurate near 0 (Taylor series there).
+     */
+    private static double log1pOverX(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    /**
+     * (e^x - 1) / x, accurate near 0 (Taylor series there).
+     */
+    private static double expm1OverX(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * This file defines the tests for CatalogueImporter: quoted fields keep their commas,
+ * quotes and spaces, and every row that cannot be imported is reported with its line
+ * number and reason while the rest of the file is still imported.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for CatalogueImporter, importing small files into an empty inventory.
+ */
+class CatalogueImporterTest {
+    @TempDir
+    Path tempDir;
+
+    private InventoryManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new InventoryManager();
+        manager.setClock(Clock.fixed(Instant.parse("2026-06-01T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        manager.close();
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndSpaces() throws IOException {
+        ImportResult result = importLines(
+                "SUPPLIER,1,\"Farms, Ltd\",\"say \"\"hi\"\"\"",
+                "  PERISHABLE , 10 , \"  Milk, Full Cream \" ,250.50,12,DAIRY,1,2026-07-01,3",
+                "NON_PERISHABLE,11,Rice,\"1,000\",5,DRIED_FOOD,1,\"\"",
+                "NON_PERISHABLE,12,Salt,90,5,DRIED_FOOD,1,\"2 years\"  ");
+
+        assertEquals(1, result.getSuppliersImported(), "suppliers imported");
+        assertEquals(2, result.getProductsImported(), "products imported");
+        assertEquals(1, result.getRejectedCount(), "rows rejected");
+        assertEquals(3, result.getRejectedRows().get(0).getLineNumber(), "line of the price with a comma");
+
+        Supplier supplier = manager.findSupplier(1).orElseThrow();
+        assertEquals("Farms, Ltd", supplier.getSupplierName(), "supplier name");
+        assertEquals("say \"hi\"", supplier.getContact(), "supplier contact");
+
+        Perishable milk = (Perishable) manager.findProduct(10).orElseThrow();
+        assertEquals("  Milk, Full Cream ", milk.getName(), "quoted name kept exactly");
+        assertEquals(250.50, milk.getPrice(), "price");
+        assertEquals(12, milk.getQuantity(), "quantity");
+        assertEquals(LocalDate.of(2026, 7, 1), milk.getExpiryDate(), "expiry date");
+        assertEquals(3, milk.getLowStockThreshold(), "low stock threshold");
+        assertEquals("2 years", ((NonPerishable) manager.findProduct(12).orElseThrow()).getShelfLife(), "shelf life");
+    }
+
+    @Test
+    void rejectedRowsAreReportedWithTheirLineNumbers() throws IOException {
+        ImportResult result = importLines(
+                "# Catalogue with a mistake on most lines",
+                "SUPPLIER,1,Fresh Farms,fresh@example.com",
+                "",
+                "NON_PERISHABLE,1,Rice,100,5,DRIED_FOOD,1,1 year",
+                "FROZEN,2,Peas,100,5,FROZEN,1,1 year",
+                "NON_PERISHABLE,3,Rice,abc,5,DRIED_FOOD,1,1 year",
+                "NON_PERISHABLE,4,Rice,100,5,SNACKS_AND_SWEETS,1,1 year",
+                "NON_PERISHABLE,5,Rice,100,5,DRIED_FOOD,9,1 year",
+                "PERISHABLE,6,Milk,100,5,DAIRY,1,01/07/2026",
+                "PERISHABLE,7,Milk,100,5,DAIRY,1,2026-02-30",
+                "NON_PERISHABLE,1,Rice again,100,5,DRIED_FOOD,1,1 year",
+                "NON_PERISHABLE,8,\"Rice,100,5,DRIED_FOOD,1,1 year",
+                "NON_PERISHABLE,9,\"Rice\" Bag,100,5,DRIED_FOOD,1,1 year",
+                "NON_PERISHABLE,10,Rice,100,5,DRIED_FOOD,1,1 year,5,extra",
+                "SUPPLIER,2,Only a name",
+                "NON_PERISHABLE,11,Rice,100,-5,DRIED_FOOD,1,1 year",
+                "NON_PERISHABLE,12,Rice,100,5,DRIED_FOOD,1,1 year");
+
+        assertEquals(1, result.getSuppliersImported(), "suppliers imported");
+        assertEquals(2, result.getProductsImported(), "products imported (lines 4 and 17)");
+        assertEquals("Rice", manager.findProduct(1).orElseThrow().getName(), "product 1 kept its first row");
+        assertEquals(2, manager.getProductCount(), "products in the inventory");
+
+        List<ImportResult.RejectedRow> rejected = result.getRejectedRows();
+        long[] lines = {5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+        String[] reasons = {
+            "Unknown record type 'FROZEN'",
+            "Invalid price: 'abc'",
+            "Unknown category: 'SNACKS_AND_SWEETS'",
+            "Supplier with ID 9 not found",
+            "Invalid date format: '01/07/2026'",
+            "Invalid date format: '2026-02-30'",
+            "already exists",
+            "Unterminated quoted field",
+            "Unexpected text after quoted field",
+            "Too many fields",
+            "Expected 4 fields for SUPPLIER but found 3",
+            "negative"
+        };
+        assertEquals(lines.length, rejected.size(), "rows rejected: " + rejected);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(lines[i], rejected.get(i).getLineNumber(), "line number of rejection " + i);
+            assertTrue(rejected.get(i).getReason().contains(reasons[i]),
+                    "reason on line " + lines[i] + ": " + rejected.get(i).getReason());
+        }
+    }
+
+    @Test
+    void productsPastTheirExpiryAreImportedWithAWarning() throws IOException {
+        ImportResult result = importLines(
+                "SUPPLIER,1,Fresh Farms,fresh@example.com",
+                "PERISHABLE,1,Old Milk,100,5,DAIRY,1,2026-05-31",
+                "PERISHABLE,2,Fresh Milk,100,5,DAIRY,1,2026-06-01");
+
+        assertEquals(2, result.getProductsImported(), "products imported");
+        assertEquals(0, result.getRejectedCount(), "rows rejected");
+        assertEquals(1, result.getWarningCount(), "warnings");
+        assertEquals(2, result.getWarnings().get(0).getLineNumber(), "line number of the warning");
+        assertTrue(result.getWarnings().get(0).getMessage().contains("2026-05-31"),
+                "warning: " + result.getWarnings().get(0).getMessage());
+    }
+
+    private ImportResult importLines(String... lines) throws IOException {
+        Path file = tempDir.resolve("catalogue.csv");
+        Files.write(file, List.of(lines));
+        return new CatalogueImporter(manager).importFile(file);
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * This file defines the tests for IntHashMap: lookups, replacement, removal through
+ * shared probe chains, growing and compacting, all while keeping insertion order.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for IntHashMap, checked against LinkedHashMap where order matters.
+ */
+class IntHashMapTest {
+
+    @Test
+    void replacingAValueKeepsItsPosition() {
+        IntHashMap<String> map = new IntHashMap<>();
+        map.put(3, "c");
+        map.put(1, "a");
+        map.put(2, "b");
+
+        assertEquals("a", map.put(1, "A"), "previous value");
+        assertEquals(List.of("c", "A", "b"), map.toList(), "values after replacing key 1");
+        assertEquals(3, map.size(), "size");
+    }
+
+    @Test
+    void keysOfAnySignAreFound() {
+        IntHashMap<String> map = new IntHashMap<>();
+        int[] keys = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 42};
+        for (int key : keys) {
+            map.put(key, "v" + key);
+        }
+        for (int key : keys) {
+            assertEquals("v" + key, map.get(key), "value of key " + key);
+        }
+        assertNull(map.get(7), "value of a missing key");
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null), "null value");
+    }
+
+    @Test
+    void removingAKeyKeepsTheRestOfItsProbeChainReachable() {
+        // Keys with the same home slot are stored one after another, in one probe chain
+        IntHashMap<String> map = new IntHashMap<>();
+        int[] chain = collidingKeys(5);
+        for (int key : chain) {
+            map.put(key, "v" + key);
+        }
+
+        assertEquals("v" + chain[1], map.remove(chain[1]), "removed value");
+        assertNull(map.remove(chain[1]), "removing the same key twice");
+        assertFalse(map.containsKey(chain[1]), "removed key still present");
+        for (int i = 0; i < chain.length; i++) {
+            if (i != 1) {
+                assertEquals("v" + chain[i], map.get(chain[i]), "key " + chain[i] + " after removing " + chain[1]);
+            }
+        }
+
+        // Put back, it goes to the end of the insertion order
+        map.put(chain[1], "again");
+        assertEquals("again", map.toList().get(chain.length - 1), "re-added value");
+        assertEquals(chain.length, map.size(), "size after re-adding");
+    }
+
+    @Test
+    void growingKeepsEveryEntryInOrder() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            map.put(i * 7 + 1, i);
+        }
+
+        assertEquals(count, map.size(), "size");
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i * 7 + 1), "value of key " + (i * 7 + 1));
+        }
+        List<Integer> values = map.toList();
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.valueOf(i), values.get(i), "value at position " + i);
+        }
+    }
+
+    @Test
+    void addingAndRemovingForeverDoesNotFillTheTable() {
+        // Removed entries leave deleted markers; compaction must clear them, or probes never end
+        IntHashMap<Integer> map = new IntHashMap<>();
+        map.put(-1, -1);
+        for (int i = 0; i < 1_000_000; i++) {
+            map.put(i, i);
+            assertEquals(Integer.valueOf(i), map.remove(i), "removed value");
+        }
+
+        assertEquals(1, map.size(), "size");
+        assertEquals(Integer.valueOf(-1), map.get(-1), "value kept through the churn");
+        assertNull(map.get(999_999), "value of a removed key");
+        assertEquals(List.of(-1), map.toList(), "values");
+    }
+
+    @Test
+    void randomChangesMatchLinkedHashMap() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        LinkedHashMap<Integer, Integer> expected = new LinkedHashMap<>();
+        Random random = new Random(1);
+
+        for (int step = 0; step < 200_000; step++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "removed value of key " + key);
+            } else {
+                assertEquals(expected.put(key, step), map.put(key, step), "previous value of key " + key);
+            }
+
+            if (step % 10_000 == 0) {
+                assertEquals(new ArrayList<>(expected.values()), map.toList(), "values at step " + step);
+            }
+        }
+
+        assertEquals(expected.size(), map.size(), "size");
+        assertEquals(new ArrayList<>(expected.values()), map.toList(), "values");
+        List<Integer> iterated = new ArrayList<>();
+        map.forEach(iterated::add);
+        assertEquals(map.toList(), iterated, "iteration order");
+    }
+
+    @Test
+    void entriesCanBeRemovedWhileIterating() {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        for (int i = 1; i <= 10; i++) {
+            map.put(i, i);
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        for (Integer value : map) {
+            seen.add(value);
+            if (value % 2 == 0) {
+                map.remove(value);
+            }
+        }
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), seen, "values iterated");
+        assertEquals(List.of(1, 3, 5, 7, 9), map.toList(), "values left");
+        assertTrue(map.containsKey(9), "key 9 left");
+    }
+
+    /**
+     * Returns keys that all hash to the same slot of a small map's probe table.
+     */
+    private static int[] collidingKeys(int count) {
+        int[] keys = new int[count];
+        int found = 0;
+        int home = homeSlot(1);
+        for (int key = 1; found < count; key++) {
+            if (homeSlot(key) == home) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Home slot in the probe table of a new map (16 slots), mixed as IntHashMap does.
+     */
+    private static int homeSlot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & 15;
+    }
+}
@@ -0,0 +1,445 @@
+/**
+ * This file defines the concurrency stress tests for InventoryManager.
+ * Many threads update the stock of the same few products while other threads add and
+ * remove products and run reports, and the tests then check that no update was lost,
+ * that no product ID was handed out twice, and that every report agrees with itself.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests for one InventoryManager shared between threads.
+ *
+ * Stock threads share a small set of products, so almost every update races with
+ * another one on the same product. Each thread counts what it changed; since
+ * adjustments and successful decrements must never be lost, the final quantity of
+ * every product is known exactly. Absolute updates (updateStock) go to a separate
+ * set of products, whose final quantity must be the last level one of the threads set.
+ */
+class InventoryManagerConcurrencyTest {
+    private static final int STOCK_THREADS = 8;
+    private static final int STRUCTURE_THREADS = 2;
+    private static final int REPORT_THREADS = 2;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    // Fewer with a mutation log - every operation waits for a disk sync
+    private static final int LOGGED_OPERATIONS_PER_THREAD = 2_000;
+
+    private static final int SHARED_PRODUCTS = 8;
+    private static final int INITIAL_QUANTITY = 1_000_000;
+
+    // Product the checkout threads compete for - sells out part way through the run
+    private static final int SCARCE_QUANTITY = 5_000;
+
+    // Products and complete reports in the report consistency test
+    private static final int REPORT_PRODUCTS = 2_000;
+    private static final int REPORT_RUNS = 20;
+
+    @TempDir
+    Path tempDir;
+
+    private PrintStream console;
+    private InventoryManager manager;
+    private Supplier supplier;
+
+    @BeforeEach
+    void setUp() {
+        // addProduct and removeProduct report on the console - keep the test output readable
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        manager = new InventoryManager();
+        supplier = new Supplier(1, "Fresh Farms", "fresh@example.com");
+        manager.addSupplier(supplier);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        manager.close();
+        System.setOut(console);
+    }
+
+    @Test
+    void concurrentStockUpdatesAreNeverLost() throws Exception {
+        runStressTest(OPERATIONS_PER_THREAD);
+    }
+
+    @Test
+    void concurrentStockUpdatesAreNeverLostWithMutationLog() throws Exception {
+        // Same run with every change logged, then check the log rebuilds the same inventory
+        manager.close();
+        Path logFile = tempDir.resolve("inventory.wal");
+        manager = InventoryManager.open(logFile);
+        supplier = new Supplier(1, "Fresh Farms", "fresh@example.com");
+        manager.addSupplier(supplier);
+
+        runStressTest(LOGGED_OPERATIONS_PER_THREAD);
+
+        List<Product> expected = manager.getAllProducts();
+        manager.close();
+        manager = InventoryManager.open(logFile);
+
+        List<Product> replayed = manager.getAllProducts();
+        assertEquals(expected.size(), replayed.size(), "product count after replay");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), replayed.get(i).getId(), "product ID after replay");
+            assertEquals(expected.get(i).getQuantity(), replayed.get(i).getQuantity(),
+                    "quantity of product " + expected.get(i).getId() + " after replay");
+        }
+    }
+
+    @Test
+    void stockUpdatesDoNotWaitForAProductsMonitor() throws Exception {
+        // Product is a public type, so any caller may lock it - the valuation must not use that lock
+        Product product = manager.findProduct(addProducts(1, 10)[0]).orElseThrow();
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            synchronized (product) {
+                Future<?> update = pool.submit(() -> manager.adjustStock(product.getId(), 5));
+                update.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(15, product.getQuantity(), "quantity after the update");
+        assertEquals(15, manager.getValuation().getOverall().getTotalUnits(), "total units in the valuation");
+    }
+
+    @Test
+    void reportsAgreeWithThemselvesWhileStockChanges() throws Exception {
+        // Quantities move back and forth across the low stock threshold (5) while reports run
+        int[] ids = addProducts(REPORT_PRODUCTS, 5);
+        Path reportFile = tempDir.resolve("complete.txt");
+        Path lowStockFile = tempDir.resolve("low-stock.txt");
+
+        ExecutorService pool = Executors.newFixedThreadPool(STOCK_THREADS + 1);
+        AtomicBoolean reportsDone = new AtomicBoolean();
+        List<Future<?>> writers = new ArrayList<>();
+        try (ReportService reports = new ReportService(manager)) {
+            for (int t = 0; t < STOCK_THREADS; t++) {
+                int thread = t;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(thread);
+                    while (!reportsDone.get()) {
+                        manager.updateStock(ids[random.nextInt(ids.length)], random.nextInt(11));
+                    }
+                    return null;
+                }));
+            }
+            writers.add(pool.submit(() -> {
+                for (int i = 0; !reportsDone.get(); i++) {
+                    supplier.setSupplierName("Fresh Farms " + i);
+                }
+                return null;
+            }));
+
+            for (int run = 0; run < REPORT_RUNS; run++) {
+                ReportJob complete = reports.submitCompleteReport(reportFile.toString(), true);
+                complete.getCompletion().get(1, TimeUnit.MINUTES);
+                checkCompleteReport(Files.readAllLines(reportFile), run);
+
+                ReportJob lowStock = reports.submitLowStockReport(lowStockFile.toString());
+                lowStock.getCompletion().get(1, TimeUnit.MINUTES);
+                for (String row : productRows(Files.readAllLines(lowStockFile))) {
+                    assertTrue(row.contains("[LOW STOCK]"), "low stock report row not low on stock: " + row);
+                }
+            }
+        } finally {
+            reportsDone.set(true);
+            for (Future<?> writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks one complete report file: the summary counts match the sections, the
+     * sections match the tags on the rows, and every row shows the same supplier name
+     * as the supplier totals.
+     */
+    private static void checkCompleteReport(List<String> lines, int run) {
+        Map<String, List<String>> sections = new HashMap<>();
+        Map<String, String> summary = new HashMap<>();
+        String section = null;
+        String supplierName = null;
+        String detailsName = null;
+        for (String line : lines) {
+            if (line.endsWith(":") && !line.contains(": ")) {
+                section = line;
+            } else if (line.contains(" | Qty: ")) {
+                sections.computeIfAbsent(section, key -> new ArrayList<>()).add(line);
+            } else if (line.startsWith("1 | ") && "VALUE BY SUPPLIER:".equals(section)) {
+                supplierName = line.substring(4, line.indexOf(": "));
+            } else if (line.startsWith("1 | ")) {
+                detailsName = line.substring(4, line.lastIndexOf(" | "));
+            } else if (line.contains(": ")) {
+                summary.put(line.substring(0, line.indexOf(": ")), line.substring(line.indexOf(": ") + 2));
+            }
+        }
+
+        List<String> all = sections.getOrDefault("ALL PRODUCTS:", List.of());
+        List<String> expired = sections.getOrDefault("EXPIRED PRODUCTS:", List.of());
+        List<String> lowStock = sections.getOrDefault("LOW STOCK PRODUCTS:", List.of());
+        String report = "report " + run + ": ";
+
+        assertEquals(REPORT_PRODUCTS, all.size(), report + "rows in ALL PRODUCTS");
+        assertEquals(summary.get("Total Products"), String.valueOf(all.size()), report + "Total Products");
+        assertEquals(summary.get("Expired Products"), String.valueOf(expired.size()), report + "Expired Products");
+        assertEquals(summary.get("Low Stock Products"), String.valueOf(lowStock.size()),
+                report + "Low Stock Products");
+
+        assertEquals(supplierName, detailsName, report + "supplier name in SUPPLIER DETAILS");
+
+        long units = 0;
+        int taggedLow = 0;
+        for (String row : all) {
+            int qty = row.indexOf(" | Qty: ") + 8;
+            units += Long.parseLong(row.substring(qty, row.indexOf(" | ", qty)));
+            if (row.contains("[LOW STOCK]")) {
+                taggedLow++;
+            }
+            int name = row.indexOf(" | Supplier: ") + 13;
+            int end = row.indexOf(" | ", name);
+            if (row.indexOf(" [", name) >= 0) {
+                end = Math.min(end, row.indexOf(" [", name));
+            }
+            assertEquals(supplierName, row.substring(name, end), report + "supplier name in row " + row);
+        }
+        assertEquals(summary.get("Total Units"), String.valueOf(units), report + "Total Units");
+        assertEquals(lowStock.size(), taggedLow, report + "rows tagged [LOW STOCK]");
+        for (String row : lowStock) {
+            assertTrue(row.contains("[LOW STOCK]"), report + "LOW STOCK PRODUCTS row not low on stock: " + row);
+        }
+    }
+
+    /**
+     * Returns the product rows of a single-list report file.
+     */
+    private static List<String> productRows(List<String> lines) {
+        List<String> rows = new ArrayList<>();
+        for (String line : lines) {
+            if (line.contains(" | Qty: ")) {
+                rows.add(line);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Runs stock, structure and report threads against the shared inventory together,
+     * then checks every final quantity and that all product IDs are unique.
+     */
+    private void runStressTest(int operationsPerThread) throws Exception {
+        int[] sharedIds = addProducts(SHARED_PRODUCTS, INITIAL_QUANTITY);
+        int[] levelIds = addProducts(SHARED_PRODUCTS, 0);
+        int scarceId = addProducts(1, SCARCE_QUANTITY)[0];
+
+        // Per product: net change from adjustments and decrements, by all threads together
+        AtomicLong[] netChange = new AtomicLong[SHARED_PRODUCTS];
+        for (int i = 0; i < SHARED_PRODUCTS; i++) {
+            netChange[i] = new AtomicLong();
+        }
+        AtomicLong scarceSold = new AtomicLong();
+        AtomicLong scarceRefused = new AtomicLong();
+
+        // Per level product: the last level each thread set
+        int[][] lastLevels = new int[STOCK_THREADS][SHARED_PRODUCTS];
+
+        // Every ID handed out to a structure thread, and the products still in the inventory
+        Set<Integer> allocatedIds = ConcurrentHashMap.newKeySet();
+        Set<Integer> keptIds = ConcurrentHashMap.newKeySet();
+        AtomicLong duplicateIds = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(STOCK_THREADS + STRUCTURE_THREADS + REPORT_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writersDone = new AtomicBoolean();
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < STOCK_THREADS; t++) {
+                int thread = t;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(thread);
+                    start.await();
+
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        int index = random.nextInt(SHARED_PRODUCTS);
+                        switch (random.nextInt(4)) {
+                            case 0 -> {
+                                int delta = 1 + random.nextInt(5);
+                                manager.adjustStock(sharedIds[index], delta);
+                                netChange[index].addAndGet(delta);
+                            }
+                            case 1 -> {
+                                int delta = -(1 + random.nextInt(5));
+                                manager.adjustStock(sharedIds[index], delta);
+                                netChange[index].addAndGet(delta);
+                            }
+                            case 2 -> {
+                                if (manager.tryDecrementStock(scarceId, 1) >= 0) {
+                                    scarceSold.incrementAndGet();
+                                } else {
+                                    scarceRefused.incrementAndGet();
+                                }
+                            }
+                            default -> {
+                                int level = random.nextInt(1000);
+                                manager.updateStock(levelIds[index], level);
+                                lastLevels[thread][index] = level;
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            for (int t = 0; t < STRUCTURE_THREADS; t++) {
+                int thread = t;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(100 + thread);
+                    start.await();
+
+                    List<Integer> added = new ArrayList<>();
+                    for (int i = 0; i < operationsPerThread / 20; i++) {
+                        int id = manager.allocateProductId();
+                        if (!allocatedIds.add(id)) {
+                            duplicateIds.incrementAndGet();
+                        }
+                        manager.addProduct(newProduct(id, random.nextInt(100)));
+                        added.add(id);
+
+                        // Remove every other product again, so the indexes shrink as well as grow
+                        if (i % 2 == 1) {
+                            manager.removeProduct(added.remove(random.nextInt(added.size())));
+                        }
+                    }
+                    keptIds.addAll(added);
+                    return null;
+                }));
+            }
+
+            for (int t = 0; t < REPORT_THREADS; t++) {
+                int thread = t;
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    Path reportFile = tempDir.resolve("report-" + thread + ".txt");
+
+                    while (!writersDone.get()) {
+                        manager.getAllProducts();
+                        manager.getProductsByCategory(Category.DAIRY);
+                        manager.countLowStockProducts();
+                        manager.findExpiringWithin(30);
+                        manager.searchProducts("stress", 10);
+                        manager.getValuation();
+                        manager.writeCompleteReport(reportFile.toString(), true);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(5, TimeUnit.MINUTES);        // Rethrows any failure in the thread
+            }
+            writersDone.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            writersDone.set(true);
+            pool.shutdownNow();
+        }
+
+        // No adjustment lost
+        for (int i = 0; i < SHARED_PRODUCTS; i++) {
+            assertEquals(INITIAL_QUANTITY + netChange[i].get(), quantityOf(sharedIds[i]),
+                    "quantity of shared product " + sharedIds[i]);
+        }
+
+        // No checkout lost, and none sold stock that was not there
+        assertEquals(SCARCE_QUANTITY - scarceSold.get(), quantityOf(scarceId), "quantity of scarce product");
+        if (scarceRefused.get() > 0) {
+            assertEquals(0, quantityOf(scarceId), "scarce product refused a sale while in stock");
+        }
+
+        // Absolute levels: the last level some thread set
+        for (int i = 0; i < SHARED_PRODUCTS; i++) {
+            int finalLevel = quantityOf(levelIds[i]);
+            boolean setByAThread = false;
+            for (int[] threadLevels : lastLevels) {
+                setByAThread |= threadLevels[i] == finalLevel;
+            }
+            assertTrue(setByAThread, "level product " + levelIds[i] + " ended at " + finalLevel
+                    + ", which no thread set last");
+        }
+
+        // Unique IDs, and exactly the products that were kept
+        assertEquals(0, duplicateIds.get(), "product IDs handed out twice");
+        List<Product> products = manager.getAllProducts();
+        Set<Integer> ids = new HashSet<>();
+        for (Product product : products) {
+            assertTrue(ids.add(product.getId()), "product ID " + product.getId() + " listed twice");
+        }
+        assertEquals(2 * SHARED_PRODUCTS + 1 + keptIds.size(), products.size(), "product count");
+        assertTrue(ids.containsAll(keptIds), "a kept product is missing");
+
+        // Running totals saw every change too
+        long units = 0;
+        for (Product product : products) {
+            units += product.getQuantity();
+        }
+        assertEquals(units, manager.getValuation().getOverall().getTotalUnits(), "total units in the valuation");
+    }
+
+    /**
+     * Adds products with fresh IDs and returns the IDs.
+     */
+    private int[] addProducts(int count, int quantity) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = manager.allocateProductId();
+            manager.addProduct(newProduct(ids[i], quantity));
+        }
+        return ids;
+    }
+
+    private Product newProduct(int id, int quantity) {
+        return new NonPerishable(id, "Stress Item " + id, 100.0, quantity, Category.DAIRY, supplier, "12 months");
+    }
+
+    private int quantityOf(int productId) {
+        return manager.findProduct(productId).orElseThrow().getQuantity();
+    }
+}
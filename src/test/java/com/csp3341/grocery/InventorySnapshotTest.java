@@ -0,0 +1,215 @@
+/**
+ * This file defines the tests for InventorySnapshot: saving an inventory and loading it
+ * back field for field, and rejecting snapshot files that are corrupt or incomplete.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip and validation tests for inventory snapshots.
+ */
+class InventorySnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private PrintStream console;
+    private Path logFile;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        logFile = tempDir.resolve("inventory.wal");
+        snapshotFile = tempDir.resolve("inventory.snapshot");
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(console);
+    }
+
+    @Test
+    void snapshotRestoresEveryField() throws IOException {
+        InventoryManager original = InventoryManager.open(logFile);
+        fillInventory(original);
+
+        original.saveSnapshotAsync(snapshotFile).join();
+        long logLengthAtSnapshot = Files.size(logFile);
+
+        InventoryManager loaded = new InventoryManager();
+        long logPosition = InventorySnapshot.loadInto(snapshotFile, loaded);
+
+        assertEquals(logLengthAtSnapshot, logPosition, "log position stored in the snapshot");
+        assertSameInventory(original, loaded);
+        original.close();
+    }
+
+    @Test
+    void openReplaysOnlyChangesAfterSnapshot() throws IOException {
+        InventoryManager original = InventoryManager.open(logFile);
+        fillInventory(original);
+        original.saveSnapshotAsync(snapshotFile).join();
+
+        // Changes after the snapshot are only in the log
+        original.updateStock(1, 3);
+        original.findProduct(2).orElseThrow().setPrice(455.25);
+        original.removeProduct(4);
+        original.findSupplier(1).orElseThrow().setContact("orders@example.com");
+        original.addProduct(new NonPerishable(original.allocateProductId(), "Green Tea 100g", 890.0, 12,
+                Category.BEVERAGES, original.findSupplier(2).orElseThrow(), "24 months"));
+        original.close();
+
+        // Anything replayed twice would fail (duplicate IDs) or change the values
+        InventoryManager reopened = InventoryManager.open(logFile, snapshotFile);
+        assertSameInventory(original, reopened);
+        reopened.close();
+    }
+
+    @Test
+    void corruptSnapshotIsRejected() throws IOException {
+        writeSnapshot();
+
+        // Flip one byte in the middle of the product data
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer oneByte = ByteBuffer.allocate(1);
+            long middle = channel.size() / 2;
+            channel.read(oneByte, middle);
+            oneByte.put(0, (byte) (oneByte.get(0) ^ 0x5A));
+            channel.write(oneByte.flip(), middle);
+        }
+
+        assertRejected();
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() throws IOException {
+        writeSnapshot();
+        long size = Files.size(snapshotFile);
+
+        for (long length : new long[] {size - 1, size / 2, 12, 0}) {
+            try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+            assertRejected();
+        }
+    }
+
+    @Test
+    void inventoryWithoutLogCannotBeSnapshotted() {
+        InventoryManager inMemory = new InventoryManager();
+        inMemory.addSupplier("Fresh Farms", "fresh@example.com");
+
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> inMemory.saveSnapshotAsync(snapshotFile).join());
+        assertTrue(failure.getCause() instanceof IllegalStateException, "cause: " + failure.getCause());
+        assertFalse(Files.exists(snapshotFile), "snapshot file was written");
+    }
+
+    /**
+     * Suppliers and products covering every stored field: both product types, expiry
+     * dates, shelf lives, custom thresholds and prices with cents. Removing the newest
+     * product and supplier leaves the ID counters ahead of the highest IDs in use.
+     */
+    private static void fillInventory(InventoryManager manager) {
+        manager.addSupplier(new Supplier(1, "Fresh Farms", "fresh@example.com"));
+        manager.addSupplier(new Supplier(2, "Ceylon Tea Co", "+94 11 234 5678"));
+        manager.addSupplier(new Supplier(3, "Closed Supplier", "none"));
+        Supplier fresh = manager.findSupplier(1).orElseThrow();
+        Supplier tea = manager.findSupplier(2).orElseThrow();
+
+        manager.addProduct(new Perishable(1, "Fresh Milk 1L", 450.75, 24, Category.DAIRY, fresh, "2030-03-15"));
+        manager.addProduct(new Perishable(2, "Kotmalé Yoghurt", 120.0, 2, Category.DAIRY, fresh, "2031-12-31"));
+        manager.addProduct(new NonPerishable(3, "Basmati Rice 5kg", 2450.5, 60, Category.DRIED_FOOD, tea,
+                "18 months"));
+        manager.addProduct(new NonPerishable(4, "Black Tea 400g", 1299.99, 0, Category.BEVERAGES, tea,
+                "2 years"));
+        manager.addProduct(new Perishable(5, "Chicken Breast", 1890.0, 7, Category.MEAT, fresh, "2031-01-02"));
+        manager.findProduct(2).orElseThrow().setLowStockThreshold(10);
+        manager.findProduct(3).orElseThrow().setLowStockThreshold(0);
+
+        manager.removeProduct(5);
+        manager.removeSupplier(3);
+    }
+
+    private void writeSnapshot() throws IOException {
+        InventoryManager manager = InventoryManager.open(logFile);
+        fillInventory(manager);
+        manager.saveSnapshotAsync(snapshotFile).join();
+        manager.close();
+    }
+
+    /**
+     * Checks that a damaged snapshot fails to load and leaves the inventory empty.
+     */
+    private void assertRejected() {
+        InventoryManager manager = new InventoryManager();
+        assertThrows(IOException.class, () -> InventorySnapshot.loadInto(snapshotFile, manager));
+        assertEquals(0, manager.getProductCount(), "products loaded from a damaged snapshot");
+        assertEquals(0, manager.getSupplierCount(), "suppliers loaded from a damaged snapshot");
+    }
+
+    private static void assertSameInventory(InventoryManager expected, InventoryManager actual) {
+        assertEquals(expected.getNextProductId(), actual.getNextProductId(), "next product ID");
+        assertEquals(expected.getNextSupplierId(), actual.getNextSupplierId(), "next supplier ID");
+
+        List<Supplier> expectedSuppliers = expected.getAllSuppliers();
+        List<Supplier> actualSuppliers = actual.getAllSuppliers();
+        assertEquals(expectedSuppliers.size(), actualSuppliers.size(), "supplier count");
+        for (int i = 0; i < expectedSuppliers.size(); i++) {
+            Supplier want = expectedSuppliers.get(i);
+            Supplier got = actualSuppliers.get(i);
+            assertEquals(want.getSupplierId(), got.getSupplierId(), "supplier ID");
+            assertEquals(want.getSupplierName(), got.getSupplierName(), "name of supplier " + want.getSupplierId());
+            assertEquals(want.getContact(), got.getContact(), "contact of supplier " + want.getSupplierId());
+        }
+
+        List<Product> expectedProducts = expected.getAllProducts();
+        List<Product> actualProducts = actual.getAllProducts();
+        assertEquals(expectedProducts.size(), actualProducts.size(), "product count");
+        for (int i = 0; i < expectedProducts.size(); i++) {
+            assertSameProduct(expectedProducts.get(i), actualProducts.get(i));
+        }
+    }
+
+    private static void assertSameProduct(Product want, Product got) {
+        String label = "product " + want.getId();
+        assertEquals(want.getId(), got.getId(), "product ID");
+        assertEquals(want.getClass(), got.getClass(), "type of " + label);
+        assertEquals(want.getName(), got.getName(), "name of " + label);
+        assertEquals(want.getPrice(), got.getPrice(), "price of " + label);
+        assertEquals(want.getQuantity(), got.getQuantity(), "quantity of " + label);
+        assertEquals(want.getCategory(), got.getCategory(), "category of " + label);
+        assertEquals(want.getSupplier().getSupplierId(), got.getSupplier().getSupplierId(), "supplier of " + label);
+        assertEquals(want.getLowStockThreshold(), got.getLowStockThreshold(), "threshold of " + label);
+
+        if (want instanceof Perishable perishable) {
+            assertEquals(perishable.getExpiryEpochDay(), ((Perishable) got).getExpiryEpochDay(), "expiry of " + label);
+        } else {
+            assertEquals(((NonPerishable) want).getShelfLife(), ((NonPerishable) got).getShelfLife(),
+                    "shelf life of " + label);
+        }
+    }
+}
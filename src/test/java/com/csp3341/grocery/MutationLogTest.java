@@ -0,0 +1,150 @@
+/**
+ * This file defines the tests for MutationLog: replaying a log after a crash that
+ * tore its last record, logging shelf life and supplier changes, and refusing changes
+ * once the log can no longer be written.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for the write-ahead mutation log, through the InventoryManager that owns it.
+ */
+class MutationLogTest {
+    // Writes to this device always fail with "No space left on device" (Linux)
+    private static final Path FULL_DEVICE = Path.of("/dev/full");
+
+    @TempDir
+    Path tempDir;
+
+    private PrintStream console;
+
+    @BeforeEach
+    void silenceConsole() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(console);
+    }
+
+    @Test
+    void replayDropsTornLastRecord() throws IOException {
+        Path logFile = tempDir.resolve("inventory.wal");
+        Supplier supplier = new Supplier(1, "Fresh Farms", "fresh@example.com");
+
+        InventoryManager manager = InventoryManager.open(logFile);
+        manager.addSupplier(supplier);
+        manager.addProduct(new NonPerishable(1, "Rice 5kg", 1200.0, 40, Category.DRIED_FOOD, supplier, "12 months"));
+        manager.updateStock(1, 35);
+        long lengthBeforeLastChange = Files.size(logFile);
+        manager.updateStock(1, 30);
+        manager.close();
+
+        // A crash part way through writing the last record
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(logFile) - 3);
+        }
+
+        manager = InventoryManager.open(logFile);
+        assertEquals(35, manager.findProduct(1).orElseThrow().getQuantity(), "quantity before the torn record");
+        assertEquals(lengthBeforeLastChange, Files.size(logFile), "log length after dropping the torn record");
+
+        // New records follow the last complete one
+        manager.updateStock(1, 20);
+        manager.close();
+        manager = InventoryManager.open(logFile);
+        assertEquals(20, manager.findProduct(1).orElseThrow().getQuantity(), "quantity logged after recovery");
+        manager.close();
+    }
+
+    @Test
+    void shelfLifeChangeIsLoggedAndReplayed() throws IOException {
+        Path logFile = tempDir.resolve("inventory.wal");
+        Supplier supplier = new Supplier(1, "Fresh Farms", "fresh@example.com");
+
+        InventoryManager manager = InventoryManager.open(logFile);
+        manager.addSupplier(supplier);
+        manager.addProduct(new NonPerishable(1, "Rice 5kg", 1200.0, 40, Category.DRIED_FOOD, supplier, "12 months"));
+        long versionBefore = manager.getModificationVersion();
+
+        NonPerishable rice = (NonPerishable) manager.findProduct(1).orElseThrow();
+        rice.setShelfLife("  18 months ");
+        assertTrue(manager.getModificationVersion() > versionBefore, "version not bumped by a shelf life change");
+        manager.close();
+
+        manager = InventoryManager.open(logFile);
+        assertEquals("18 months", ((NonPerishable) manager.findProduct(1).orElseThrow()).getShelfLife(),
+                "shelf life after replay");
+        manager.close();
+    }
+
+    @Test
+    void supplierChangeIsLoggedAndReplayed() throws IOException {
+        Path logFile = tempDir.resolve("inventory.wal");
+
+        InventoryManager manager = InventoryManager.open(logFile);
+        manager.addSupplier(new Supplier(1, "Fresh Farms", "fresh@example.com"));
+        manager.addSupplier(new Supplier(2, "Green Valley", "green@example.com"));
+        long versionBefore = manager.getModificationVersion();
+
+        Supplier supplier = manager.findSupplier(1).orElseThrow();
+        supplier.setSupplierName("Fresh Farms Co-op");
+        assertTrue(manager.getModificationVersion() > versionBefore, "version not bumped by a supplier change");
+        supplier.setContact("orders@freshfarms.example.com");
+        manager.close();
+
+        manager = InventoryManager.open(logFile);
+        Supplier replayed = manager.findSupplier(1).orElseThrow();
+        assertEquals("Fresh Farms Co-op", replayed.getSupplierName(), "supplier name after replay");
+        assertEquals("orders@freshfarms.example.com", replayed.getContact(), "supplier contact after replay");
+        assertEquals("Green Valley", manager.findSupplier(2).orElseThrow().getSupplierName(),
+                "unchanged supplier after replay");
+        manager.close();
+    }
+
+    @Test
+    void failedWriteMakesInventoryReadOnly() throws IOException {
+        assumeTrue(Files.isWritable(FULL_DEVICE), "needs " + FULL_DEVICE);
+        InventoryManager manager = InventoryManager.open(FULL_DEVICE);
+
+        // The first change is made in memory, but the caller learns it is not on disk
+        Supplier supplier = new Supplier(1, "Fresh Farms", "fresh@example.com");
+        assertThrows(UncheckedIOException.class, () -> manager.addSupplier(supplier));
+        assertEquals(1, manager.getSupplierCount(), "supplier count after the failed sync");
+
+        // Every later change is refused before it is made
+        assertThrows(IllegalStateException.class,
+                () -> manager.addSupplier(new Supplier(2, "Green Valley", "green@example.com")));
+        assertThrows(IllegalStateException.class,
+                () -> manager.addProduct(new NonPerishable(1, "Rice 5kg", 1200.0, 40,
+                        Category.DRIED_FOOD, supplier, "12 months")));
+        assertThrows(IllegalStateException.class, () -> manager.removeSupplier(1));
+        assertThrows(IllegalStateException.class, () -> supplier.setContact("orders@example.com"));
+        assertEquals(1, manager.getSupplierCount(), "supplier count after refused changes");
+        assertTrue(manager.findSupplier(1).isPresent(), "refused removal removed the supplier");
+
+        // Closing reports the lost records, and closes the file anyway
+        assertThrows(IOException.class, manager::close);
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * This file defines the tests for NameIndex: matches are ranked exact name, name prefix,
+ * word prefix, then anywhere inside a name, short queries only match word starts, and
+ * searches stay right after names are removed and the index is rebuilt.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for NameIndex, checked against a search that ranks every product.
+ */
+class NameIndexTest {
+    private static final String[] WORDS = {"milk", "oat", "butter", "bread", "rice", "cream", "tea", "ice"};
+
+    private NameIndex index;
+    private Supplier supplier;
+    private int nextId;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameIndex();
+        supplier = new Supplier(1, "Fresh Farms", "fresh@example.com");
+        nextId = 1;
+    }
+
+    @Test
+    void matchesAreRankedExactThenPrefixThenWordThenInside() {
+        add("Buttermilk");
+        add("Oat Milk");
+        add("Milk Chocolate");
+        add("Milk");
+        add("Bread");
+
+        assertEquals(List.of("Milk", "Milk Chocolate", "Oat Milk", "Buttermilk"), names(index.search("milk", 10)),
+                "matches for milk");
+    }
+
+    @Test
+    void queriesIgnoreCaseAndSurroundingSpaces() {
+        add("Fresh MILK");
+
+        assertEquals(List.of("Fresh MILK"), names(index.search("  Milk ", 10)), "matches for ' Milk '");
+        assertEquals(List.of("Fresh MILK"), names(index.search("SH M", 10)), "match across words");
+        assertEquals(List.of(), names(index.search("   ", 10)), "matches for a blank query");
+    }
+
+    @Test
+    void shortQueriesOnlyMatchWordStarts() {
+        add("Buttermilk");
+        add("Oat Milk");
+        add("Milk");
+
+        // Shorter than a trigram: 'mi' inside Buttermilk is not a word start
+        assertEquals(List.of("Milk", "Oat Milk"), names(index.search("mi", 10)), "matches for mi");
+        assertEquals(List.of("Milk", "Oat Milk"), names(index.search("m", 10)), "matches for m");
+        assertEquals(List.of("Buttermilk", "Milk", "Oat Milk"), names(index.search("ilk", 10)),
+                "three characters match inside a word");
+    }
+
+    @Test
+    void queryWithAPieceNoNameContainsFindsNothing() {
+        add("Oat Milk");
+
+        assertEquals(List.of(), index.search("oat mix", 10), "matches for oat mix");
+        assertEquals(List.of(), index.search("zz", 10), "matches for zz");
+    }
+
+    @Test
+    void productsSharingANameAreListedByIdUpToTheLimit() {
+        Product second = add("Bread", 5);
+        Product first = add("bread", 2);
+        Product third = add("Bread ", 9);
+
+        assertEquals(1, index.nameCount(), "names indexed");
+        assertEquals(List.of(first, second, third), index.search("bread", 10), "products named bread");
+        assertEquals(List.of(first, second), index.search("bread", 2), "products with limit 2");
+
+        index.remove(second);
+        assertEquals(List.of(first, third), index.search("bread", 10), "products after removing one");
+    }
+
+    @Test
+    void searchesMatchAFullRankingAfterRemovalsAndRebuilds() {
+        // Numbered names, so most products have a name of their own
+        Random random = new Random(3);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 6_000; i++) {
+            products.add(add(randomName(random) + " " + random.nextInt(10_000)));
+        }
+
+        // Remove two thirds, so dead names outnumber live ones and the lists are rebuilt
+        for (int i = 0; i < 4_000; i++) {
+            index.remove(products.remove(random.nextInt(products.size())));
+        }
+        for (int i = 0; i < 500; i++) {
+            products.add(add(randomName(random)));
+        }
+
+        List<String> queries = new ArrayList<>(List.of("m", "mi", "ice", "rice", "ea", "ream", "tea ice", "k o", "1", "42", "ice 7"));
+        for (int i = 0; i < 50; i++) {
+            String name = NameIndex.fold(randomName(random));
+            int start = random.nextInt(name.length());
+            String query = name.substring(start, Math.min(name.length(), start + 1 + random.nextInt(6)));
+            if (!query.isBlank()) {
+                queries.add(query);
+            }
+        }
+
+        for (String query : queries) {
+            for (int limit : new int[] {1, 7, 100_000}) {
+                assertEquals(ids(rankAll(products, query, limit)), ids(index.search(query, limit)),
+                        "matches for '" + query + "' with limit " + limit);
+            }
+        }
+        assertTrue(index.nameCount() <= products.size(), "names indexed");
+    }
+
+    /**
+     * Ranks every product the way NameIndex describes, for comparison.
+     */
+    private static List<Product> rankAll(List<Product> products, String query, int limit) {
+        String folded = NameIndex.fold(query);
+        List<Product> matches = new ArrayList<>();
+        for (Product product : products) {
+            if (rank(NameIndex.fold(product.getName()), folded) >= 0) {
+                matches.add(product);
+            }
+        }
+        matches.sort(Comparator.<Product>comparingInt(product -> rank(NameIndex.fold(product.getName()), folded))
+                .thenComparing(product -> NameIndex.fold(product.getName()))
+                .thenComparingInt(Product::getId));
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    /**
+     * 0 exact, 1 name prefix, 2 word prefix, 3 inside a word (three characters or more), -1 no match.
+     */
+    private static int rank(String name, String query) {
+        if (name.equals(query)) {
+            return 0;
+        }
+        if (name.startsWith(query)) {
+            return 1;
+        }
+        boolean inside = false;
+        for (int at = name.indexOf(query); at >= 0; at = name.indexOf(query, at + 1)) {
+            if (Character.isLetterOrDigit(name.charAt(at)) && !Character.isLetterOrDigit(name.charAt(at - 1))) {
+                return 2;
+            }
+            inside = true;
+        }
+        return inside && query.length() >= NameIndex.TRIGRAM_LENGTH ? 3 : -1;
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            name.append(random.nextBoolean() ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+        }
+        return name.toString();
+    }
+
+    private Product add(String name) {
+        return add(name, nextId);
+    }
+
+    private Product add(String name, int id) {
+        nextId = Math.max(nextId, id) + 1;
+        Product product = new NonPerishable(id, name, 1.0, 1, Category.DAIRY, supplier, "12 months");
+        index.add(product);
+        return product;
+    }
+
+    private static List<String> names(List<Product> products) {
+        List<String> names = new ArrayList<>();
+        products.forEach(product -> names.add(product.getName()));
+        return names;
+    }
+
+    private static List<Integer> ids(List<Product> products) {
+        List<Integer> ids = new ArrayList<>();
+        products.forEach(product -> ids.add(product.getId()));
+        return ids;
+    }
+}
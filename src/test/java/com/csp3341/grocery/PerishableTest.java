@@ -0,0 +1,105 @@
+/**
+ * This file defines the tests for the expiry date parsing in Perishable: the hand-written
+ * YYYY-MM-DD parser accepts and rejects exactly the dates LocalDate.parse does, leap days
+ * and signed or extended years included.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for Perishable.parseExpiryDay, checked against LocalDate.parse with the ISO date format.
+ */
+class PerishableTest {
+
+    @Test
+    void leapDaysFollowTheGregorianRules() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), Perishable.parseExpiryDay("2024-02-29"), "2024-02-29");
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), Perishable.parseExpiryDay("2000-02-29"), "2000-02-29");
+        assertEquals(LocalDate.of(0, 2, 29).toEpochDay(), Perishable.parseExpiryDay("0000-02-29"), "0000-02-29");
+        assertThrows(DateTimeParseException.class, () -> Perishable.parseExpiryDay("2023-02-29"), "2023-02-29");
+        assertThrows(DateTimeParseException.class, () -> Perishable.parseExpiryDay("1900-02-29"), "1900-02-29");
+        assertThrows(DateTimeParseException.class, () -> Perishable.parseExpiryDay("2024-02-30"), "2024-02-30");
+
+        for (int year = 0; year <= 2400; year++) {
+            assertParsesLikeLocalDate(String.format("%04d-02-28", year));
+            assertParsesLikeLocalDate(String.format("%04d-02-29", year));
+            assertParsesLikeLocalDate(String.format("%04d-03-01", year));
+        }
+    }
+
+    @Test
+    void everyDayOfFourDigitYearsMatchesLocalDate() {
+        long first = LocalDate.of(0, 1, 1).toEpochDay();
+        long last = LocalDate.of(9999, 12, 31).toEpochDay();
+        for (long day = first; day <= last; day++) {
+            String text = LocalDate.ofEpochDay(day).toString();
+            long parsed = Perishable.parseExpiryDay(text);
+            if (parsed != day) {
+                assertEquals(day, parsed, "epoch day of " + text);
+            }
+        }
+    }
+
+    @Test
+    void outOfRangeMonthsAndDaysAreRejected() {
+        for (int year : new int[] {0, 1900, 1970, 2023, 2024, 9999}) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    assertParsesLikeLocalDate(String.format("%04d-%02d-%02d", year, month, day));
+                }
+            }
+        }
+    }
+
+    @Test
+    void signedAndExtendedYearsMatchLocalDate() {
+        String[] dates = {
+            "-0001-12-31", "-0004-02-29", "-0100-02-29", "-0400-02-29", "-2024-02-29", "-1900-02-29",
+            "+10000-01-01", "+10000-02-29", "+12345-06-07", "-999999999-01-01", "+999999999-12-31",
+            "+2026-06-01", "2026-06-01+02:00", "2026-06-01Z"
+        };
+        for (String date : dates) {
+            assertParsesLikeLocalDate(date);
+        }
+        assertEquals(LocalDate.of(-1, 12, 31).toEpochDay(), Perishable.parseExpiryDay("-0001-12-31"), "-0001-12-31");
+        assertEquals(LocalDate.MAX.toEpochDay(), Perishable.parseExpiryDay("+999999999-12-31"), "latest date");
+        assertEquals(LocalDate.MIN.toEpochDay(), Perishable.parseExpiryDay("-999999999-01-01"), "earliest date");
+    }
+
+    @Test
+    void malformedTextIsRejected() {
+        String[] texts = {
+            "", "2026", "2026-6-01", "2026-06-1", "2026/06/01", "20260601", "2026-06-0a", "a026-06-01",
+            "2026-06-01x", " 2026-06-01", "2026--6-01", "-026-06-01", "10000-01-01", "２026-06-01",
+            "01/07/2026", "2026-02-30"
+        };
+        for (String text : texts) {
+            assertThrows(DateTimeParseException.class, () -> Perishable.parseExpiryDay(text), "'" + text + "'");
+            assertParsesLikeLocalDate(text);
+        }
+    }
+
+    /**
+     * Checks parseExpiryDay gives the epoch day LocalDate.parse gives, or throws when it throws.
+     */
+    private static void assertParsesLikeLocalDate(String text) {
+        long expected;
+        try {
+            expected = LocalDate.parse(text, DateTimeFormatter.ISO_DATE).toEpochDay();
+        } catch (DateTimeParseException e) {
+            assertThrows(DateTimeParseException.class, () -> Perishable.parseExpiryDay(text),
+                    "'" + text + "' is rejected by LocalDate.parse");
+            return;
+        }
+        assertEquals(expected, Perishable.parseExpiryDay(text), "epoch day of '" + text + "'");
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * This file defines the tests for ReportCapture: copying, filtering and sorting a list
+ * split across a ForkJoinPool gives the same copies, in the same order, as on one
+ * thread, and so do the report files built from them.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for ReportCapture with lists long enough to be split into several chunks.
+ */
+class ReportCaptureTest {
+    private static final int PRODUCTS = 100_000;
+    private static final Instant NOW = Instant.parse("2026-06-01T10:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private PrintStream console;
+    private InventoryManager manager;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        // A fixed clock, so both runs of a report show the same date and timestamp
+        manager = new InventoryManager();
+        manager.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        new InventoryGenerator(42).populate(manager, PRODUCTS);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdownNow();
+        manager.close();
+        System.setOut(console);
+    }
+
+    @Test
+    void parallelCopiesMatchSequentialCopies() {
+        // Shuffled, so chunks sorted by ID have to be merged, not just joined
+        List<Product> live = new ArrayList<>(manager.getAllProducts());
+        Collections.shuffle(live, new Random(7));
+        ReportCapture capture = new ReportCapture(manager.getAllSuppliers());
+        Predicate<Product> lowStock = Product::isLowStock;
+        Predicate<Product> expired = product -> product.isExpired(manager.getBusinessDate());
+
+        for (Predicate<Product> keep : List.of(product -> true, lowStock, expired)) {
+            for (boolean byId : new boolean[] {false, true}) {
+                List<Product> sequential = capture.copyProducts(live, keep, byId, null);
+                List<Product> parallel = capture.copyProducts(live, keep, byId, pool);
+                assertArrayEquals(idsOf(sequential), idsOf(parallel), "copied products, by ID: " + byId);
+            }
+        }
+
+        List<Product> copies = capture.copyProducts(live, null, false, null);
+        assertEquals(PRODUCTS, copies.size(), "copies of every product");
+        assertArrayEquals(idsOf(live), idsOf(copies), "copies in list order");
+
+        List<Product> sequential = ReportCapture.select(copies, lowStock, null);
+        List<Product> parallel = ReportCapture.select(copies, lowStock, pool);
+        assertTrue(sequential.size() > 0, "no low stock products to select");
+        assertArrayEquals(idsOf(sequential), idsOf(parallel), "selected products");
+        for (int i = 1; i < parallel.size(); i++) {
+            assertTrue(parallel.get(i - 1).getId() < parallel.get(i).getId(), "selection not in product ID order");
+        }
+    }
+
+    @Test
+    void parallelReportsMatchSequentialReports() throws Exception {
+        // Every other product runs out, highest ID first - the low stock set is then
+        // several chunks long and not in product ID order
+        for (int id = PRODUCTS; id > 0; id -= 2) {
+            manager.updateStock(id, 0);
+        }
+        assertTrue(manager.countExpiredProducts() > 0, "no expired products to report");
+        assertTrue(manager.countLowStockProducts() >= PRODUCTS / 2, "low stock products");
+
+        assertSameReport(file -> manager.writeCompleteReport(file, true), "complete");
+        assertSameReport(manager::writeLowStockReport, "low-stock");
+        assertSameReport(manager::writeExpiredProductsReport, "expired");
+        assertSameReport(file -> manager.writeCategoryReport(file, Category.DAIRY), "category");
+    }
+
+    /**
+     * Writes a report once on the calling thread and once split across the pool, and
+     * checks the two files are identical.
+     */
+    private void assertSameReport(ReportWriter writer, String name) throws IOException {
+        Path sequentialFile = tempDir.resolve(name + "-sequential.txt");
+        Path parallelFile = tempDir.resolve(name + "-parallel.txt");
+
+        manager.setQueryPool(null);
+        writer.write(sequentialFile.toString());
+
+        // Counts as a change, so the second report is not served from the report cache
+        manager.adjustStock(1, 0);
+        manager.setQueryPool(pool);
+        manager.setParallelThreshold(1);
+        try {
+            writer.write(parallelFile.toString());
+        } finally {
+            manager.setQueryPool(null);
+            manager.setParallelThreshold(InventoryManager.DEFAULT_PARALLEL_THRESHOLD);
+        }
+
+        assertEquals(Files.readString(sequentialFile), Files.readString(parallelFile), name + " report");
+    }
+
+    private static int[] idsOf(List<? extends Product> products) {
+        int[] ids = new int[products.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = products.get(i).getId();
+        }
+        return ids;
+    }
+
+    /**
+     * Writes one report file.
+     */
+    private interface ReportWriter {
+        void write(String filename) throws IOException;
+    }
+}
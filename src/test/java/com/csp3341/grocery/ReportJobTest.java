@@ -0,0 +1,105 @@
+/**
+ * This file defines the tests for ReportJob: cancelling a job stops its report and
+ * deletes the partly written file, even when the cancel arrives before ReportService
+ * has handed the job its thread.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for ReportJob, driving it the way ReportService does.
+ */
+class ReportJobTest {
+    // Rows the slow writer below writes, one every millisecond, unless it is interrupted
+    private static final int ROWS = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void cancelBeforeSetTaskStopsTheRunningJob() throws Exception {
+        Path file = tempDir.resolve("report.txt");
+        ReportJob job = new ReportJob(1, "Slow report", file.toString());
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger rowsWritten = new AtomicInteger();
+
+        // The job's thread is already writing when it is cancelled, but has no task to interrupt yet
+        Future<?> task = executor.submit(() -> job.run(filename -> {
+            started.countDown();
+            writeSlowly(Path.of(filename), rowsWritten);
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS), "job did not start");
+        assertTrue(job.cancel(), "running job not cancelled");
+        job.setTask(task);
+
+        // The job stops at the next row instead of writing the whole file
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "job still running after cancel");
+        assertTrue(rowsWritten.get() < ROWS, "cancelled job wrote every row");
+        assertEquals(ReportJob.Status.CANCELLED, job.getStatus(), "job status");
+        assertFalse(Files.exists(file), "partly written file not deleted");
+    }
+
+    @Test
+    void cancelBeforeTheJobStartsWritesNothing() throws Exception {
+        Path file = tempDir.resolve("report.txt");
+        ReportJob job = new ReportJob(1, "Slow report", file.toString());
+        AtomicInteger rowsWritten = new AtomicInteger();
+
+        assertTrue(job.cancel(), "job not cancelled");
+        job.setTask(executor.submit(() -> job.run(filename -> writeSlowly(Path.of(filename), rowsWritten))));
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "job still running after cancel");
+        assertEquals(0, rowsWritten.get(), "rows written by a job cancelled before it started");
+        assertFalse(Files.exists(file), "file created by a job cancelled before it started");
+    }
+
+    /**
+     * Writes one row a millisecond, stopping (like ReportOutput) once the thread is interrupted.
+     */
+    private static void writeSlowly(Path file, AtomicInteger rowsWritten) throws IOException {
+        for (int i = 0; i < ROWS; i++) {
+            Files.writeString(file, "row " + i + "\n", StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            rowsWritten.incrementAndGet();
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Report cancelled");
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * This file defines the tests for RowFormat: prices come out exactly as
+ * String.format("%.2f") writes them, rounding ties included, and dates exactly as
+ * LocalDate.toString writes them, for every day the fast path handles and beyond.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for RowFormat, run in a plain (US) format locale unless a test changes it.
+ */
+class RowFormatTest {
+    private Locale defaultLocale;
+
+    @BeforeEach
+    void setUp() {
+        defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+        Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+    }
+
+    @Test
+    void pricesMatchStringFormat() {
+        double[] prices = {
+            0, -0.0, 0.001, 0.005, 0.015, 0.125, 1.005, 1.115, 2.675, 10.005, 99.995, 100,
+            250.5, 123456.785, 999_999_999.99, 999_999_999.995, 1e9, 1e10, 1e300,
+            -1.5, -0.004, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY
+        };
+        for (double price : prices) {
+            assertPriceMatches(price);
+        }
+
+        Random random = new Random(5);
+        for (int i = 0; i < 200_000; i++) {
+            // Whole cents, half cents (the ties), and their nearest neighbouring doubles
+            long halfCents = random.nextInt(2_000_000_000);
+            double price = halfCents / 200.0;
+            assertPriceMatches(price);
+            assertPriceMatches(Math.nextUp(price));
+            assertPriceMatches(Math.nextDown(price));
+
+            // Arbitrary values across the range the fast path covers
+            assertPriceMatches(random.nextDouble() * Math.pow(10, random.nextInt(10)));
+        }
+    }
+
+    @Test
+    void datesMatchLocalDateForEveryFourDigitYear() {
+        long first = LocalDate.of(0, 1, 1).toEpochDay();
+        long last = LocalDate.of(9999, 12, 31).toEpochDay();
+        StringBuilder out = new StringBuilder();
+        for (long day = first; day <= last; day++) {
+            out.setLength(0);
+            RowFormat.appendDate(out, day);
+            String expected = LocalDate.ofEpochDay(day).toString();
+            if (!expected.contentEquals(out)) {
+                assertEquals(expected, out.toString(), "date for epoch day " + day);
+            }
+        }
+    }
+
+    @Test
+    void datesOutsideFourDigitYearsMatchLocalDate() {
+        LocalDate[] dates = {
+            LocalDate.of(-1, 12, 31), LocalDate.of(-4, 2, 29), LocalDate.of(-10_000, 1, 1),
+            LocalDate.of(10_000, 1, 1), LocalDate.of(12_345, 6, 7), LocalDate.MIN, LocalDate.MAX
+        };
+        for (LocalDate date : dates) {
+            StringBuilder out = new StringBuilder();
+            RowFormat.appendDate(out, date.toEpochDay());
+            assertEquals(date.toString(), out.toString(), "date " + date);
+        }
+    }
+
+    @Test
+    void onlyLocalesWithAsciiDigitsAndAPointArePlain() {
+        assertTrue(RowFormat.isPlainLocale(), "US locale");
+
+        Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+        assertFalse(RowFormat.isPlainLocale(), "German locale (decimal comma)");
+
+        Locale.setDefault(Locale.Category.FORMAT, Locale.forLanguageTag("ar-EG-u-nu-arab"));
+        assertFalse(RowFormat.isPlainLocale(), "Arabic digits");
+
+        Locale.setDefault(Locale.Category.FORMAT, Locale.UK);
+        assertTrue(RowFormat.isPlainLocale(), "UK locale");
+    }
+
+    private static void assertPriceMatches(double price) {
+        StringBuilder out = new StringBuilder();
+        RowFormat.appendPrice(out, price);
+        assertEquals(String.format("%.2f", price), out.toString(), "price " + price);
+    }
+}
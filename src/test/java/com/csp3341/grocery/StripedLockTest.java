@@ -0,0 +1,140 @@
+/**
+ * This file defines the tests for StripedLock: readers on different threads share the
+ * lock, the write lock shuts every reader out, and re-taking the write lock only counts
+ * the hold.
+ */
+
+package com.csp3341.grocery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for StripedLock, with more threads than stripes so some readers share a stripe.
+ */
+class StripedLockTest {
+    private static final int STRIPES = 4;
+    private static final int THREADS = 8;
+
+    private StripedLock lock;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        lock = new StripedLock(STRIPES);
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void stripeCountIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new StripedLock(0).getStripeCount(), "stripes for 0");
+        assertEquals(4, new StripedLock(3).getStripeCount(), "stripes for 3");
+        assertEquals(8, new StripedLock(8).getStripeCount(), "stripes for 8");
+        assertEquals(64, new StripedLock(1000).getStripeCount(), "stripes for 1000");
+    }
+
+    @Test
+    void readersHoldTheLockTogether() throws Exception {
+        // Every thread takes the read lock and waits until all of them hold it
+        CountDownLatch allHolding = new CountDownLatch(THREADS);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            readers.add(pool.submit(() -> {
+                Lock readLock = lock.readLock();
+                readLock.lock();
+                try {
+                    allHolding.countDown();
+                    assertTrue(allHolding.await(10, TimeUnit.SECONDS), "readers blocked each other");
+                } finally {
+                    readLock.unlock();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> reader : readers) {
+            reader.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void writerExcludesReadersOnEveryStripe() throws Exception {
+        lock.writeLock().lock();
+        List<Future<?>> readers = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                readers.add(pool.submit(() -> {
+                    lock.readLock().lock();
+                    lock.readLock().unlock();
+                }));
+            }
+
+            // No reader gets in while the write lock is held, whichever stripe it maps to
+            for (Future<?> reader : readers) {
+                assertThrows(TimeoutException.class, () -> reader.get(50, TimeUnit.MILLISECONDS),
+                        "reader got in while the write lock was held");
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (Future<?> reader : readers) {
+            reader.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void writeLockIsReentrant() throws Exception {
+        lock.writeLock().lock();
+        lock.writeLock().lock();
+        lock.readLock().lock();         // A writer may also read
+        lock.readLock().unlock();
+        lock.writeLock().unlock();
+
+        // Still held once - another thread cannot read yet
+        Future<?> reader = pool.submit(() -> {
+            lock.readLock().lock();
+            lock.readLock().unlock();
+        });
+        assertThrows(TimeoutException.class, () -> reader.get(50, TimeUnit.MILLISECONDS),
+                "write lock released by the inner unlock");
+
+        lock.writeLock().unlock();
+        reader.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void onlyTheHolderCanReleaseTheWriteLock() throws Exception {
+        assertThrows(IllegalMonitorStateException.class, () -> lock.writeLock().unlock(),
+                "unlock without holding the lock");
+
+        lock.writeLock().lock();
+        try {
+            Future<?> other = pool.submit(() -> lock.writeLock().unlock());
+            Exception e = assertThrows(Exception.class, () -> other.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalMonitorStateException,
+                    "unlock by another thread: " + e.getCause());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}